@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Coalesces accepted barcodes into batches and delivers them with credit-based flow control:
+ * a batch is only delivered after the previous batch has been acknowledged.
+ *
+ * While waiting for an acknowledgement, newer detections of the same barcode replace older ones
+ * and the oldest barcodes are dropped once the maximum number of pending barcodes is reached.
+ * If a batch is not acknowledged within `ACKNOWLEDGE_TIMEOUT` milliseconds, e.g. because the WebView
+ * was reloaded or no listener is registered, the next batch is delivered anyway.
+ * The barcodes of the unacknowledged batch are not counted as dropped, since they were already delivered.
+ *
+ * Must only be used from the thread of the scheduler.
+ */
+public class BarcodeBatcher<T> {
+
+    /**
+     * The maximum number of pending barcodes as a multiple of the batch size.
+     */
+    public static final int MAX_PENDING_BATCHES = 4;
+
+    public static final long ACKNOWLEDGE_TIMEOUT = 5000;
+
+    public interface Scheduler {
+        void postDelayed(@NonNull Runnable runnable, long delayMillis);
+
+        void removeCallbacks(@NonNull Runnable runnable);
+    }
+
+    public interface Delivery<T> {
+        void deliver(int batchId, @NonNull List<T> items, int droppedCount);
+    }
+
+    @NonNull
+    private final Scheduler scheduler;
+
+    @NonNull
+    private final Delivery<T> delivery;
+
+    private final long interval;
+
+    private final int maxSize;
+
+    private final LinkedHashMap<String, T> pendingItems = new LinkedHashMap<>();
+
+    private final Runnable flushRunnable = this::onIntervalElapsed;
+
+    private final Runnable acknowledgeTimeoutRunnable = this::onAcknowledgeTimeout;
+
+    private int nextBatchId = 1;
+
+    /**
+     * The ID of the delivered batch that was not yet acknowledged.
+     */
+    @Nullable
+    private Integer unacknowledgedBatchId;
+
+    private boolean isFlushDue = false;
+
+    private boolean isFlushScheduled = false;
+
+    private int droppedCount = 0;
+
+    /**
+     * @param interval The time in milliseconds to collect barcodes before a batch is delivered.
+     * @param maxSize The number of barcodes at which a batch is delivered before the interval elapses.
+     */
+    public BarcodeBatcher(@NonNull Scheduler scheduler, @NonNull Delivery<T> delivery, long interval, int maxSize) {
+        this.scheduler = scheduler;
+        this.delivery = delivery;
+        this.interval = interval;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Adds the items of a frame.
+     *
+     * @param keys The keys of the items. An item replaces a pending item with the same key.
+     */
+    public void add(@NonNull List<String> keys, @NonNull List<T> items) {
+        for (int i = 0; i < items.size(); i++) {
+            String key = keys.get(i);
+            // Re-insert to move the superseding item to the end
+            if (pendingItems.remove(key) == null) {
+                dropOldestIfFull();
+            }
+            pendingItems.put(key, items.get(i));
+        }
+        if (pendingItems.isEmpty()) {
+            return;
+        }
+        if (pendingItems.size() >= maxSize) {
+            isFlushDue = true;
+            flushIfPossible();
+        } else if (!isFlushScheduled && !isFlushDue) {
+            isFlushScheduled = true;
+            scheduler.postDelayed(flushRunnable, interval);
+        }
+    }
+
+    /**
+     * Returns `false` if the batch ID does not belong to the batch that awaits acknowledgement.
+     */
+    public boolean acknowledge(int batchId) {
+        if (unacknowledgedBatchId == null || unacknowledgedBatchId != batchId) {
+            return false;
+        }
+        scheduler.removeCallbacks(acknowledgeTimeoutRunnable);
+        unacknowledgedBatchId = null;
+        flushIfPossible();
+        return true;
+    }
+
+    public void clear() {
+        scheduler.removeCallbacks(flushRunnable);
+        scheduler.removeCallbacks(acknowledgeTimeoutRunnable);
+        pendingItems.clear();
+        unacknowledgedBatchId = null;
+        isFlushDue = false;
+        isFlushScheduled = false;
+        droppedCount = 0;
+    }
+
+    private void onIntervalElapsed() {
+        isFlushScheduled = false;
+        isFlushDue = true;
+        flushIfPossible();
+    }
+
+    private void onAcknowledgeTimeout() {
+        if (unacknowledgedBatchId == null) {
+            return;
+        }
+        // Release the credit, so that a lost acknowledgement does not stop the delivery for the rest of the scan
+        unacknowledgedBatchId = null;
+        flushIfPossible();
+    }
+
+    private void flushIfPossible() {
+        if (!isFlushDue || unacknowledgedBatchId != null || pendingItems.isEmpty()) {
+            return;
+        }
+        scheduler.removeCallbacks(flushRunnable);
+        isFlushScheduled = false;
+        isFlushDue = false;
+        List<T> items = new ArrayList<>();
+        Iterator<T> iterator = pendingItems.values().iterator();
+        while (iterator.hasNext() && items.size() < maxSize) {
+            items.add(iterator.next());
+            iterator.remove();
+        }
+        int batchId = nextBatchId++;
+        int droppedCountOfBatch = droppedCount;
+        unacknowledgedBatchId = batchId;
+        droppedCount = 0;
+        if (!pendingItems.isEmpty()) {
+            // Deliver the remaining barcodes with the next batch
+            isFlushDue = true;
+        }
+        scheduler.postDelayed(acknowledgeTimeoutRunnable, ACKNOWLEDGE_TIMEOUT);
+        delivery.deliver(batchId, items, droppedCountOfBatch);
+    }
+
+    /**
+     * Only barcodes that are evicted from the pending barcodes before they were delivered are counted as dropped.
+     */
+    private void dropOldestIfFull() {
+        if (pendingItems.size() < maxSize * MAX_PENDING_BATCHES) {
+            return;
+        }
+        Iterator<String> iterator = pendingItems.keySet().iterator();
+        iterator.next();
+        iterator.remove();
+        droppedCount++;
+    }
+}
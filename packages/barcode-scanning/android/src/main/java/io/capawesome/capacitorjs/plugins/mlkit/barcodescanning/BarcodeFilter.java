@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.regex.Pattern;
+
+/**
+ * Rules that a detected barcode must match to be passed on.
+ *
+ * All configured rules must match.
+ */
+public class BarcodeFilter {
+
+    @Nullable
+    @Barcode.BarcodeFormat
+    public int[] formats;
+
+    @Nullable
+    public Integer minLength;
+
+    @Nullable
+    public Integer maxLength;
+
+    @Nullable
+    public String[] prefixes;
+
+    /**
+     * Must match the whole raw value.
+     */
+    @Nullable
+    public Pattern pattern;
+
+    @Nullable
+    @Barcode.BarcodeValueType
+    public int[] valueTypes;
+
+    public boolean matches(@NonNull Barcode barcode) {
+        if (formats != null && !contains(formats, barcode.getFormat())) {
+            return false;
+        }
+        if (valueTypes != null && !contains(valueTypes, barcode.getValueType())) {
+            return false;
+        }
+        if (minLength == null && maxLength == null && prefixes == null && pattern == null) {
+            return true;
+        }
+        String rawValue = barcode.getRawValue();
+        if (rawValue == null) {
+            return false;
+        }
+        if (minLength != null && rawValue.length() < minLength) {
+            return false;
+        }
+        if (maxLength != null && rawValue.length() > maxLength) {
+            return false;
+        }
+        if (prefixes != null && !startsWithAny(rawValue, prefixes)) {
+            return false;
+        }
+        return pattern == null || pattern.matcher(rawValue).matches();
+    }
+
+    private static boolean contains(@NonNull int[] values, int value) {
+        for (int element : values) {
+            if (element == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithAny(@NonNull String value, @NonNull String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (value.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
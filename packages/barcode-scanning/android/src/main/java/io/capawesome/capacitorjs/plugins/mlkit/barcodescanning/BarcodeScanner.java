@@ -9,34 +9,46 @@ import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Color;
 import android.graphics.Point;
+import android.graphics.PointF;
+import android.graphics.Rect;
+import android.hardware.camera2.CaptureRequest;
 import android.media.Image;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.provider.Settings;
+import android.util.DisplayMetrics;
 import android.view.Display;
 import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.widget.FrameLayout;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.camera.camera2.interop.Camera2Interop;
+import androidx.camera.camera2.interop.ExperimentalCamera2Interop;
 import androidx.camera.core.Camera;
 import androidx.camera.core.CameraControl;
 import androidx.camera.core.CameraSelector;
+import androidx.camera.core.DisplayOrientedMeteringPointFactory;
+import androidx.camera.core.ExtendableBuilder;
+import androidx.camera.core.FocusMeteringAction;
 import androidx.camera.core.ImageAnalysis;
 import androidx.camera.core.ImageProxy;
+import androidx.camera.core.MeteringPoint;
+import androidx.camera.core.MeteringPointFactory;
 import androidx.camera.core.Preview;
+import androidx.camera.core.SurfaceOrientedMeteringPointFactory;
 import androidx.camera.core.resolutionselector.ResolutionSelector;
 import androidx.camera.core.resolutionselector.ResolutionStrategy;
 import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.core.content.ContextCompat;
 import androidx.lifecycle.LifecycleOwner;
+import com.getcapacitor.Logger;
 import com.getcapacitor.PermissionState;
 import com.getcapacitor.PluginCall;
-import com.google.android.gms.common.moduleinstall.InstallStatusListener;
-import com.google.android.gms.common.moduleinstall.ModuleInstall;
-import com.google.android.gms.common.moduleinstall.ModuleInstallClient;
-import com.google.android.gms.common.moduleinstall.ModuleInstallRequest;
-import com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpdate;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
 import com.google.mlkit.vision.barcode.BarcodeScanning;
@@ -45,16 +57,39 @@ import com.google.mlkit.vision.codescanner.GmsBarcodeScanner;
 import com.google.mlkit.vision.codescanner.GmsBarcodeScannerOptions;
 import com.google.mlkit.vision.codescanner.GmsBarcodeScanning;
 import com.google.mlkit.vision.common.InputImage;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.FocusOnPointOptions;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.SetZoomRatioOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.ExportSessionResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMaxZoomRatioResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMinZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetScanMetricsResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.QueryScanLogResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.PayloadParser;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BarcodeScanner implements ImageAnalysis.Analyzer {
 
+    private static final String SESSIONS_DIRECTORY_NAME = "barcode-scanner-sessions";
+    private static final long MIN_FOCUS_INTERVAL_MILLIS = 500;
+    private static final long AUTO_FOCUS_INTERVAL_MILLIS = 3000;
+    private static final long MANUAL_FOCUS_HOLD_MILLIS = 3000;
+    private static final long FOCUS_AUTO_CANCEL_SECONDS = 3;
+    /**
+     * The time within which repeated acceptances of a barcode are only logged once.
+     */
+    private static final long SCAN_LOG_DEDUPLICATION_MILLIS = 1000;
+
     @Nullable
     private static Camera camera;
 
@@ -70,20 +105,69 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
     @Nullable
     private PreviewView previewView;
 
+    @Nullable
+    private int[] barcodeScannerInstanceFormats;
+
+    @Nullable
+    private Runnable sessionReleaseRunnable;
+
+    @Nullable
+    private ImageAnalysis boundImageAnalysis;
+
+    @Nullable
+    private String lastFocusedBarcodeRawValue;
+
+    private long lastFocusTimestamp = 0;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
     @Nullable
     private ScanSettings scanSettings;
 
+    @NonNull
+    private final GoogleBarcodeScannerModuleInstaller googleBarcodeScannerModuleInstaller;
+
+    /**
+     * Google code scanner clients by options, so that they are only created once.
+     */
+    private final HashMap<String, GmsBarcodeScanner> gmsBarcodeScanners = new HashMap<>();
+
+    @Nullable
+    private volatile SeenBarcodeSession seenBarcodeSession;
+
+    @Nullable
+    private ScanLogSink scanLogSink;
+
+    /**
+     * The time at which each raw value was last accepted, for the deduplication of the scan log.
+     */
+    private final HashMap<String, Long> lastLoggedRawValueTimestamps = new HashMap<>();
+
+    private final BarcodeVoter barcodeVoter = new BarcodeVoter();
+
+    private final ScanMetrics scanMetrics = new ScanMetrics();
+
     @Nullable
-    private ModuleInstallProgressListener moduleInstallProgressListener;
+    private BarcodeBatcher<BatchedBarcode> barcodeBatcher;
 
-    private HashMap<String, Integer> barcodeRawValueVotes = new HashMap<String, Integer>();
+    private long nextOverlayFrameId = 1;
+
+    private boolean wasOverlayPopulated = false;
+
+    private final FrameResultSequencer<FrameResult> frameResultSequencer = new FrameResultSequencer<>();
 
     private boolean isTorchEnabled = false;
 
     private boolean isPaused = false;
 
+    private boolean isWebViewBackgroundHidden = false;
+
     public BarcodeScanner(BarcodeScannerPlugin plugin) {
         this.plugin = plugin;
+        this.googleBarcodeScannerModuleInstaller = new GoogleBarcodeScannerModuleInstaller(
+            plugin.getContext(),
+            plugin::notifyGoogleBarcodeScannerModuleInstallProgressListener
+        );
     }
 
     /**
@@ -103,25 +187,60 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
     public void startScan(ScanSettings scanSettings, StartScanResultCallback callback) {
         // Stop the camera if running
         stopScan();
-
-        // Hide WebView background
-        hideWebViewBackground();
+        cancelSessionRelease();
 
         this.scanSettings = scanSettings;
+        scanMetrics.reset();
+        barcodeVoter.setCheckDigitValidation(scanSettings.checkDigitValidation);
+        barcodeVoter.setStrategy(scanSettings.votingStrategy);
+        barcodeVoter.setAcceptanceScore(scanSettings.acceptanceScore);
+        if (scanSettings.batchDelivery) {
+            barcodeBatcher = new BarcodeBatcher<>(
+                new BarcodeBatcher.Scheduler() {
+                    @Override
+                    public void postDelayed(@NonNull Runnable runnable, long delayMillis) {
+                        mainHandler.postDelayed(runnable, delayMillis);
+                    }
+
+                    @Override
+                    public void removeCallbacks(@NonNull Runnable runnable) {
+                        mainHandler.removeCallbacks(runnable);
+                    }
+                },
+                plugin::notifyBarcodesBatchScannedListener,
+                scanSettings.batchInterval,
+                scanSettings.batchSize
+            );
+        }
 
-        BarcodeScannerOptions options = buildBarcodeScannerOptions(scanSettings);
-        barcodeScannerInstance = BarcodeScanning.getClient(options);
+        if (!scanSettings.headless) {
+            // Hide WebView background
+            hideWebViewBackground();
+        }
 
-        ResolutionSelector resolutionSelector = new ResolutionSelector.Builder()
-            .setResolutionStrategy(new ResolutionStrategy(scanSettings.resolution, ResolutionStrategy.FALLBACK_RULE_CLOSEST_LOWER))
-            .build();
+        // Reuse the barcode scanner client of a retained session if the formats did not change
+        if (barcodeScannerInstance == null || !Arrays.equals(barcodeScannerInstanceFormats, scanSettings.formats)) {
+            if (barcodeScannerInstance != null) {
+                barcodeScannerInstance.close();
+            }
+            BarcodeScannerOptions options = buildBarcodeScannerOptions(scanSettings);
+            barcodeScannerInstance = BarcodeScanning.getClient(options);
+            barcodeScannerInstanceFormats = scanSettings.formats.clone();
+        }
 
-        ImageAnalysis imageAnalysis = new ImageAnalysis.Builder()
-            .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
-            .setResolutionSelector(resolutionSelector)
-            .build();
+        ImageAnalysis imageAnalysis = buildImageAnalysis(scanSettings);
 
-        imageAnalysis.setAnalyzer(ContextCompat.getMainExecutor(plugin.getContext()), this);
+        if (processCameraProvider != null) {
+            // Restart a retained session by rebinding the use cases
+            try {
+                preparePreviewView(scanSettings);
+                bindCameraUseCases(scanSettings, imageAnalysis);
+                callback.success();
+            } catch (Exception exception) {
+                callback.error(exception);
+            }
+            return;
+        }
 
         ListenableFuture<ProcessCameraProvider> cameraProviderFuture = ProcessCameraProvider.getInstance(plugin.getContext());
         cameraProviderFuture.addListener(
@@ -129,28 +248,10 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
                 try {
                     processCameraProvider = cameraProviderFuture.get();
 
-                    CameraSelector cameraSelector = new CameraSelector.Builder().requireLensFacing(this.scanSettings.lensFacing).build();
-
-                    previewView = new PreviewView(plugin.getActivity());
-                    previewView.setLayoutParams(
-                        new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT)
-                    );
-                    previewView.setScaleType(PreviewView.ScaleType.FILL_CENTER);
-                    previewView.setBackgroundColor(Color.BLACK);
-
-                    // Add preview view behind the WebView
-                    ((ViewGroup) plugin.getBridge().getWebView().getParent()).addView(previewView, 0);
-
-                    Preview preview = new Preview.Builder().build();
-                    preview.setSurfaceProvider(previewView.getSurfaceProvider());
+                    preparePreviewView(this.scanSettings);
 
                     // Start the camera
-                    camera = processCameraProvider.bindToLifecycle(
-                        (LifecycleOwner) plugin.getContext(),
-                        cameraSelector,
-                        preview,
-                        imageAnalysis
-                    );
+                    bindCameraUseCases(this.scanSettings, imageAnalysis);
 
                     callback.success();
                 } catch (Exception exception) {
@@ -163,24 +264,63 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
 
     /**
      * Must run on UI thread.
+     *
+     * If `sessionReuseTimeout` is set, the camera provider, the preview view and the
+     * barcode scanner client are retained until the timeout expires.
      */
     public void stopScan() {
-        showWebViewBackground();
+        if (isWebViewBackgroundHidden) {
+            showWebViewBackground();
+        }
         disableTorch();
         // Stop the camera
         if (processCameraProvider != null) {
             processCameraProvider.unbindAll();
         }
-        processCameraProvider = null;
         camera = null;
-        if (previewView != null) {
-            ((ViewGroup) previewView.getParent()).removeView(previewView);
-            previewView = null;
-        }
-        barcodeScannerInstance = null;
+        boundImageAnalysis = null;
+        lastFocusedBarcodeRawValue = null;
+        lastFocusTimestamp = 0;
+        long sessionReuseTimeout = scanSettings == null ? 0 : scanSettings.sessionReuseTimeout;
         scanSettings = null;
         isPaused = false;
-        barcodeRawValueVotes.clear();
+        barcodeVoter.clear();
+        frameResultSequencer.clear();
+        lastLoggedRawValueTimestamps.clear();
+        nextOverlayFrameId = 1;
+        wasOverlayPopulated = false;
+        if (barcodeBatcher != null) {
+            barcodeBatcher.clear();
+            barcodeBatcher = null;
+        }
+        removePreviewView();
+        if (sessionReuseTimeout > 0) {
+            scheduleSessionRelease(sessionReuseTimeout);
+            return;
+        }
+        // Keep a retained session whose release is pending, e.g. if `startScan(...)` stops the previous scan
+        if (sessionReleaseRunnable == null) {
+            releaseSession();
+        }
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public void releaseSession() {
+        cancelSessionRelease();
+        if (processCameraProvider != null) {
+            processCameraProvider.unbindAll();
+            processCameraProvider = null;
+        }
+        camera = null;
+        boundImageAnalysis = null;
+        removePreviewView();
+        if (barcodeScannerInstance != null) {
+            barcodeScannerInstance.close();
+            barcodeScannerInstance = null;
+        }
+        barcodeScannerInstanceFormats = null;
     }
 
     /**
@@ -188,6 +328,7 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
      */
     public void pauseScan() {
         isPaused = true;
+        frameResultSequencer.clear();
         if (processCameraProvider != null) {
             processCameraProvider.unbindAll();
         }
@@ -204,20 +345,8 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         isPaused = false;
 
         try {
-            ImageAnalysis imageAnalysis = new ImageAnalysis.Builder()
-                .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
-                .setTargetResolution(scanSettings.resolution)
-                .build();
-            imageAnalysis.setAnalyzer(ContextCompat.getMainExecutor(plugin.getContext()), this);
-
-            CameraSelector cameraSelector = new CameraSelector.Builder().requireLensFacing(scanSettings.lensFacing).build();
-
-            Preview preview = new Preview.Builder().build();
-            if (previewView != null) {
-                preview.setSurfaceProvider(previewView.getSurfaceProvider());
-            }
-
-            camera = processCameraProvider.bindToLifecycle((LifecycleOwner) plugin.getContext(), cameraSelector, preview, imageAnalysis);
+            ImageAnalysis imageAnalysis = buildImageAnalysis(scanSettings);
+            bindCameraUseCases(scanSettings, imageAnalysis);
 
             if (isTorchEnabled && camera != null) {
                 camera.getCameraControl().enableTorch(true);
@@ -249,8 +378,7 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
     }
 
     public void scan(ScanSettings scanSettings, ScanResultCallback callback) {
-        GmsBarcodeScannerOptions options = buildGmsBarcodeScannerOptions(scanSettings);
-        GmsBarcodeScanner scanner = GmsBarcodeScanning.getClient(plugin.getContext(), options);
+        GmsBarcodeScanner scanner = getGmsBarcodeScanner(scanSettings);
 
         scanner
             .startScan()
@@ -266,36 +394,128 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
     }
 
     public void isGoogleBarcodeScannerModuleAvailable(IsGoogleBarodeScannerModuleAvailableResultCallback callback) {
-        GmsBarcodeScanner scanner = GmsBarcodeScanning.getClient(plugin.getContext());
-        ModuleInstallClient moduleInstallClient = ModuleInstall.getClient(plugin.getContext());
-        moduleInstallClient
-            .areModulesAvailable(scanner)
-            .addOnSuccessListener(response -> {
-                boolean isAvailable = response.areModulesAvailable();
-                callback.success(isAvailable);
-            })
-            .addOnFailureListener(exception -> {
-                callback.error(exception);
-            });
+        googleBarcodeScannerModuleInstaller.isModuleAvailable(callback);
     }
 
     public void installGoogleBarcodeScannerModule(InstallGoogleBarcodeScannerModuleResultCallback callback) {
-        GmsBarcodeScanner scanner = GmsBarcodeScanning.getClient(plugin.getContext());
-        InstallStatusListener listener = new ModuleInstallProgressListener(this);
-        ModuleInstallRequest moduleInstallRequest = ModuleInstallRequest.newBuilder().addApi(scanner).setListener(listener).build();
-        ModuleInstallClient moduleInstallClient = ModuleInstall.getClient(plugin.getContext());
-        moduleInstallClient
-            .installModules(moduleInstallRequest)
-            .addOnSuccessListener(moduleInstallResponse -> {
-                if (moduleInstallResponse.areModulesAlreadyInstalled()) {
-                    callback.error(new Exception(BarcodeScannerPlugin.ERROR_GOOGLE_BARCODE_SCANNER_MODULE_ALREADY_INSTALLED));
-                } else {
+        googleBarcodeScannerModuleInstaller.install(callback);
+    }
+
+    /**
+     * @param timeout The maximum time to wait in milliseconds or `0` to wait without a time limit.
+     */
+    public void waitForGoogleBarcodeScannerModule(long timeout, InstallGoogleBarcodeScannerModuleResultCallback callback) {
+        AtomicBoolean isSettled = new AtomicBoolean(false);
+        InstallGoogleBarcodeScannerModuleResultCallback waitingCallback = new InstallGoogleBarcodeScannerModuleResultCallback() {
+            @Override
+            public void success() {
+                if (isSettled.compareAndSet(false, true)) {
                     callback.success();
                 }
-            })
-            .addOnFailureListener(exception -> {
-                callback.error(exception);
-            });
+            }
+
+            @Override
+            public void error(Exception exception) {
+                if (isSettled.compareAndSet(false, true)) {
+                    callback.error(exception);
+                }
+            }
+        };
+        if (timeout > 0) {
+            mainHandler.postDelayed(
+                () -> {
+                    googleBarcodeScannerModuleInstaller.cancelWaitForModule(waitingCallback);
+                    waitingCallback.error(new Exception(BarcodeScannerPlugin.ERROR_GOOGLE_BARCODE_SCANNER_MODULE_WAIT_TIMEOUT));
+                },
+                timeout
+            );
+        }
+        googleBarcodeScannerModuleInstaller.waitForModule(waitingCallback);
+    }
+
+    public void releaseGoogleBarcodeScannerModuleInstaller() {
+        googleBarcodeScannerModuleInstaller.release();
+    }
+
+    public void startSession(String id, SeenBarcodeSession.Mode mode, long expectedCodes) throws IOException {
+        endSession(false);
+        File rootDirectory = new File(plugin.getContext().getFilesDir(), SESSIONS_DIRECTORY_NAME);
+        SeenBarcodeSession session = SeenBarcodeSession.open(rootDirectory, id, mode, expectedCodes);
+        try {
+            setSeenBarcodeSession(session);
+        } catch (IOException exception) {
+            session.close();
+            throw exception;
+        }
+    }
+
+    public void endSession(boolean delete) throws IOException {
+        SeenBarcodeSession session = setSeenBarcodeSession(null);
+        if (session == null) {
+            return;
+        }
+        if (delete) {
+            session.delete();
+        } else {
+            session.close();
+        }
+    }
+
+    /**
+     * Replaces the session on the UI thread and returns the previous session.
+     *
+     * The frame results are handled on the UI thread as well, so the previous session
+     * is no longer used once this method returns and can be closed on the calling thread.
+     */
+    @Nullable
+    private SeenBarcodeSession setSeenBarcodeSession(@Nullable SeenBarcodeSession session) throws IOException {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            SeenBarcodeSession previousSession = seenBarcodeSession;
+            seenBarcodeSession = session;
+            return previousSession;
+        }
+        FutureTask<SeenBarcodeSession> task = new FutureTask<>(() -> {
+            SeenBarcodeSession previousSession = seenBarcodeSession;
+            seenBarcodeSession = session;
+            return previousSession;
+        });
+        mainHandler.post(task);
+        try {
+            return task.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException(exception);
+        } catch (ExecutionException exception) {
+            throw new IOException(exception.getCause());
+        }
+    }
+
+    @Nullable
+    public ExportSessionResult exportSession() throws IOException {
+        SeenBarcodeSession session = seenBarcodeSession;
+        if (session == null) {
+            return null;
+        }
+        session.flush();
+        return new ExportSessionResult(session.getCodesFile().getAbsolutePath(), session.getCount());
+    }
+
+    @NonNull
+    public QueryScanLogResult queryScanLog(long since, int limit) throws Exception {
+        List<ScanLogSink.Entry> entries = getScanLogSink().query(since, limit);
+        return new QueryScanLogResult(entries);
+    }
+
+    public void clearScanLog() throws Exception {
+        getScanLogSink().clear();
+    }
+
+    public synchronized void closeScanLog() {
+        if (scanLogSink == null) {
+            return;
+        }
+        scanLogSink.close();
+        scanLogSink = null;
     }
 
     public boolean isSupported() {
@@ -342,6 +562,58 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         camera.getCameraControl().setZoomRatio(zoomRatio);
     }
 
+    /**
+     * Must run on UI thread.
+     *
+     * The point uses the same coordinate system as the corner points of the scanned barcodes.
+     */
+    public void focusOnPoint(FocusOnPointOptions options) {
+        if (camera == null) {
+            return;
+        }
+        MeteringPointFactory meteringPointFactory;
+        if (previewView != null) {
+            meteringPointFactory = previewView.getMeteringPointFactory();
+        } else {
+            DisplayMetrics displayMetrics = new DisplayMetrics();
+            Display display = plugin.getActivity().getWindowManager().getDefaultDisplay();
+            display.getMetrics(displayMetrics);
+            meteringPointFactory = new DisplayOrientedMeteringPointFactory(
+                display,
+                camera.getCameraInfo(),
+                displayMetrics.widthPixels,
+                displayMetrics.heightPixels
+            );
+        }
+        MeteringPoint meteringPoint = meteringPointFactory.createPoint(options.getX(), options.getY());
+        startFocusAndMetering(meteringPoint);
+        // Do not override the manual focus with the barcode candidate right away
+        lastFocusTimestamp = SystemClock.elapsedRealtime() + MANUAL_FOCUS_HOLD_MILLIS;
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public void acknowledgeBatch(int batchId) {
+        if (barcodeBatcher == null) {
+            return;
+        }
+        barcodeBatcher.acknowledge(batchId);
+    }
+
+    @Nullable
+    public List<PayloadParser> getPayloadParsers() {
+        ScanSettings scanSettings = this.scanSettings;
+        return scanSettings == null ? null : scanSettings.payloadParsers;
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public GetScanMetricsResult getScanMetrics() {
+        return new GetScanMetricsResult(scanMetrics);
+    }
+
     @Nullable
     public GetZoomRatioResult getZoomRatio() {
         if (camera == null) {
@@ -409,54 +681,52 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         @SuppressLint("UnsafeOptInUsageError")
         Image image = imageProxy.getImage();
 
-        if (image == null || barcodeScannerInstance == null) {
+        if (image == null || barcodeScannerInstance == null || scanSettings == null) {
+            imageProxy.close();
+            return;
+        }
+
+        if (frameResultSequencer.getPendingFrameCount() >= scanSettings.maxFramesInFlight) {
+            // Drop the frame, enough frames are already being processed
+            scanMetrics.framesDropped++;
+            imageProxy.close();
             return;
         }
 
+        long timestamp = imageProxy.getImageInfo().getTimestamp();
+        frameResultSequencer.register(timestamp);
+
         InputImage inputImage = InputImage.fromMediaImage(image, imageProxy.getImageInfo().getRotationDegrees());
         Point imageSize = new Point(inputImage.getWidth(), inputImage.getHeight());
         barcodeScannerInstance
             .process(inputImage)
-            .addOnSuccessListener(barcodes -> {
-                if (scanSettings == null) {
-                    // Scanning stopped while processing the image
-                    return;
-                }
-                List<Barcode> barcodesWithEnoughVotes = voteForBarcodes(barcodes);
-                for (Barcode barcode : barcodesWithEnoughVotes) {
-                    handleScannedBarcode(barcode, imageSize);
+            .addOnCompleteListener(task -> {
+                // Complete the frame in any case, also if scanning stopped or the task was canceled,
+                // so that it does not stay pending and hold back the results of later frames
+                FrameResult frameResult = null;
+                if (task.isSuccessful() && scanSettings != null) {
+                    List<Barcode> barcodes = task.getResult();
+                    scanMetrics.framesAnalyzed++;
+                    scanMetrics.barcodesDetected += barcodes.size();
+                    List<Barcode> filteredBarcodes = filterBarcodes(barcodes, scanSettings.filters);
+                    frameResult = new FrameResult(filteredBarcodes, imageSize, imageProxy.getImageInfo().getRotationDegrees(), timestamp);
                 }
-                if (barcodesWithEnoughVotes.size() > 0) {
-                    handleScannedBarcodes(barcodesWithEnoughVotes.toArray(new Barcode[0]), imageSize);
+                handleFrameResults(frameResultSequencer.complete(timestamp, frameResult));
+                Exception exception = task.getException();
+                if (exception != null) {
+                    handleScanError(exception);
                 }
-            })
-            .addOnFailureListener(exception -> {
-                handleScanError(exception);
-            })
-            .addOnCompleteListener(task -> {
                 imageProxy.close();
                 image.close();
             });
     }
 
-    public void handleGoogleBarcodeScannerModuleInstallProgress(
-        @ModuleInstallStatusUpdate.InstallState int state,
-        @Nullable Integer progress
-    ) {
-        plugin.notifyGoogleBarcodeScannerModuleInstallProgressListener(state, progress);
-        boolean isTerminateState = ModuleInstallProgressListener.isTerminateState(state);
-        if (isTerminateState && moduleInstallProgressListener != null) {
-            ModuleInstallClient moduleInstallClient = ModuleInstall.getClient(plugin.getContext());
-            moduleInstallClient.unregisterListener(moduleInstallProgressListener);
-            moduleInstallProgressListener = null;
-        }
-    }
-
     /**
      * Must run on UI thread.
      */
     private void hideWebViewBackground() {
         plugin.getBridge().getWebView().setBackgroundColor(Color.TRANSPARENT);
+        isWebViewBackgroundHidden = true;
     }
 
     /**
@@ -464,26 +734,369 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
      */
     private void showWebViewBackground() {
         plugin.getBridge().getWebView().setBackgroundColor(Color.WHITE);
+        isWebViewBackgroundHidden = false;
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    private void preparePreviewView(ScanSettings scanSettings) {
+        if (scanSettings.headless) {
+            removePreviewView();
+            return;
+        }
+        if (previewView == null) {
+            previewView = new PreviewView(plugin.getActivity());
+            previewView.setLayoutParams(
+                new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT)
+            );
+            previewView.setScaleType(PreviewView.ScaleType.FILL_CENTER);
+            previewView.setBackgroundColor(Color.BLACK);
+
+            // Add preview view behind the WebView
+            ((ViewGroup) plugin.getBridge().getWebView().getParent()).addView(previewView, 0);
+        }
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    private void removePreviewView() {
+        if (previewView == null) {
+            return;
+        }
+        ViewGroup parent = (ViewGroup) previewView.getParent();
+        if (parent != null) {
+            parent.removeView(previewView);
+        }
+        previewView = null;
+    }
+
+    private void scheduleSessionRelease(long delayMillis) {
+        cancelSessionRelease();
+        sessionReleaseRunnable = this::releaseSession;
+        mainHandler.postDelayed(sessionReleaseRunnable, delayMillis);
     }
 
-    private void handleScannedBarcode(Barcode barcode, Point imageSize) {
-        plugin.notifyBarcodeScannedListener(barcode, imageSize);
+    private void cancelSessionRelease() {
+        if (sessionReleaseRunnable == null) {
+            return;
+        }
+        mainHandler.removeCallbacks(sessionReleaseRunnable);
+        sessionReleaseRunnable = null;
     }
 
-    private void handleScannedBarcodes(Barcode[] barcodes, Point imageSize) {
-        plugin.notifyBarcodesScannedListener(barcodes, imageSize);
+    /**
+     * Must run on UI thread.
+     *
+     * In headless mode, only the image analysis use case is bound.
+     */
+    private void bindCameraUseCases(ScanSettings scanSettings, ImageAnalysis imageAnalysis) {
+        if (processCameraProvider == null) {
+            return;
+        }
+        CameraSelector cameraSelector = new CameraSelector.Builder().requireLensFacing(scanSettings.lensFacing).build();
+        boundImageAnalysis = imageAnalysis;
+        if (scanSettings.headless || previewView == null) {
+            camera = processCameraProvider.bindToLifecycle((LifecycleOwner) plugin.getContext(), cameraSelector, imageAnalysis);
+        } else {
+            Preview.Builder previewBuilder = new Preview.Builder();
+            applyTargetFpsRange(previewBuilder, scanSettings);
+            Preview preview = previewBuilder.build();
+            preview.setSurfaceProvider(previewView.getSurfaceProvider());
+            camera = processCameraProvider.bindToLifecycle((LifecycleOwner) plugin.getContext(), cameraSelector, preview, imageAnalysis);
+        }
+    }
+
+    /**
+     * Drops the barcodes that do not match the filters, so that they are neither voted for nor serialized.
+     */
+    private List<Barcode> filterBarcodes(List<Barcode> barcodes, @Nullable BarcodeFilter filter) {
+        if (filter == null) {
+            return barcodes;
+        }
+        List<Barcode> filteredBarcodes = new ArrayList<>();
+        for (Barcode barcode : barcodes) {
+            if (filter.matches(barcode)) {
+                filteredBarcodes.add(barcode);
+            } else {
+                scanMetrics.barcodesFiltered++;
+            }
+        }
+        return filteredBarcodes;
+    }
+
+    /**
+     * Results are passed in the order of their frame timestamps.
+     */
+    private void handleFrameResults(List<FrameResult> frameResults) {
+        for (FrameResult frameResult : frameResults) {
+            if (scanSettings != null && scanSettings.autoFocus) {
+                focusOnBarcodeCandidate(frameResult);
+            }
+            if (scanSettings != null && scanSettings.overlayEvents) {
+                handleOverlayUpdate(frameResult, scanSettings.overlayInt16Encoding);
+            }
+            List<Barcode> barcodesWithEnoughVotes = barcodeVoter.vote(frameResult.barcodes, frameResult.getUprightWidth(), frameResult.getUprightHeight());
+            Boolean[] seenFlags = null;
+            SeenBarcodeSession session = seenBarcodeSession;
+            if (session != null) {
+                List<Barcode> unsuppressedBarcodes = new ArrayList<>();
+                List<Boolean> unsuppressedSeenFlags = new ArrayList<>();
+                for (Barcode barcode : barcodesWithEnoughVotes) {
+                    Boolean isSeen = checkAndAddToSeenBarcodeSession(session, barcode);
+                    if (Boolean.TRUE.equals(isSeen) && session.getMode() == SeenBarcodeSession.Mode.SUPPRESS) {
+                        continue;
+                    }
+                    unsuppressedBarcodes.add(barcode);
+                    unsuppressedSeenFlags.add(isSeen);
+                }
+                barcodesWithEnoughVotes = unsuppressedBarcodes;
+                if (session.getMode() == SeenBarcodeSession.Mode.TAG) {
+                    seenFlags = unsuppressedSeenFlags.toArray(new Boolean[0]);
+                }
+            }
+            scanMetrics.barcodesAccepted += barcodesWithEnoughVotes.size();
+            if (scanSettings != null && scanSettings.scanLog) {
+                logAcceptedBarcodes(barcodesWithEnoughVotes);
+            }
+            if (barcodeBatcher != null) {
+                List<String> keys = new ArrayList<>();
+                List<BatchedBarcode> batchedBarcodes = new ArrayList<>();
+                for (int i = 0; i < barcodesWithEnoughVotes.size(); i++) {
+                    BatchedBarcode batchedBarcode = new BatchedBarcode(
+                        barcodesWithEnoughVotes.get(i),
+                        frameResult.imageSize,
+                        seenFlags == null ? null : seenFlags[i]
+                    );
+                    keys.add(batchedBarcode.getKey());
+                    batchedBarcodes.add(batchedBarcode);
+                }
+                barcodeBatcher.add(keys, batchedBarcodes);
+                continue;
+            }
+            for (int i = 0; i < barcodesWithEnoughVotes.size(); i++) {
+                handleScannedBarcode(barcodesWithEnoughVotes.get(i), frameResult.imageSize, seenFlags == null ? null : seenFlags[i]);
+            }
+            if (barcodesWithEnoughVotes.size() > 0) {
+                handleScannedBarcodes(barcodesWithEnoughVotes.toArray(new Barcode[0]), frameResult.imageSize, seenFlags);
+            }
+        }
+    }
+
+    /**
+     * Emits the corner points of all detected barcodes before voting, so that overlays follow the barcodes without delay.
+     * Empty frames are only emitted once, so that overlays can be cleared.
+     */
+    private void handleOverlayUpdate(FrameResult frameResult, boolean int16Encoding) {
+        long frameId = nextOverlayFrameId++;
+        if (frameResult.barcodes.isEmpty() && !wasOverlayPopulated) {
+            return;
+        }
+        wasOverlayPopulated = !frameResult.barcodes.isEmpty();
+        plugin.notifyOverlayUpdatedListener(frameId, frameResult.timestamp, frameResult.barcodes, frameResult.imageSize, int16Encoding);
+    }
+
+    /**
+     * Barcodes are only logged when they were not accepted within the last `SCAN_LOG_DEDUPLICATION_MILLIS`,
+     * so that a barcode held in front of the camera is logged once, even if it is missed in some frames.
+     * Barcodes without raw value are not logged.
+     */
+    private void logAcceptedBarcodes(List<Barcode> barcodes) {
+        ScanLogSink sink = getScanLogSink();
+        long timestamp = System.currentTimeMillis();
+        long now = SystemClock.elapsedRealtime();
+        lastLoggedRawValueTimestamps.values().removeIf(lastTimestamp -> now - lastTimestamp > SCAN_LOG_DEDUPLICATION_MILLIS);
+        for (Barcode barcode : barcodes) {
+            String rawValue = barcode.getRawValue();
+            if (rawValue == null) {
+                continue;
+            }
+            Long lastTimestamp = lastLoggedRawValueTimestamps.put(rawValue, now);
+            if (lastTimestamp == null) {
+                sink.append(barcode, timestamp);
+            }
+        }
+    }
+
+    /**
+     * Returns `null` if the barcode has no raw value or the session could not be updated.
+     */
+    @Nullable
+    private Boolean checkAndAddToSeenBarcodeSession(SeenBarcodeSession session, Barcode barcode) {
+        String rawValue = barcode.getRawValue();
+        if (rawValue == null) {
+            return null;
+        }
+        try {
+            return session.checkAndAdd(rawValue);
+        } catch (Exception exception) {
+            // Also contains runtime exceptions of mapping a grown hash index
+            handleScanError(exception);
+            return null;
+        }
+    }
+
+    private void handleScannedBarcode(Barcode barcode, Point imageSize, @Nullable Boolean seen) {
+        plugin.notifyBarcodeScannedListener(barcode, imageSize, seen);
+    }
+
+    private void handleScannedBarcodes(Barcode[] barcodes, Point imageSize, @Nullable Boolean[] seenFlags) {
+        plugin.notifyBarcodesScannedListener(barcodes, imageSize, seenFlags);
+    }
+
+    @NonNull
+    private synchronized ScanLogSink getScanLogSink() {
+        if (scanLogSink == null) {
+            scanLogSink = new ScanLogSink(plugin.getContext());
+        }
+        return scanLogSink;
     }
 
     private void handleScanError(Exception exception) {
         plugin.notifyScanErrorListener(exception.getMessage());
     }
 
+    /**
+     * Focuses and meters on the largest barcode of the frame.
+     *
+     * Metering is re-triggered when a new candidate appears or after the focus interval has elapsed.
+     */
+    private void focusOnBarcodeCandidate(FrameResult frameResult) {
+        if (camera == null || boundImageAnalysis == null) {
+            return;
+        }
+        Barcode candidate = null;
+        int candidateArea = 0;
+        for (Barcode barcode : frameResult.barcodes) {
+            Rect boundingBox = barcode.getBoundingBox();
+            if (boundingBox == null) {
+                continue;
+            }
+            int area = boundingBox.width() * boundingBox.height();
+            if (area > candidateArea) {
+                candidate = barcode;
+                candidateArea = area;
+            }
+        }
+        if (candidate == null) {
+            lastFocusedBarcodeRawValue = null;
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        boolean isNewCandidate = !Objects.equals(candidate.getRawValue(), lastFocusedBarcodeRawValue);
+        if (now < lastFocusTimestamp + (isNewCandidate ? MIN_FOCUS_INTERVAL_MILLIS : AUTO_FOCUS_INTERVAL_MILLIS)) {
+            return;
+        }
+        Rect boundingBox = candidate.getBoundingBox();
+        PointF sensorPoint = BarcodeScannerHelper.convertUprightPointToSensorPoint(
+            new PointF(boundingBox.exactCenterX(), boundingBox.exactCenterY()),
+            frameResult.imageSize,
+            frameResult.rotationDegrees
+        );
+        float size = Math.max(
+            (float) boundingBox.width() / frameResult.getUprightWidth(),
+            (float) boundingBox.height() / frameResult.getUprightHeight()
+        );
+        size = Math.min(Math.max(size, 0.05f), 0.5f);
+        MeteringPointFactory meteringPointFactory = new SurfaceOrientedMeteringPointFactory(
+            frameResult.imageSize.x,
+            frameResult.imageSize.y,
+            boundImageAnalysis
+        );
+        startFocusAndMetering(meteringPointFactory.createPoint(sensorPoint.x, sensorPoint.y, size));
+        lastFocusedBarcodeRawValue = candidate.getRawValue();
+        lastFocusTimestamp = now;
+    }
+
+    private void startFocusAndMetering(MeteringPoint meteringPoint) {
+        if (camera == null) {
+            return;
+        }
+        FocusMeteringAction action = new FocusMeteringAction.Builder(
+            meteringPoint,
+            FocusMeteringAction.FLAG_AF | FocusMeteringAction.FLAG_AE
+        )
+            .setAutoCancelDuration(FOCUS_AUTO_CANCEL_SECONDS, TimeUnit.SECONDS)
+            .build();
+        if (!camera.getCameraInfo().isFocusMeteringSupported(action)) {
+            return;
+        }
+        camera.getCameraControl().startFocusAndMetering(action);
+    }
+
+    private ImageAnalysis buildImageAnalysis(ScanSettings scanSettings) {
+        ResolutionSelector resolutionSelector = new ResolutionSelector.Builder()
+            .setResolutionStrategy(new ResolutionStrategy(scanSettings.resolution, ResolutionStrategy.FALLBACK_RULE_CLOSEST_LOWER))
+            .build();
+
+        ImageAnalysis.Builder builder = new ImageAnalysis.Builder().setResolutionSelector(resolutionSelector);
+        if (scanSettings.maxFramesInFlight > 1) {
+            // Keep multiple frames in the queue so that they can be processed concurrently
+            int imageQueueDepth = scanSettings.imageQueueDepth == null ? scanSettings.maxFramesInFlight + 1 : scanSettings.imageQueueDepth;
+            builder
+                .setBackpressureStrategy(ImageAnalysis.STRATEGY_BLOCK_PRODUCER)
+                .setImageQueueDepth(Math.max(imageQueueDepth, scanSettings.maxFramesInFlight));
+        } else {
+            builder.setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST);
+        }
+
+        applyTargetFpsRange(builder, scanSettings);
+
+        ImageAnalysis imageAnalysis = builder.build();
+        // Analyze on the main thread, since `analyze(...)` only hands the image over to ML Kit, which processes it
+        // on its own threads, and the task listeners and the `FrameResultSequencer` must run on the main thread as well
+        imageAnalysis.setAnalyzer(ContextCompat.getMainExecutor(plugin.getContext()), this);
+        return imageAnalysis;
+    }
+
+    /**
+     * Applies the target frame rate range so that the frame pacing is predictable across devices.
+     */
+    @OptIn(markerClass = ExperimentalCamera2Interop.class)
+    private <T> void applyTargetFpsRange(ExtendableBuilder<T> builder, ScanSettings scanSettings) {
+        if (scanSettings.targetFpsRange == null) {
+            return;
+        }
+        new Camera2Interop.Extender<>(builder).setCaptureRequestOption(
+            CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE,
+            scanSettings.targetFpsRange
+        );
+    }
+
     private BarcodeScannerOptions buildBarcodeScannerOptions(ScanSettings scanSettings) {
         int[] formats = scanSettings.formats.length == 0 ? new int[] { Barcode.FORMAT_ALL_FORMATS } : scanSettings.formats;
         BarcodeScannerOptions options = new BarcodeScannerOptions.Builder().setBarcodeFormats(formats[0], formats).build();
         return options;
     }
 
+    /**
+     * Installs the Google Barcode Scanner module in the background if it is not available yet.
+     */
+    public void preinstallGoogleBarcodeScannerModule() {
+        googleBarcodeScannerModuleInstaller.waitForModule(
+            new InstallGoogleBarcodeScannerModuleResultCallback() {
+                @Override
+                public void success() {}
+
+                @Override
+                public void error(Exception exception) {
+                    Logger.error(BarcodeScannerPlugin.TAG, exception.getMessage(), exception);
+                }
+            }
+        );
+    }
+
+    private synchronized GmsBarcodeScanner getGmsBarcodeScanner(ScanSettings scanSettings) {
+        String key = Arrays.toString(scanSettings.formats) + ":" + scanSettings.autoZoom;
+        GmsBarcodeScanner scanner = gmsBarcodeScanners.get(key);
+        if (scanner == null) {
+            scanner = GmsBarcodeScanning.getClient(plugin.getContext(), buildGmsBarcodeScannerOptions(scanSettings));
+            gmsBarcodeScanners.put(key, scanner);
+        }
+        return scanner;
+    }
+
     private GmsBarcodeScannerOptions buildGmsBarcodeScannerOptions(ScanSettings scanSettings) {
         int[] formats = scanSettings.formats.length == 0 ? new int[] { Barcode.FORMAT_ALL_FORMATS } : scanSettings.formats;
         boolean autoZoom = scanSettings.autoZoom;
@@ -498,30 +1111,41 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         return options;
     }
 
-    @Nullable
-    private Integer voteForBarcode(Barcode barcode) {
-        String rawValue = barcode.getRawValue();
-        if (rawValue == null) {
-            return null;
-        } else {
-            if (barcodeRawValueVotes.containsKey(rawValue)) {
-                barcodeRawValueVotes.put(rawValue, barcodeRawValueVotes.get(rawValue) + 1);
-            } else {
-                barcodeRawValueVotes.put(rawValue, 1);
-            }
-            return barcodeRawValueVotes.get(rawValue);
+    private static class FrameResult {
+
+        @NonNull
+        private final List<Barcode> barcodes;
+
+        @NonNull
+        private final Point imageSize;
+
+        private final int rotationDegrees;
+
+        /**
+         * The sensor timestamp in nanoseconds.
+         */
+        private final long timestamp;
+
+        private FrameResult(@NonNull List<Barcode> barcodes, @NonNull Point imageSize, int rotationDegrees, long timestamp) {
+            this.barcodes = barcodes;
+            this.imageSize = imageSize;
+            this.rotationDegrees = rotationDegrees;
+            this.timestamp = timestamp;
         }
-    }
 
-    private List<Barcode> voteForBarcodes(List<Barcode> barcodes) {
-        List<Barcode> barcodesWithEnoughVotes = new ArrayList<>();
-        for (Barcode barcode : barcodes) {
-            Integer votes = voteForBarcode(barcode);
-            if (votes == null || votes >= 10) {
-                // Do not filter out barcodes without raw value.
-                barcodesWithEnoughVotes.add(barcode);
-            }
+        /**
+         * Barcode coordinates are upright, so the width and height are swapped for rotated frames.
+         */
+        private int getUprightWidth() {
+            return isRotated() ? imageSize.y : imageSize.x;
+        }
+
+        private int getUprightHeight() {
+            return isRotated() ? imageSize.x : imageSize.y;
+        }
+
+        private boolean isRotated() {
+            return rotationDegrees == 90 || rotationDegrees == 270;
         }
-        return barcodesWithEnoughVotes;
     }
 }
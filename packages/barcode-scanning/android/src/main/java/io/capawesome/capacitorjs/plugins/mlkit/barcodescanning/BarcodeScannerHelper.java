@@ -4,7 +4,10 @@
 package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
 
 import android.graphics.Point;
+import android.graphics.PointF;
+import android.util.Base64;
 import android.util.DisplayMetrics;
+import android.util.Range;
 import android.util.Size;
 import android.view.Display;
 import androidx.annotation.NonNull;
@@ -12,7 +15,13 @@ import androidx.annotation.Nullable;
 import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.google.mlkit.vision.barcode.common.Barcode;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.ParseResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.ParsedField;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.PayloadParser;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.List;
+import java.util.regex.Pattern;
 import org.json.JSONArray;
 import org.json.JSONException;
 
@@ -189,6 +198,118 @@ public class BarcodeScannerHelper {
         }
     }
 
+    /**
+     * Returns the result of the first parser that recognizes the raw value or `null`.
+     */
+    @Nullable
+    public static JSObject createParseResultForBarcode(@NonNull Barcode barcode, @NonNull List<PayloadParser> parsers) {
+        String rawValue = barcode.getRawValue();
+        if (rawValue == null) {
+            return null;
+        }
+        for (PayloadParser parser : parsers) {
+            ParseResult parseResult = parser.parse(rawValue);
+            if (parseResult == null) {
+                continue;
+            }
+            JSArray fieldsResult = new JSArray();
+            for (ParsedField field : parseResult.getFields()) {
+                JSObject fieldResult = new JSObject();
+                fieldResult.put("id", field.getId());
+                fieldResult.put("label", field.getLabel());
+                fieldResult.put("type", field.getType().name());
+                fieldResult.put("value", field.getValue());
+                fieldResult.put("rawValue", field.getRawValue());
+                fieldsResult.put(fieldResult);
+            }
+            JSObject result = new JSObject();
+            result.put("format", parseResult.getFormat().name());
+            result.put("fields", fieldsResult);
+            result.put("valid", parseResult.isValid());
+            return result;
+        }
+        return null;
+    }
+
+    @Nullable
+    public static Integer convertStringToBarcodeValueType(String value) {
+        switch (value) {
+            case "CALENDAR_EVENT":
+                return Barcode.TYPE_CALENDAR_EVENT;
+            case "CONTACT_INFO":
+                return Barcode.TYPE_CONTACT_INFO;
+            case "DRIVERS_LICENSE":
+                return Barcode.TYPE_DRIVER_LICENSE;
+            case "EMAIL":
+                return Barcode.TYPE_EMAIL;
+            case "GEO":
+                return Barcode.TYPE_GEO;
+            case "ISBN":
+                return Barcode.TYPE_ISBN;
+            case "PHONE":
+                return Barcode.TYPE_PHONE;
+            case "PRODUCT":
+                return Barcode.TYPE_PRODUCT;
+            case "SMS":
+                return Barcode.TYPE_SMS;
+            case "TEXT":
+                return Barcode.TYPE_TEXT;
+            case "URL":
+                return Barcode.TYPE_URL;
+            case "WIFI":
+                return Barcode.TYPE_WIFI;
+            case "UNKNOWN":
+                return Barcode.TYPE_UNKNOWN;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException If the pattern is not a valid regular expression.
+     * @throws IllegalArgumentException If a format or value type is not supported.
+     */
+    @NonNull
+    public static BarcodeFilter convertJsonObjectToBarcodeFilter(@NonNull JSObject value) throws JSONException {
+        BarcodeFilter filter = new BarcodeFilter();
+        JSONArray formats = value.optJSONArray("formats");
+        if (formats != null) {
+            filter.formats = new int[formats.length()];
+            for (int i = 0; i < formats.length(); i++) {
+                Integer format = convertStringToBarcodeScannerFormat(formats.getString(i));
+                if (format == null) {
+                    throw new IllegalArgumentException(BarcodeScannerPlugin.ERROR_FILTERS_FORMATS_INVALID);
+                }
+                filter.formats[i] = format;
+            }
+        }
+        JSONArray valueTypes = value.optJSONArray("valueTypes");
+        if (valueTypes != null) {
+            filter.valueTypes = new int[valueTypes.length()];
+            for (int i = 0; i < valueTypes.length(); i++) {
+                Integer valueType = convertStringToBarcodeValueType(valueTypes.getString(i));
+                if (valueType == null) {
+                    throw new IllegalArgumentException(BarcodeScannerPlugin.ERROR_FILTERS_VALUE_TYPES_INVALID);
+                }
+                filter.valueTypes[i] = valueType;
+            }
+        }
+        filter.minLength = value.getInteger("minLength");
+        filter.maxLength = value.getInteger("maxLength");
+        JSONArray prefixes = value.optJSONArray("prefixes");
+        if (prefixes != null) {
+            filter.prefixes = new String[prefixes.length()];
+            for (int i = 0; i < prefixes.length(); i++) {
+                filter.prefixes[i] = prefixes.getString(i);
+            }
+        }
+        String pattern = value.getString("pattern");
+        if (pattern != null) {
+            filter.pattern = Pattern.compile(pattern);
+        }
+        return filter;
+    }
+
     @Nullable
     private static JSONArray convertByteArrayToJsonArray(@Nullable byte[] bytes) {
         if (bytes == null) {
@@ -368,6 +489,27 @@ public class BarcodeScannerHelper {
     private static Point[] normalizeCornerPoints(@NonNull Point[] cornerPoints, @NonNull Point imageSize, @NonNull Point screenSize) {
         // Log corner points
         // Logger.debug("Corner points: " + cornerPoints[0] + ", " + cornerPoints[1] + ", " + cornerPoints[2] + ", " + cornerPoints[3]);
+        int[] coordinates = new int[cornerPoints.length * 2];
+        normalizeCornerPoints(cornerPoints, imageSize, screenSize, coordinates, 0);
+        Point[] normalizedCornerPoints = new Point[cornerPoints.length];
+        for (int i = 0; i < cornerPoints.length; i++) {
+            normalizedCornerPoints[i] = new Point(coordinates[i * 2], coordinates[i * 2 + 1]);
+        }
+        // Log normalized corner points
+        // Logger.debug("Normalized corner points: " + normalizedCornerPoints[0] + ", " + normalizedCornerPoints[1] + ", " + normalizedCornerPoints[2] + ", " + normalizedCornerPoints[3]);
+        return normalizedCornerPoints;
+    }
+
+    /**
+     * Writes the normalized x and y coordinates of the corner points to the array, starting at the offset.
+     */
+    private static void normalizeCornerPoints(
+        @NonNull Point[] cornerPoints,
+        @NonNull Point imageSize,
+        @NonNull Point screenSize,
+        @NonNull int[] coordinates,
+        int offset
+    ) {
         double screenWidth = screenSize.x;
         double screenHeight = screenSize.y;
         double imageWidth = imageSize.x;
@@ -382,16 +524,83 @@ public class BarcodeScannerHelper {
         // Calculate the invisible area of the image
         double invisibleWidth = imageHeight * scale - screenWidth;
         double invisibleHeight = imageWidth * scale - screenHeight;
-        Point[] normalizedCornerPoints = new Point[cornerPoints.length];
         for (int i = 0; i < cornerPoints.length; i++) {
             // Scale the points and move them to the center of the screen
-            int x = (int) ((cornerPoints[i].x * scale) - (invisibleWidth / 2));
-            int y = (int) ((cornerPoints[i].y * scale) - (invisibleHeight / 2));
-            normalizedCornerPoints[i] = new Point(x, y);
+            coordinates[offset + i * 2] = (int) ((cornerPoints[i].x * scale) - (invisibleWidth / 2));
+            coordinates[offset + i * 2 + 1] = (int) ((cornerPoints[i].y * scale) - (invisibleHeight / 2));
         }
-        // Log normalized corner points
-        // Logger.debug("Normalized corner points: " + normalizedCornerPoints[0] + ", " + normalizedCornerPoints[1] + ", " + normalizedCornerPoints[2] + ", " + normalizedCornerPoints[3]);
-        return normalizedCornerPoints;
+    }
+
+    /**
+     * Returns the normalized corner points of the barcodes as one flat array of x and y coordinates
+     * with four corner points per barcode.
+     *
+     * Barcodes without four corner points are skipped.
+     */
+    @NonNull
+    public static int[] createFlatCornerPoints(@NonNull List<Barcode> barcodes, @NonNull Point imageSize, @NonNull Point screenSize) {
+        int count = 0;
+        for (Barcode barcode : barcodes) {
+            Point[] cornerPoints = barcode.getCornerPoints();
+            if (cornerPoints != null && cornerPoints.length == 4) {
+                count++;
+            }
+        }
+        int[] coordinates = new int[count * 8];
+        int offset = 0;
+        for (Barcode barcode : barcodes) {
+            Point[] cornerPoints = barcode.getCornerPoints();
+            if (cornerPoints != null && cornerPoints.length == 4) {
+                normalizeCornerPoints(cornerPoints, imageSize, screenSize, coordinates, offset);
+                offset += 8;
+            }
+        }
+        return coordinates;
+    }
+
+    /**
+     * Encodes the values as little-endian 16-bit integers in base64, so that they can be read with an `Int16Array`.
+     *
+     * Values outside the 16-bit range are clamped.
+     */
+    @NonNull
+    public static String convertIntArrayToInt16Base64(@NonNull int[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) {
+            buffer.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value)));
+        }
+        return Base64.encodeToString(buffer.array(), Base64.NO_WRAP);
+    }
+
+    /**
+     * Converts a point of the upright (rotated) image to the coordinate system of the unrotated image.
+     *
+     * @param imageSize The size of the unrotated image.
+     */
+    public static PointF convertUprightPointToSensorPoint(@NonNull PointF point, @NonNull Point imageSize, int rotationDegrees) {
+        switch (rotationDegrees) {
+            case 90:
+                return new PointF(point.y, imageSize.y - point.x);
+            case 180:
+                return new PointF(imageSize.x - point.x, imageSize.y - point.y);
+            case 270:
+                return new PointF(imageSize.x - point.y, point.x);
+            default:
+                return new PointF(point.x, point.y);
+        }
+    }
+
+    @Nullable
+    public static Range<Integer> convertJsonArrayToFpsRange(@NonNull JSONArray values) throws JSONException {
+        if (values.length() != 2) {
+            return null;
+        }
+        int lower = values.getInt(0);
+        int upper = values.getInt(1);
+        if (lower <= 0 || lower > upper) {
+            return null;
+        }
+        return new Range<>(lower, upper);
     }
 
     public static Size convertIntegerToResolution(Integer resolution) {
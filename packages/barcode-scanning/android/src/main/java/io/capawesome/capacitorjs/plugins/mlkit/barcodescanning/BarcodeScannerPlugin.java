@@ -6,6 +6,7 @@ package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
 import android.Manifest;
 import android.graphics.Point;
 import android.util.DisplayMetrics;
+import android.util.Range;
 import android.util.Size;
 import androidx.activity.result.ActivityResult;
 import androidx.annotation.NonNull;
@@ -22,11 +23,20 @@ import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.annotation.Permission;
 import com.getcapacitor.annotation.PermissionCallback;
 import com.google.mlkit.vision.barcode.common.Barcode;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.FocusOnPointOptions;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.SetZoomRatioOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.ExportSessionResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMaxZoomRatioResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMinZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetScanMetricsResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.QueryScanLogResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.PayloadFormat;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.PayloadParser;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.PatternSyntaxException;
+import org.json.JSONArray;
 
 @CapacitorPlugin(
     name = "BarcodeScanner",
@@ -41,17 +51,43 @@ public class BarcodeScannerPlugin extends Plugin {
 
     public static final String BARCODE_SCANNED_EVENT = "barcodeScanned";
     public static final String BARCODES_SCANNED_EVENT = "barcodesScanned";
+    public static final String BARCODES_BATCH_SCANNED_EVENT = "barcodesBatchScanned";
+    public static final String OVERLAY_UPDATED_EVENT = "overlayUpdated";
     public static final String SCAN_ERROR_EVENT = "scanError";
     public static final String GOOGLE_BARCODE_SCANNER_MODULE_INSTALL_PROGRESS_EVENT = "googleBarcodeScannerModuleInstallProgress";
     public static final String ERROR_SCAN_CANCELED = "scan canceled.";
     public static final String ERROR_PATH_MISSING = "path must be provided.";
     public static final String ERROR_LOAD_IMAGE_FAILED = "The image could not be loaded.";
     public static final String ERROR_ZOOM_RATIO_MISSING = "zoomRatio must be provided.";
+    public static final String ERROR_TARGET_FPS_RANGE_INVALID =
+        "targetFpsRange must contain a lower and an upper bound greater than 0, with the lower bound not exceeding the upper bound.";
+    public static final String ERROR_ACCEPTANCE_SCORE_INVALID = "acceptanceScore must be greater than 0.";
+    public static final String ERROR_FILTERS_PATTERN_INVALID = "filters.pattern must be a valid regular expression.";
+    public static final String ERROR_FILTERS_FORMATS_INVALID = "filters.formats must only contain supported barcode formats.";
+    public static final String ERROR_FILTERS_VALUE_TYPES_INVALID = "filters.valueTypes must only contain supported barcode value types.";
+    public static final String ERROR_BATCH_ID_MISSING = "batchId must be provided.";
+    public static final String ERROR_SESSION_ID_MISSING = "id must be provided.";
+    public static final String ERROR_SESSION_ID_INVALID = "id must only contain letters, digits, underscores and hyphens.";
+    public static final String ERROR_NO_ACTIVE_SESSION = "There is no active session.";
+    public static final String ERROR_SESSION_CREATE_FAILED = "The session directory could not be created.";
+    public static final String ERROR_SESSION_CORRUPTED = "The session files are corrupted.";
+    public static final String ERROR_SESSION_EXPECTED_CODES_TOO_LARGE =
+        "expectedCodes must not exceed " + SeenBarcodeSession.MAX_EXPECTED_CODES + ".";
+    public static final String ERROR_SESSION_FULL = "The session cannot hold any more codes.";
+    public static final String ERROR_SESSION_CLOSED = "The session is closed.";
+    public static final String ERROR_X_MISSING = "x must be provided.";
+    public static final String ERROR_Y_MISSING = "y must be provided.";
     public static final String ERROR_NO_ACTIVE_SCAN_SESSION = "There is no active scan session.";
     public static final String ERROR_GOOGLE_BARCODE_SCANNER_MODULE_NOT_AVAILABLE =
         "The Google Barcode Scanner Module is not available. You must install it first using the installGoogleBarcodeScannerModule method.";
     public static final String ERROR_GOOGLE_BARCODE_SCANNER_MODULE_ALREADY_INSTALLED =
         "The Google Barcode Scanner Module is already installed.";
+    public static final String ERROR_GOOGLE_BARCODE_SCANNER_MODULE_INSTALL_IN_PROGRESS =
+        "The Google Barcode Scanner Module is already being installed.";
+    public static final String ERROR_GOOGLE_BARCODE_SCANNER_MODULE_INSTALL_FAILED =
+        "The Google Barcode Scanner Module could not be installed.";
+    public static final String ERROR_GOOGLE_BARCODE_SCANNER_MODULE_WAIT_TIMEOUT =
+        "The Google Barcode Scanner Module did not become available in time.";
     public static final String ERROR_PERMISSION_DENIED = "User denied access to camera.";
 
     private BarcodeScanner implementation;
@@ -60,11 +96,29 @@ public class BarcodeScannerPlugin extends Plugin {
     public void load() {
         try {
             implementation = new BarcodeScanner(this);
+            if (getConfig().getBoolean("preinstallGoogleBarcodeScannerModule", false)) {
+                implementation.preinstallGoogleBarcodeScannerModule();
+            }
         } catch (Exception exception) {
             Logger.error(TAG, exception.getMessage(), exception);
         }
     }
 
+    @Override
+    protected void handleOnDestroy() {
+        if (implementation == null) {
+            return;
+        }
+        implementation.releaseSession();
+        try {
+            implementation.endSession(false);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+        implementation.closeScanLog();
+        implementation.releaseGoogleBarcodeScannerModuleInstaller();
+    }
+
     @PluginMethod
     public void startScan(PluginCall call) {
         try {
@@ -78,6 +132,61 @@ public class BarcodeScannerPlugin extends Plugin {
             scanSettings.formats = formats;
             scanSettings.lensFacing = lensFacing;
             scanSettings.resolution = BarcodeScannerHelper.convertIntegerToResolution(call.getInt("resolution", 1));
+            scanSettings.headless = call.getBoolean("headless", false);
+            scanSettings.autoFocus = call.getBoolean("autoFocus", false);
+            scanSettings.scanLog = call.getBoolean("scanLog", false);
+            scanSettings.checkDigitValidation = call.getBoolean("checkDigitValidation", false);
+            String votingStrategyOption = call.getString("votingStrategy", "COUNT");
+            scanSettings.votingStrategy = votingStrategyOption.equals("WEIGHTED")
+                ? BarcodeVoter.Strategy.WEIGHTED
+                : BarcodeVoter.Strategy.COUNT;
+            float acceptanceScore = call.getFloat("acceptanceScore", BarcodeVoter.DEFAULT_ACCEPTANCE_SCORE);
+            if (acceptanceScore <= 0) {
+                call.reject(ERROR_ACCEPTANCE_SCORE_INVALID);
+                return;
+            }
+            scanSettings.acceptanceScore = acceptanceScore;
+            JSArray parseOption = call.getArray("parse");
+            if (parseOption != null) {
+                List<String> payloadFormats = parseOption.toList();
+                List<PayloadParser> payloadParsers = new ArrayList<>();
+                for (String payloadFormat : payloadFormats) {
+                    PayloadFormat format = PayloadFormat.fromString(payloadFormat);
+                    if (format != null) {
+                        payloadParsers.add(format.createParser());
+                    }
+                }
+                scanSettings.payloadParsers = payloadParsers;
+            }
+            JSObject filtersOption = call.getObject("filters");
+            if (filtersOption != null) {
+                try {
+                    scanSettings.filters = BarcodeScannerHelper.convertJsonObjectToBarcodeFilter(filtersOption);
+                } catch (PatternSyntaxException exception) {
+                    call.reject(ERROR_FILTERS_PATTERN_INVALID);
+                    return;
+                } catch (IllegalArgumentException exception) {
+                    call.reject(exception.getMessage());
+                    return;
+                }
+            }
+            scanSettings.maxFramesInFlight = Math.max(1, call.getInt("maxFramesInFlight", 1));
+            scanSettings.batchDelivery = call.getBoolean("batchDelivery", false);
+            scanSettings.overlayEvents = call.getBoolean("overlayEvents", false);
+            scanSettings.overlayInt16Encoding = call.getString("overlayEncoding", "ARRAY").equals("BASE64_INT16");
+            scanSettings.batchInterval = Math.max(0, call.getInt("batchInterval", 100));
+            scanSettings.batchSize = Math.max(1, call.getInt("batchSize", 50));
+            scanSettings.imageQueueDepth = call.getInt("imageQueueDepth");
+            scanSettings.sessionReuseTimeout = Math.max(0, call.getInt("sessionReuseTimeout", 0));
+            JSArray targetFpsRangeOption = call.getArray("targetFpsRange");
+            if (targetFpsRangeOption != null) {
+                Range<Integer> targetFpsRange = BarcodeScannerHelper.convertJsonArrayToFpsRange(targetFpsRangeOption);
+                if (targetFpsRange == null) {
+                    call.reject(ERROR_TARGET_FPS_RANGE_INVALID);
+                    return;
+                }
+                scanSettings.targetFpsRange = targetFpsRange;
+            }
 
             boolean granted = implementation.requestCameraPermissionIfNotDetermined(call);
             if (!granted) {
@@ -260,6 +369,87 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void startSession(PluginCall call) {
+        try {
+            String id = call.getString("id");
+            if (id == null) {
+                call.reject(ERROR_SESSION_ID_MISSING);
+                return;
+            }
+            if (!id.matches("[A-Za-z0-9_-]+")) {
+                call.reject(ERROR_SESSION_ID_INVALID);
+                return;
+            }
+            String modeOption = call.getString("mode", "TAG");
+            SeenBarcodeSession.Mode mode = modeOption.equals("SUPPRESS") ? SeenBarcodeSession.Mode.SUPPRESS : SeenBarcodeSession.Mode.TAG;
+            long expectedCodes = Math.max(1, call.getInt("expectedCodes", 100000));
+            if (expectedCodes > SeenBarcodeSession.MAX_EXPECTED_CODES) {
+                call.reject(ERROR_SESSION_EXPECTED_CODES_TOO_LARGE);
+                return;
+            }
+
+            implementation.startSession(id, mode, expectedCodes);
+            call.resolve();
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void endSession(PluginCall call) {
+        try {
+            boolean delete = call.getBoolean("delete", false);
+
+            implementation.endSession(delete);
+            call.resolve();
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void exportSession(PluginCall call) {
+        try {
+            ExportSessionResult result = implementation.exportSession();
+            if (result == null) {
+                call.reject(ERROR_NO_ACTIVE_SESSION);
+                return;
+            }
+            call.resolve(result.toJSObject());
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void queryScanLog(PluginCall call) {
+        try {
+            long since = call.getLong("since", 0L);
+            int limit = Math.max(1, call.getInt("limit", 100));
+
+            QueryScanLogResult result = implementation.queryScanLog(since, limit);
+            call.resolve(result.toJSObject());
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void clearScanLog(PluginCall call) {
+        try {
+            implementation.clearScanLog();
+            call.resolve();
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
     @PluginMethod
     public void isSupported(PluginCall call) {
         try {
@@ -347,6 +537,71 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void focusOnPoint(PluginCall call) {
+        try {
+            Float x = call.getFloat("x");
+            if (x == null) {
+                call.reject(ERROR_X_MISSING);
+                return;
+            }
+            Float y = call.getFloat("y");
+            if (y == null) {
+                call.reject(ERROR_Y_MISSING);
+                return;
+            }
+            boolean isCameraActive = implementation.isCameraActive();
+            if (!isCameraActive) {
+                call.reject(ERROR_NO_ACTIVE_SCAN_SESSION);
+                return;
+            }
+
+            FocusOnPointOptions options = new FocusOnPointOptions(x, y);
+            getActivity()
+                .runOnUiThread(() -> {
+                    implementation.focusOnPoint(options);
+                    call.resolve();
+                });
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void acknowledgeBatch(PluginCall call) {
+        try {
+            Integer batchId = call.getInt("batchId");
+            if (batchId == null) {
+                call.reject(ERROR_BATCH_ID_MISSING);
+                return;
+            }
+
+            getActivity()
+                .runOnUiThread(() -> {
+                    implementation.acknowledgeBatch(batchId);
+                    call.resolve();
+                });
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getScanMetrics(PluginCall call) {
+        try {
+            getActivity()
+                .runOnUiThread(() -> {
+                    GetScanMetricsResult result = implementation.getScanMetrics();
+                    call.resolve(result.toJSObject());
+                });
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
     @PluginMethod
     public void getZoomRatio(PluginCall call) {
         try {
@@ -456,6 +711,32 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void waitForGoogleBarcodeScannerModule(PluginCall call) {
+        try {
+            long timeout = Math.max(0, call.getLong("timeout", 0L));
+
+            implementation.waitForGoogleBarcodeScannerModule(
+                timeout,
+                new InstallGoogleBarcodeScannerModuleResultCallback() {
+                    @Override
+                    public void success() {
+                        call.resolve();
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
     @Override
     @PluginMethod
     public void requestPermissions(PluginCall call) {
@@ -492,10 +773,10 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
-    public void notifyBarcodeScannedListener(Barcode barcode, Point imageSize) {
+    public void notifyBarcodeScannedListener(Barcode barcode, Point imageSize, @Nullable Boolean seen) {
         try {
             Point screenSize = this.getScreenSize();
-            JSObject barcodeResult = BarcodeScannerHelper.createBarcodeResultForBarcode(barcode, imageSize, screenSize);
+            JSObject barcodeResult = createBarcodeResult(barcode, imageSize, screenSize, seen);
 
             JSObject result = new JSObject();
             result.put("barcode", barcodeResult);
@@ -505,12 +786,12 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
-    public void notifyBarcodesScannedListener(Barcode[] barcodes, Point imageSize) {
+    public void notifyBarcodesScannedListener(Barcode[] barcodes, Point imageSize, @Nullable Boolean[] seenFlags) {
         try {
             Point screenSize = this.getScreenSize();
             JSArray barcodesResult = new JSArray();
-            for (Barcode barcode : barcodes) {
-                JSObject barcodeResult = BarcodeScannerHelper.createBarcodeResultForBarcode(barcode, imageSize, screenSize);
+            for (int i = 0; i < barcodes.length; i++) {
+                JSObject barcodeResult = createBarcodeResult(barcodes[i], imageSize, screenSize, seenFlags == null ? null : seenFlags[i]);
                 barcodesResult.put(barcodeResult);
             }
 
@@ -522,6 +803,46 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    public void notifyBarcodesBatchScannedListener(int batchId, List<BatchedBarcode> entries, int droppedCount) {
+        try {
+            Point screenSize = this.getScreenSize();
+            JSArray barcodesResult = new JSArray();
+            for (BatchedBarcode entry : entries) {
+                JSObject barcodeResult = createBarcodeResult(entry.getBarcode(), entry.getImageSize(), screenSize, entry.getSeen());
+                barcodesResult.put(barcodeResult);
+            }
+
+            JSObject result = new JSObject();
+            result.put("batchId", batchId);
+            result.put("barcodes", barcodesResult);
+            result.put("droppedCount", droppedCount);
+            notifyListeners(BARCODES_BATCH_SCANNED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
+    public void notifyOverlayUpdatedListener(long frameId, long timestamp, List<Barcode> barcodes, Point imageSize, boolean int16Encoding) {
+        try {
+            Point screenSize = this.getScreenSize();
+            int[] cornerPoints = BarcodeScannerHelper.createFlatCornerPoints(barcodes, imageSize, screenSize);
+
+            JSObject result = new JSObject();
+            result.put("frameId", frameId);
+            // Convert the sensor timestamp from nanoseconds to milliseconds
+            result.put("timestamp", timestamp / 1_000_000);
+            result.put("count", cornerPoints.length / 8);
+            if (int16Encoding) {
+                result.put("cornerPoints", BarcodeScannerHelper.convertIntArrayToInt16Base64(cornerPoints));
+            } else {
+                result.put("cornerPoints", new JSONArray(cornerPoints));
+            }
+            notifyListeners(OVERLAY_UPDATED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
     public void notifyScanErrorListener(String message) {
         try {
             JSObject result = new JSObject();
@@ -547,6 +868,22 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    private JSObject createBarcodeResult(Barcode barcode, Point imageSize, Point screenSize, @Nullable Boolean seen) {
+        JSObject barcodeResult = BarcodeScannerHelper.createBarcodeResultForBarcode(barcode, imageSize, screenSize);
+        if (seen != null) {
+            barcodeResult.put("seen", seen);
+        }
+        // Parse the raw value only if requested
+        List<PayloadParser> payloadParsers = implementation.getPayloadParsers();
+        if (payloadParsers != null) {
+            JSObject parseResult = BarcodeScannerHelper.createParseResultForBarcode(barcode, payloadParsers);
+            if (parseResult != null) {
+                barcodeResult.put("parsed", parseResult);
+            }
+        }
+        return barcodeResult;
+    }
+
     /**
      * Returns the display size without navigation bar height and status bar height.
      */
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.CheckDigit;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.Gs1ElementStringParser;
+import java.util.List;
+
+/**
+ * Validates the check digits and the structure of decoded barcodes.
+ */
+public class BarcodeValidator {
+
+    public enum Result {
+        /**
+         * The check digits and the structure of the raw value are valid.
+         */
+        VALID,
+        /**
+         * The raw value is definitely misread.
+         */
+        INVALID,
+        /**
+         * The format has no check digit or the raw value has no known structure.
+         */
+        UNVERIFIABLE
+    }
+
+    @NonNull
+    public static Result validate(@NonNull Barcode barcode) {
+        String rawValue = barcode.getRawValue();
+        if (rawValue == null) {
+            return Result.UNVERIFIABLE;
+        }
+        switch (barcode.getFormat()) {
+            case Barcode.FORMAT_EAN_13:
+                return validateGs1Number(rawValue, 13);
+            case Barcode.FORMAT_EAN_8:
+                return validateGs1Number(rawValue, 8);
+            case Barcode.FORMAT_UPC_A:
+                return validateGs1Number(rawValue, 12);
+            case Barcode.FORMAT_UPC_E:
+                String upcA = CheckDigit.expandUpcE(rawValue);
+                if (upcA == null) {
+                    return Result.INVALID;
+                }
+                return validateGs1Number(upcA, 12);
+            case Barcode.FORMAT_ITF:
+                // Only ITF-14 carries a GS1 check digit
+                if (rawValue.length() == 14 && CheckDigit.isNumeric(rawValue)) {
+                    return CheckDigit.isValidGs1CheckDigit(rawValue) ? Result.VALID : Result.UNVERIFIABLE;
+                }
+                return Result.UNVERIFIABLE;
+            case Barcode.FORMAT_CODE_128:
+            case Barcode.FORMAT_DATA_MATRIX:
+            case Barcode.FORMAT_QR_CODE:
+                return validateGs1ElementString(rawValue);
+            default:
+                return Result.UNVERIFIABLE;
+        }
+    }
+
+    @NonNull
+    private static Result validateGs1Number(@NonNull String value, int length) {
+        if (value.length() != length || !CheckDigit.isNumeric(value)) {
+            return Result.INVALID;
+        }
+        return CheckDigit.isValidGs1CheckDigit(value) ? Result.VALID : Result.INVALID;
+    }
+
+    /**
+     * Without a GS1 marker, almost any short alphanumeric value tokenizes as element string,
+     * so an unmarked value is only valid if at least one check digit has been verified.
+     */
+    @NonNull
+    static Result validateGs1ElementString(@NonNull String value) {
+        boolean isGs1ElementString = Gs1ElementStringParser.isGs1ElementString(value);
+        List<Gs1ElementStringParser.Element> elements = Gs1ElementStringParser.parse(value);
+        if (elements == null) {
+            // Without a GS1 marker the value may just be arbitrary text
+            return isGs1ElementString ? Result.INVALID : Result.UNVERIFIABLE;
+        }
+        boolean hasVerifiedCheckDigit = false;
+        for (Gs1ElementStringParser.Element element : elements) {
+            if (!element.hasValidCheckDigit()) {
+                return isGs1ElementString ? Result.INVALID : Result.UNVERIFIABLE;
+            }
+            if (element.getAi().hasCheckDigit()) {
+                hasVerifiedCheckDigit = true;
+            }
+        }
+        if (!isGs1ElementString && !hasVerifiedCheckDigit) {
+            return Result.UNVERIFIABLE;
+        }
+        return Result.VALID;
+    }
+}
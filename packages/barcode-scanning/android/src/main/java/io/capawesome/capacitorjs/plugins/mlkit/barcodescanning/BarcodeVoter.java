@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.graphics.Point;
+import android.graphics.Rect;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Accepts a barcode only after its raw value has been detected in enough frames
+ * to filter out misreads.
+ *
+ * With the {@link Strategy#WEIGHTED} strategy, each vote is weighted by the corner point stability
+ * between consecutive frames, the barcode size and the distance to the frame center,
+ * so that a steady barcode in the center is accepted sooner than one flickering at the edge.
+ *
+ * Must only be used from a single thread.
+ */
+public class BarcodeVoter {
+
+    public static final int VOTE_THRESHOLD = 10;
+
+    /**
+     * Barcodes with a valid check digit are unlikely to be misread and need fewer votes.
+     */
+    public static final int VALIDATED_VOTE_THRESHOLD = 2;
+
+    public static final float DEFAULT_ACCEPTANCE_SCORE = 3f;
+
+    /**
+     * The mean corner point displacement, relative to the barcode diagonal, at which a vote has no weight.
+     */
+    private static final float MAX_RELATIVE_DISPLACEMENT = 0.2f;
+
+    /**
+     * The stability of a barcode that was not detected in the previous frame.
+     */
+    private static final float INITIAL_STABILITY = 0.5f;
+
+    /**
+     * The relative barcode size (longest side / frame side) at which the size weight is saturated.
+     */
+    private static final float FULL_WEIGHT_SIZE = 0.4f;
+
+    private static final float MIN_SIZE_WEIGHT = 0.1f;
+
+    private static final float MIN_CENTER_WEIGHT = 0.1f;
+
+    public enum Strategy {
+        COUNT,
+        WEIGHTED
+    }
+
+    private final HashMap<String, Float> rawValueScores = new HashMap<>();
+
+    /**
+     * The corner points of the barcodes detected in the previous frame.
+     */
+    private HashMap<String, int[]> previousCornerPoints = new HashMap<>();
+
+    private boolean checkDigitValidation = false;
+
+    @NonNull
+    private Strategy strategy = Strategy.COUNT;
+
+    private float acceptanceScore = DEFAULT_ACCEPTANCE_SCORE;
+
+    public void setCheckDigitValidation(boolean checkDigitValidation) {
+        this.checkDigitValidation = checkDigitValidation;
+    }
+
+    public void setStrategy(@NonNull Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public void setAcceptanceScore(float acceptanceScore) {
+        this.acceptanceScore = acceptanceScore;
+    }
+
+    /**
+     * Votes for all barcodes of a frame and returns the barcodes with enough votes.
+     *
+     * @param frameWidth The width of the upright frame.
+     * @param frameHeight The height of the upright frame.
+     */
+    @NonNull
+    public List<Barcode> vote(@NonNull List<Barcode> barcodes, int frameWidth, int frameHeight) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (Barcode barcode : barcodes) {
+            candidates.add(createCandidate(barcode));
+        }
+        boolean[] acceptedFlags = voteForCandidates(candidates, frameWidth, frameHeight);
+        List<Barcode> barcodesWithEnoughVotes = new ArrayList<>();
+        for (int i = 0; i < barcodes.size(); i++) {
+            if (acceptedFlags[i]) {
+                barcodesWithEnoughVotes.add(barcodes.get(i));
+            }
+        }
+        return barcodesWithEnoughVotes;
+    }
+
+    /**
+     * Votes for all candidates of a frame and returns for each candidate whether it has enough votes.
+     */
+    @NonNull
+    boolean[] voteForCandidates(@NonNull List<Candidate> candidates, int frameWidth, int frameHeight) {
+        boolean[] acceptedFlags = new boolean[candidates.size()];
+        HashMap<String, int[]> currentCornerPoints = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            String rawValue = candidate.rawValue;
+            if (rawValue == null) {
+                // Do not filter out barcodes without raw value.
+                acceptedFlags[i] = true;
+                continue;
+            }
+            if (candidate.cornerPoints != null) {
+                currentCornerPoints.put(rawValue, candidate.cornerPoints);
+            }
+            if (candidate.validationResult == BarcodeValidator.Result.INVALID) {
+                continue;
+            }
+            boolean isValidated = candidate.validationResult == BarcodeValidator.Result.VALID;
+            float threshold;
+            float weight;
+            if (strategy == Strategy.WEIGHTED) {
+                threshold = acceptanceScore;
+                weight = calculateWeight(candidate, previousCornerPoints.get(rawValue), frameWidth, frameHeight);
+                if (isValidated) {
+                    weight *= (float) VOTE_THRESHOLD / VALIDATED_VOTE_THRESHOLD;
+                }
+            } else {
+                threshold = isValidated ? VALIDATED_VOTE_THRESHOLD : VOTE_THRESHOLD;
+                weight = 1;
+            }
+            Float score = rawValueScores.get(rawValue);
+            score = score == null ? weight : score + weight;
+            rawValueScores.put(rawValue, score);
+            acceptedFlags[i] = score >= threshold;
+        }
+        previousCornerPoints = currentCornerPoints;
+        return acceptedFlags;
+    }
+
+    public void clear() {
+        rawValueScores.clear();
+        previousCornerPoints.clear();
+    }
+
+    @NonNull
+    private Candidate createCandidate(@NonNull Barcode barcode) {
+        int[] boundingBox = null;
+        Rect rect = barcode.getBoundingBox();
+        if (rect != null) {
+            boundingBox = new int[] { rect.left, rect.top, rect.right, rect.bottom };
+        }
+        int[] cornerPoints = null;
+        Point[] points = barcode.getCornerPoints();
+        if (points != null) {
+            cornerPoints = new int[points.length * 2];
+            for (int i = 0; i < points.length; i++) {
+                cornerPoints[i * 2] = points[i].x;
+                cornerPoints[i * 2 + 1] = points[i].y;
+            }
+        }
+        BarcodeValidator.Result validationResult = BarcodeValidator.Result.UNVERIFIABLE;
+        if (checkDigitValidation && barcode.getRawValue() != null) {
+            validationResult = BarcodeValidator.validate(barcode);
+        }
+        return new Candidate(barcode.getRawValue(), boundingBox, cornerPoints, validationResult);
+    }
+
+    /**
+     * Returns a weight between 0 and 1.
+     */
+    private static float calculateWeight(
+        @NonNull Candidate candidate,
+        @Nullable int[] previousCornerPoints,
+        int frameWidth,
+        int frameHeight
+    ) {
+        int[] boundingBox = candidate.boundingBox;
+        if (boundingBox == null || frameWidth <= 0 || frameHeight <= 0) {
+            return INITIAL_STABILITY * MIN_SIZE_WEIGHT * MIN_CENTER_WEIGHT;
+        }
+        int width = boundingBox[2] - boundingBox[0];
+        int height = boundingBox[3] - boundingBox[1];
+        float diagonal = (float) Math.hypot(width, height);
+        // Corner point stability
+        float stability = INITIAL_STABILITY;
+        int[] cornerPoints = candidate.cornerPoints;
+        if (cornerPoints != null && previousCornerPoints != null && cornerPoints.length == previousCornerPoints.length && diagonal > 0) {
+            float displacement = 0;
+            for (int i = 0; i < cornerPoints.length; i += 2) {
+                float dx = cornerPoints[i] - previousCornerPoints[i];
+                float dy = cornerPoints[i + 1] - previousCornerPoints[i + 1];
+                displacement += (float) Math.hypot(dx, dy);
+            }
+            displacement /= cornerPoints.length / 2f;
+            stability = clamp(1 - displacement / (diagonal * MAX_RELATIVE_DISPLACEMENT), 0, 1);
+        }
+        // Barcode size
+        float relativeSize = Math.max((float) width / frameWidth, (float) height / frameHeight);
+        float size = clamp(relativeSize / FULL_WEIGHT_SIZE, MIN_SIZE_WEIGHT, 1);
+        // Distance to frame center
+        float centerX = (boundingBox[0] + boundingBox[2]) / 2f;
+        float centerY = (boundingBox[1] + boundingBox[3]) / 2f;
+        float distance = (float) Math.hypot(centerX - frameWidth / 2f, centerY - frameHeight / 2f);
+        float maxDistance = (float) Math.hypot(frameWidth / 2f, frameHeight / 2f);
+        float center = clamp(1 - distance / maxDistance, MIN_CENTER_WEIGHT, 1);
+        return stability * size * center;
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * The properties of a detected barcode that are needed for voting.
+     */
+    static class Candidate {
+
+        @Nullable
+        private final String rawValue;
+
+        /**
+         * The left, top, right and bottom edge.
+         */
+        @Nullable
+        private final int[] boundingBox;
+
+        /**
+         * The x and y coordinates of each corner point.
+         */
+        @Nullable
+        private final int[] cornerPoints;
+
+        @NonNull
+        private final BarcodeValidator.Result validationResult;
+
+        Candidate(
+            @Nullable String rawValue,
+            @Nullable int[] boundingBox,
+            @Nullable int[] cornerPoints,
+            @NonNull BarcodeValidator.Result validationResult
+        ) {
+            this.rawValue = rawValue;
+            this.boundingBox = boundingBox;
+            this.cornerPoints = cornerPoints;
+            this.validationResult = validationResult;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.graphics.Point;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.barcode.common.Barcode;
+
+/**
+ * An accepted barcode that waits for delivery by the {@link BarcodeBatcher}.
+ */
+public class BatchedBarcode {
+
+    @NonNull
+    private final Barcode barcode;
+
+    @NonNull
+    private final Point imageSize;
+
+    @Nullable
+    private final Boolean seen;
+
+    public BatchedBarcode(@NonNull Barcode barcode, @NonNull Point imageSize, @Nullable Boolean seen) {
+        this.barcode = barcode;
+        this.imageSize = imageSize;
+        this.seen = seen;
+    }
+
+    /**
+     * Newer detections of a barcode replace pending detections with the same key.
+     */
+    @NonNull
+    public String getKey() {
+        String rawValue = barcode.getRawValue();
+        if (rawValue == null) {
+            // Barcodes without raw value cannot be merged
+            return barcode.getFormat() + ":" + System.identityHashCode(barcode);
+        }
+        return barcode.getFormat() + ":" + rawValue;
+    }
+
+    @NonNull
+    public Barcode getBarcode() {
+        return barcode;
+    }
+
+    @NonNull
+    public Point getImageSize() {
+        return imageSize;
+    }
+
+    @Nullable
+    public Boolean getSeen() {
+        return seen;
+    }
+}
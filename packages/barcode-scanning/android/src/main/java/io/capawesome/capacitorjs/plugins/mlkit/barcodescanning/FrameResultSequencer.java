@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Releases the results of frames that are processed concurrently in the order of their timestamps.
+ *
+ * Must only be used from a single thread.
+ */
+public class FrameResultSequencer<T> {
+
+    private final TreeMap<Long, Entry<T>> pendingFrames = new TreeMap<>();
+
+    public void register(long timestamp) {
+        pendingFrames.put(timestamp, new Entry<>());
+    }
+
+    /**
+     * Stores the result of a frame and returns all results that can be released in timestamp order.
+     */
+    @NonNull
+    public List<T> complete(long timestamp, @Nullable T result) {
+        Entry<T> entry = pendingFrames.get(timestamp);
+        if (entry == null) {
+            // The frame was registered before the sequencer was cleared
+            return new ArrayList<>();
+        }
+        entry.isCompleted = true;
+        entry.result = result;
+        return drain();
+    }
+
+    public int getPendingFrameCount() {
+        return pendingFrames.size();
+    }
+
+    public void clear() {
+        pendingFrames.clear();
+    }
+
+    @NonNull
+    private List<T> drain() {
+        List<T> results = new ArrayList<>();
+        while (!pendingFrames.isEmpty()) {
+            Map.Entry<Long, Entry<T>> first = pendingFrames.firstEntry();
+            if (!first.getValue().isCompleted) {
+                break;
+            }
+            pendingFrames.pollFirstEntry();
+            if (first.getValue().result != null) {
+                results.add(first.getValue().result);
+            }
+        }
+        return results;
+    }
+
+    private static class Entry<T> {
+
+        private boolean isCompleted = false;
+
+        @Nullable
+        private T result;
+    }
+}
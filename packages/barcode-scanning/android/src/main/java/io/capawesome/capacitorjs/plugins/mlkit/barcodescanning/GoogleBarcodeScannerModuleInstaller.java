@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpdate.InstallState.STATE_COMPLETED;
+
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.android.gms.common.moduleinstall.ModuleInstall;
+import com.google.android.gms.common.moduleinstall.ModuleInstallClient;
+import com.google.android.gms.common.moduleinstall.ModuleInstallRequest;
+import com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpdate;
+import com.google.mlkit.vision.codescanner.GmsBarcodeScanner;
+import com.google.mlkit.vision.codescanner.GmsBarcodeScanning;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the availability of the Google Barcode Scanner module, installs it and reports the install progress.
+ */
+public class GoogleBarcodeScannerModuleInstaller {
+
+    public interface ProgressListener {
+        void onProgress(@ModuleInstallStatusUpdate.InstallState int state, @Nullable Integer progress);
+    }
+
+    /**
+     * Progress updates are reported at most every X milliseconds or Y percent, whichever comes first.
+     */
+    private static final long PROGRESS_THROTTLE_INTERVAL_MILLIS = 250;
+
+    private static final int PROGRESS_THROTTLE_STEP_PERCENT = 5;
+
+    @NonNull
+    private final Context context;
+
+    @NonNull
+    private final ProgressListener progressListener;
+
+    @Nullable
+    private ModuleInstallClient moduleInstallClient;
+
+    @Nullable
+    private GmsBarcodeScanner gmsBarcodeScanner;
+
+    /**
+     * The listener of the running installation.
+     */
+    @Nullable
+    private ModuleInstallProgressListener installStatusListener;
+
+    /**
+     * The callbacks of `waitForModule(...)` calls that wait for the running installation.
+     */
+    private final List<InstallGoogleBarcodeScannerModuleResultCallback> waitingCallbacks = new ArrayList<>();
+
+    /**
+     * Only a positive result is cached, since the module can be installed at any time by another app.
+     * The cached result is cleared on every install status update and only set again on completion.
+     */
+    private volatile boolean isModuleAvailable = false;
+
+    @ModuleInstallStatusUpdate.InstallState
+    private int lastReportedState = ModuleInstallStatusUpdate.InstallState.STATE_UNKNOWN;
+
+    @Nullable
+    private Integer lastReportedProgress;
+
+    private long lastReportedTimestamp = 0;
+
+    public GoogleBarcodeScannerModuleInstaller(@NonNull Context context, @NonNull ProgressListener progressListener) {
+        this.context = context;
+        this.progressListener = progressListener;
+    }
+
+    public void isModuleAvailable(@NonNull IsGoogleBarodeScannerModuleAvailableResultCallback callback) {
+        if (isModuleAvailable) {
+            callback.success(true);
+            return;
+        }
+        getModuleInstallClient()
+            .areModulesAvailable(getGmsBarcodeScanner())
+            .addOnSuccessListener(response -> {
+                boolean isAvailable = response.areModulesAvailable();
+                isModuleAvailable = isAvailable;
+                callback.success(isAvailable);
+            })
+            .addOnFailureListener(exception -> {
+                callback.error(exception);
+            });
+    }
+
+    /**
+     * Starts the installation and returns when the installation request was accepted.
+     */
+    public synchronized void install(@NonNull InstallGoogleBarcodeScannerModuleResultCallback callback) {
+        if (installStatusListener != null) {
+            callback.error(new Exception(BarcodeScannerPlugin.ERROR_GOOGLE_BARCODE_SCANNER_MODULE_INSTALL_IN_PROGRESS));
+            return;
+        }
+        ModuleInstallProgressListener listener = new ModuleInstallProgressListener(this);
+        installStatusListener = listener;
+        lastReportedState = ModuleInstallStatusUpdate.InstallState.STATE_UNKNOWN;
+        lastReportedProgress = null;
+        ModuleInstallRequest moduleInstallRequest = ModuleInstallRequest.newBuilder()
+            .addApi(getGmsBarcodeScanner())
+            .setListener(listener)
+            .build();
+        getModuleInstallClient()
+            .installModules(moduleInstallRequest)
+            .addOnSuccessListener(moduleInstallResponse -> {
+                if (moduleInstallResponse.areModulesAlreadyInstalled()) {
+                    // No status updates are sent, so the listener must be unregistered here
+                    isModuleAvailable = true;
+                    finishInstallation(listener, true, null);
+                    callback.error(new Exception(BarcodeScannerPlugin.ERROR_GOOGLE_BARCODE_SCANNER_MODULE_ALREADY_INSTALLED));
+                } else {
+                    callback.success();
+                }
+            })
+            .addOnFailureListener(exception -> {
+                finishInstallation(listener, false, exception);
+                callback.error(exception);
+            });
+    }
+
+    /**
+     * Calls the callback as soon as the module is available.
+     *
+     * The installation is started if the module is neither available nor being installed.
+     */
+    public void waitForModule(@NonNull InstallGoogleBarcodeScannerModuleResultCallback callback) {
+        isModuleAvailable(
+            new IsGoogleBarodeScannerModuleAvailableResultCallback() {
+                @Override
+                public void success(boolean isAvailable) {
+                    if (isAvailable) {
+                        callback.success();
+                        return;
+                    }
+                    boolean isInstalling;
+                    synchronized (GoogleBarcodeScannerModuleInstaller.this) {
+                        waitingCallbacks.add(callback);
+                        isInstalling = installStatusListener != null;
+                    }
+                    if (isInstalling) {
+                        return;
+                    }
+                    install(
+                        new InstallGoogleBarcodeScannerModuleResultCallback() {
+                            @Override
+                            public void success() {}
+
+                            @Override
+                            public void error(Exception exception) {
+                                // The waiting callbacks are notified when the installation is finished
+                            }
+                        }
+                    );
+                }
+
+                @Override
+                public void error(Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    /**
+     * Removes a callback that was passed to `waitForModule(...)`.
+     *
+     * Returns `false` if the callback was already called.
+     */
+    public synchronized boolean cancelWaitForModule(@NonNull InstallGoogleBarcodeScannerModuleResultCallback callback) {
+        return waitingCallbacks.remove(callback);
+    }
+
+    /**
+     * Unregisters the listener of the running installation.
+     */
+    public synchronized void release() {
+        if (installStatusListener != null) {
+            getModuleInstallClient().unregisterListener(installStatusListener);
+            installStatusListener = null;
+        }
+        waitingCallbacks.clear();
+    }
+
+    /**
+     * Called on the main thread.
+     */
+    public void handleInstallStatusUpdate(
+        @NonNull ModuleInstallProgressListener listener,
+        @ModuleInstallStatusUpdate.InstallState int state,
+        @Nullable Integer progress
+    ) {
+        synchronized (this) {
+            if (listener != installStatusListener) {
+                // The update belongs to a finished installation
+                return;
+            }
+        }
+        // The module is not usable while it is being installed or after the installation failed
+        isModuleAvailable = false;
+        boolean isTerminateState = ModuleInstallProgressListener.isTerminateState(state);
+        if (isTerminateState || shouldReportProgress(state, progress)) {
+            lastReportedState = state;
+            lastReportedProgress = progress;
+            lastReportedTimestamp = SystemClock.elapsedRealtime();
+            progressListener.onProgress(state, progress);
+        }
+        if (isTerminateState) {
+            boolean isCompleted = state == STATE_COMPLETED;
+            if (isCompleted) {
+                isModuleAvailable = true;
+            }
+            finishInstallation(
+                listener,
+                isCompleted,
+                isCompleted ? null : new Exception(BarcodeScannerPlugin.ERROR_GOOGLE_BARCODE_SCANNER_MODULE_INSTALL_FAILED)
+            );
+        }
+    }
+
+    private boolean shouldReportProgress(@ModuleInstallStatusUpdate.InstallState int state, @Nullable Integer progress) {
+        if (state != lastReportedState || lastReportedProgress == null || progress == null) {
+            return true;
+        }
+        if (progress - lastReportedProgress >= PROGRESS_THROTTLE_STEP_PERCENT) {
+            return true;
+        }
+        boolean isProgressChanged = !progress.equals(lastReportedProgress);
+        return isProgressChanged && SystemClock.elapsedRealtime() - lastReportedTimestamp >= PROGRESS_THROTTLE_INTERVAL_MILLIS;
+    }
+
+    private void finishInstallation(@NonNull ModuleInstallProgressListener listener, boolean isAvailable, @Nullable Exception exception) {
+        List<InstallGoogleBarcodeScannerModuleResultCallback> callbacks;
+        synchronized (this) {
+            if (listener != installStatusListener) {
+                return;
+            }
+            getModuleInstallClient().unregisterListener(listener);
+            installStatusListener = null;
+            callbacks = new ArrayList<>(waitingCallbacks);
+            waitingCallbacks.clear();
+        }
+        for (InstallGoogleBarcodeScannerModuleResultCallback callback : callbacks) {
+            if (isAvailable) {
+                callback.success();
+            } else {
+                callback.error(exception);
+            }
+        }
+    }
+
+    private synchronized ModuleInstallClient getModuleInstallClient() {
+        if (moduleInstallClient == null) {
+            moduleInstallClient = ModuleInstall.getClient(context);
+        }
+        return moduleInstallClient;
+    }
+
+    private synchronized GmsBarcodeScanner getGmsBarcodeScanner() {
+        if (gmsBarcodeScanner == null) {
+            gmsBarcodeScanner = GmsBarcodeScanning.getClient(context);
+        }
+        return gmsBarcodeScanner;
+    }
+}
@@ -5,19 +5,16 @@ import static com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpd
 import static com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpdate.InstallState.STATE_FAILED;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 import com.google.android.gms.common.moduleinstall.InstallStatusListener;
-import com.google.android.gms.common.moduleinstall.ModuleInstall;
-import com.google.android.gms.common.moduleinstall.ModuleInstallClient;
 import com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpdate;
 
 public class ModuleInstallProgressListener implements InstallStatusListener {
 
     @NonNull
-    private final BarcodeScanner implementation;
+    private final GoogleBarcodeScannerModuleInstaller installer;
 
-    public ModuleInstallProgressListener(BarcodeScanner implementation) {
-        this.implementation = implementation;
+    public ModuleInstallProgressListener(@NonNull GoogleBarcodeScannerModuleInstaller installer) {
+        this.installer = installer;
     }
 
     public static boolean isTerminateState(@ModuleInstallStatusUpdate.InstallState int state) {
@@ -31,9 +28,9 @@ public class ModuleInstallProgressListener implements InstallStatusListener {
         int state = update.getInstallState();
         // Progress info is only set when modules are in the progress of downloading.
         Integer progress = null;
-        if (progressInfo != null) {
-            progress = (int) (100 * (progressInfo.getBytesDownloaded() / progressInfo.getTotalBytesToDownload()));
+        if (progressInfo != null && progressInfo.getTotalBytesToDownload() > 0) {
+            progress = (int) ((100 * progressInfo.getBytesDownloaded()) / progressInfo.getTotalBytesToDownload());
         }
-        implementation.handleGoogleBarcodeScannerModuleInstallProgress(state, progress);
+        installer.handleInstallStatusUpdate(this, state, progress);
     }
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import androidx.annotation.NonNull;
+
+public class ScanLogDatabaseHelper extends SQLiteOpenHelper {
+
+    public static final String DATABASE_NAME = "barcode_scanner_scan_log.db";
+    public static final int DATABASE_VERSION = 1;
+
+    public static final String TABLE_NAME = "scan_log";
+    public static final String COLUMN_ID = "id";
+    public static final String COLUMN_RAW_VALUE = "raw_value";
+    public static final String COLUMN_FORMAT = "format";
+    public static final String COLUMN_TIMESTAMP = "timestamp";
+    public static final String COLUMN_CORNER_POINTS = "corner_points";
+
+    public ScanLogDatabaseHelper(@NonNull Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL(
+            "CREATE TABLE " +
+            TABLE_NAME +
+            " (" +
+            COLUMN_ID +
+            " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            COLUMN_RAW_VALUE +
+            " TEXT, " +
+            COLUMN_FORMAT +
+            " TEXT, " +
+            COLUMN_TIMESTAMP +
+            " INTEGER NOT NULL, " +
+            COLUMN_CORNER_POINTS +
+            " TEXT)"
+        );
+        db.execSQL("CREATE INDEX " + TABLE_NAME + "_" + COLUMN_TIMESTAMP + " ON " + TABLE_NAME + " (" + COLUMN_TIMESTAMP + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_NAME);
+        onCreate(db);
+    }
+}
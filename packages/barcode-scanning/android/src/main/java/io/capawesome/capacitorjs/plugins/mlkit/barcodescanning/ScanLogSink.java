@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.graphics.Point;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.Logger;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+
+/**
+ * Writes accepted barcodes to a local SQLite table in batches.
+ *
+ * All database access happens on a single background thread, so that scanning
+ * does not depend on the WebView.
+ */
+public class ScanLogSink {
+
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final long FLUSH_INTERVAL_MILLIS = 500;
+
+    @NonNull
+    private final ScanLogDatabaseHelper databaseHelper;
+
+    @NonNull
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    private final List<Entry> pendingEntries = new ArrayList<>();
+
+    private boolean isFlushScheduled = false;
+
+    public ScanLogSink(@NonNull Context context) {
+        this.databaseHelper = new ScanLogDatabaseHelper(context);
+    }
+
+    public void append(@NonNull Barcode barcode, long timestamp) {
+        Entry entry = new Entry(
+            barcode.getRawValue(),
+            BarcodeScannerHelper.convertBarcodeScannerFormatToString(barcode.getFormat()),
+            timestamp,
+            convertCornerPointsToString(barcode.getCornerPoints())
+        );
+        synchronized (pendingEntries) {
+            pendingEntries.add(entry);
+            if (pendingEntries.size() >= MAX_BATCH_SIZE) {
+                executor.execute(this::flush);
+            } else if (!isFlushScheduled) {
+                isFlushScheduled = true;
+                executor.schedule(this::flush, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Returns the entries with a timestamp greater than or equal to `since`, ordered by timestamp.
+     */
+    @NonNull
+    public List<Entry> query(long since, int limit) throws Exception {
+        return executor
+            .submit(() -> {
+                flush();
+                List<Entry> entries = new ArrayList<>();
+                SQLiteDatabase database = databaseHelper.getReadableDatabase();
+                try (
+                    Cursor cursor = database.query(
+                        ScanLogDatabaseHelper.TABLE_NAME,
+                        new String[] {
+                            ScanLogDatabaseHelper.COLUMN_RAW_VALUE,
+                            ScanLogDatabaseHelper.COLUMN_FORMAT,
+                            ScanLogDatabaseHelper.COLUMN_TIMESTAMP,
+                            ScanLogDatabaseHelper.COLUMN_CORNER_POINTS
+                        },
+                        ScanLogDatabaseHelper.COLUMN_TIMESTAMP + " >= ?",
+                        new String[] { String.valueOf(since) },
+                        null,
+                        null,
+                        ScanLogDatabaseHelper.COLUMN_TIMESTAMP + " ASC, " + ScanLogDatabaseHelper.COLUMN_ID + " ASC",
+                        String.valueOf(limit)
+                    )
+                ) {
+                    while (cursor.moveToNext()) {
+                        entries.add(
+                            new Entry(
+                                cursor.isNull(0) ? null : cursor.getString(0),
+                                cursor.isNull(1) ? null : cursor.getString(1),
+                                cursor.getLong(2),
+                                cursor.isNull(3) ? null : cursor.getString(3)
+                            )
+                        );
+                    }
+                }
+                return entries;
+            })
+            .get();
+    }
+
+    public void clear() throws Exception {
+        executor
+            .submit(() -> {
+                synchronized (pendingEntries) {
+                    pendingEntries.clear();
+                }
+                databaseHelper.getWritableDatabase().delete(ScanLogDatabaseHelper.TABLE_NAME, null, null);
+                return null;
+            })
+            .get();
+    }
+
+    public void close() {
+        executor.execute(() -> {
+            flush();
+            databaseHelper.close();
+        });
+        executor.shutdown();
+    }
+
+    /**
+     * Must run on the executor thread.
+     */
+    private void flush() {
+        List<Entry> entries;
+        synchronized (pendingEntries) {
+            isFlushScheduled = false;
+            if (pendingEntries.isEmpty()) {
+                return;
+            }
+            entries = new ArrayList<>(pendingEntries);
+            pendingEntries.clear();
+        }
+        try {
+            SQLiteDatabase database = databaseHelper.getWritableDatabase();
+            SQLiteStatement statement = database.compileStatement(
+                "INSERT INTO " +
+                ScanLogDatabaseHelper.TABLE_NAME +
+                " (" +
+                ScanLogDatabaseHelper.COLUMN_RAW_VALUE +
+                ", " +
+                ScanLogDatabaseHelper.COLUMN_FORMAT +
+                ", " +
+                ScanLogDatabaseHelper.COLUMN_TIMESTAMP +
+                ", " +
+                ScanLogDatabaseHelper.COLUMN_CORNER_POINTS +
+                ") VALUES (?, ?, ?, ?)"
+            );
+            // Write the whole batch in a single transaction
+            database.beginTransaction();
+            try {
+                for (Entry entry : entries) {
+                    statement.clearBindings();
+                    bindNullableString(statement, 1, entry.rawValue);
+                    bindNullableString(statement, 2, entry.format);
+                    statement.bindLong(3, entry.timestamp);
+                    bindNullableString(statement, 4, entry.cornerPoints);
+                    statement.executeInsert();
+                }
+                database.setTransactionSuccessful();
+            } finally {
+                database.endTransaction();
+                statement.close();
+            }
+        } catch (Exception exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, exception.getMessage(), exception);
+        }
+    }
+
+    private static void bindNullableString(@NonNull SQLiteStatement statement, int index, @Nullable String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    @Nullable
+    private static String convertCornerPointsToString(@Nullable Point[] cornerPoints) {
+        if (cornerPoints == null) {
+            return null;
+        }
+        JSONArray result = new JSONArray();
+        for (Point cornerPoint : cornerPoints) {
+            JSONArray cornerPointResult = new JSONArray();
+            cornerPointResult.put(cornerPoint.x);
+            cornerPointResult.put(cornerPoint.y);
+            result.put(cornerPointResult);
+        }
+        return result.toString();
+    }
+
+    public static class Entry {
+
+        @Nullable
+        public final String rawValue;
+
+        @Nullable
+        public final String format;
+
+        public final long timestamp;
+
+        /**
+         * The corner points in image coordinates as JSON array.
+         */
+        @Nullable
+        public final String cornerPoints;
+
+        public Entry(@Nullable String rawValue, @Nullable String format, long timestamp, @Nullable String cornerPoints) {
+            this.rawValue = rawValue;
+            this.format = format;
+            this.timestamp = timestamp;
+            this.cornerPoints = cornerPoints;
+        }
+    }
+}
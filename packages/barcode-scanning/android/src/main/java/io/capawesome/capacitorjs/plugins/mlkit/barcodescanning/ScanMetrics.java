@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+/**
+ * Counters of the current scan.
+ *
+ * Must only be used from the main thread.
+ */
+public class ScanMetrics {
+
+    public long framesAnalyzed = 0;
+
+    public long framesDropped = 0;
+
+    public long barcodesDetected = 0;
+
+    public long barcodesFiltered = 0;
+
+    public long barcodesAccepted = 0;
+
+    public void reset() {
+        framesAnalyzed = 0;
+        framesDropped = 0;
+        barcodesDetected = 0;
+        barcodesFiltered = 0;
+        barcodesAccepted = 0;
+    }
+}
@@ -3,10 +3,13 @@
  */
 package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
 
+import android.util.Range;
 import android.util.Size;
 import androidx.annotation.Nullable;
 import androidx.camera.core.CameraSelector;
 import com.google.mlkit.vision.barcode.common.Barcode;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing.PayloadParser;
+import java.util.List;
 
 public class ScanSettings {
 
@@ -21,4 +24,45 @@ public class ScanSettings {
     public Integer lensFacing;
 
     public Size resolution;
+
+    @Nullable
+    public Range<Integer> targetFpsRange;
+
+    public boolean headless = false;
+
+    public boolean autoFocus = false;
+
+    public boolean scanLog = false;
+
+    public boolean checkDigitValidation = false;
+
+    @Nullable
+    public BarcodeFilter filters;
+
+    /**
+     * The parsers that are applied to the raw value of emitted barcodes in the requested order.
+     */
+    @Nullable
+    public List<PayloadParser> payloadParsers;
+
+    public BarcodeVoter.Strategy votingStrategy = BarcodeVoter.Strategy.COUNT;
+
+    public float acceptanceScore = BarcodeVoter.DEFAULT_ACCEPTANCE_SCORE;
+
+    public int maxFramesInFlight = 1;
+
+    public boolean overlayEvents = false;
+
+    public boolean overlayInt16Encoding = false;
+
+    public boolean batchDelivery = false;
+
+    public long batchInterval = 100;
+
+    public int batchSize = 50;
+
+    public long sessionReuseTimeout = 0;
+
+    @Nullable
+    public Integer imageQueueDepth;
 }
@@ -0,0 +1,645 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.Logger;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A persistent set of barcode raw values that were already seen during a session.
+ *
+ * Membership checks use a memory-mapped Bloom filter first. Positive matches are confirmed
+ * with a memory-mapped open addressing table of 64-bit hashes. The raw values are appended
+ * to a JSON Lines file so that the session can be exported.
+ *
+ * The JSON Lines file is written in batches on a single background thread,
+ * so that `checkAndAdd` can be called from the analyzer without blocking on file I/O.
+ * Since the Bloom filter and the hash table are updated before the codes are written,
+ * the JSON Lines file is the source of truth: if it does not match the hash table when
+ * the session is opened, e.g. because the app was killed, both are rebuilt from it.
+ */
+public class SeenBarcodeSession {
+
+    public enum Mode {
+        TAG,
+        SUPPRESS
+    }
+
+    public static final String BLOOM_FILTER_FILE_NAME = "bloom.bin";
+    public static final String HASH_INDEX_FILE_NAME = "hashes.bin";
+    public static final String CODES_FILE_NAME = "codes.jsonl";
+
+    private static final int BLOOM_FILTER_MAGIC = 0x53424246;
+    private static final int BLOOM_FILTER_HEADER_SIZE = 16;
+    private static final int HASH_INDEX_HEADER_SIZE = 16;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_HASH_INDEX_CAPACITY = 1024;
+    /**
+     * The largest power of two whose slots fit into a single `MappedByteBuffer`, which is indexed by `int`.
+     */
+    private static final int MAX_HASH_INDEX_CAPACITY = 1 << 27;
+    private static final long CODES_FLUSH_INTERVAL_MILLIS = 500;
+    private static final long MAX_BLOOM_FILTER_BITS = 8L * (Integer.MAX_VALUE - BLOOM_FILTER_HEADER_SIZE);
+
+    /**
+     * The maximum number of codes in a session, since the load factor of the hash index is kept below 0.5.
+     */
+    public static final long MAX_EXPECTED_CODES = MAX_HASH_INDEX_CAPACITY / 2;
+
+    @NonNull
+    private final String id;
+
+    @NonNull
+    private final Mode mode;
+
+    @NonNull
+    private final File directory;
+
+    @NonNull
+    private final RandomAccessFile bloomFilterFile;
+
+    @NonNull
+    private final MappedByteBuffer bloomFilterBuffer;
+
+    private final long bloomFilterBitCount;
+
+    private final int bloomFilterHashCount;
+
+    @NonNull
+    private RandomAccessFile hashIndexFile;
+
+    @NonNull
+    private MappedByteBuffer hashIndexBuffer;
+
+    private int hashIndexCapacity;
+
+    private long count;
+
+    @NonNull
+    private final Writer codesWriter;
+
+    @NonNull
+    private final ScheduledExecutorService codesExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    private final List<String> pendingCodes = new ArrayList<>();
+
+    private boolean isCodesFlushScheduled = false;
+
+    private boolean isClosed = false;
+
+    private SeenBarcodeSession(@NonNull String id, @NonNull Mode mode, @NonNull File directory, long expectedCodes) throws IOException {
+        this.id = id;
+        this.mode = mode;
+        this.directory = directory;
+
+        // Bloom filter
+        File bloomFilter = new File(directory, BLOOM_FILTER_FILE_NAME);
+        boolean isBloomFilterExisting = bloomFilter.exists() && bloomFilter.length() > BLOOM_FILTER_HEADER_SIZE;
+        bloomFilterFile = new RandomAccessFile(bloomFilter, "rw");
+        long bitCount;
+        int hashCount;
+        if (isBloomFilterExisting) {
+            bloomFilterFile.seek(0);
+            if (bloomFilterFile.readInt() != BLOOM_FILTER_MAGIC) {
+                bloomFilterFile.close();
+                throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CORRUPTED);
+            }
+            hashCount = bloomFilterFile.readInt();
+            bitCount = bloomFilterFile.readLong();
+        } else {
+            long n = Math.max(1, expectedCodes);
+            bitCount = (long) Math.ceil((-n * Math.log(FALSE_POSITIVE_RATE)) / (Math.log(2) * Math.log(2)));
+            bitCount = Math.min(Math.max(bitCount, 64), MAX_BLOOM_FILTER_BITS);
+            hashCount = Math.max(1, (int) Math.round(((double) bitCount / n) * Math.log(2)));
+        }
+        bloomFilterBitCount = bitCount;
+        bloomFilterHashCount = hashCount;
+        bloomFilterBuffer = bloomFilterFile
+            .getChannel()
+            .map(FileChannel.MapMode.READ_WRITE, 0, BLOOM_FILTER_HEADER_SIZE + (bitCount + 7) / 8);
+        if (!isBloomFilterExisting) {
+            bloomFilterBuffer.putInt(0, BLOOM_FILTER_MAGIC);
+            bloomFilterBuffer.putInt(4, hashCount);
+            bloomFilterBuffer.putLong(8, bitCount);
+        }
+
+        // Hash index
+        File hashIndex = new File(directory, HASH_INDEX_FILE_NAME);
+        boolean isHashIndexExisting = hashIndex.exists() && hashIndex.length() > HASH_INDEX_HEADER_SIZE;
+        hashIndexFile = new RandomAccessFile(hashIndex, "rw");
+        if (isHashIndexExisting) {
+            hashIndexFile.seek(0);
+            hashIndexCapacity = hashIndexFile.readInt();
+            hashIndexFile.readInt();
+            count = hashIndexFile.readLong();
+            if (!isValidHashIndexCapacity(hashIndexCapacity) || count < 0 || count > hashIndexCapacity) {
+                hashIndexFile.close();
+                bloomFilterFile.close();
+                throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CORRUPTED);
+            }
+        } else {
+            hashIndexCapacity = nextPowerOfTwo(Math.max(MIN_HASH_INDEX_CAPACITY, expectedCodes * 2));
+            count = 0;
+        }
+        hashIndexBuffer = mapHashIndex(hashIndexFile, hashIndexCapacity);
+        if (!isHashIndexExisting) {
+            writeHashIndexHeader(hashIndexBuffer, hashIndexCapacity, count);
+        }
+
+        try {
+            rebuildIfInconsistent();
+        } catch (IOException | RuntimeException exception) {
+            hashIndexFile.close();
+            bloomFilterFile.close();
+            throw exception;
+        }
+
+        codesWriter = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(new File(directory, CODES_FILE_NAME), true), StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Opens the session with the given ID or creates it if it does not exist yet.
+     *
+     * The expected number of codes is only used when a new session is created.
+     */
+    @NonNull
+    public static SeenBarcodeSession open(@NonNull File rootDirectory, @NonNull String id, @NonNull Mode mode, long expectedCodes)
+        throws IOException {
+        File directory = new File(rootDirectory, id);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CREATE_FAILED);
+        }
+        return new SeenBarcodeSession(id, mode, directory, expectedCodes);
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public Mode getMode() {
+        return mode;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    @NonNull
+    public File getCodesFile() {
+        return new File(directory, CODES_FILE_NAME);
+    }
+
+    /**
+     * Adds the raw value to the session.
+     *
+     * @return `true` if the raw value was already seen.
+     */
+    public synchronized boolean checkAndAdd(@NonNull String rawValue) throws IOException {
+        if (isClosed) {
+            throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CLOSED);
+        }
+        long hash = hash(rawValue);
+        if (mightContain(hash) && containsHash(hash)) {
+            return true;
+        }
+        addToBloomFilter(hash);
+        addHash(hash);
+        synchronized (pendingCodes) {
+            pendingCodes.add(rawValue);
+            if (!isCodesFlushScheduled) {
+                isCodesFlushScheduled = true;
+                try {
+                    codesExecutor.schedule(this::writePendingCodesSafely, CODES_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException exception) {
+                    // The code stays pending and is written by the next flush
+                    isCodesFlushScheduled = false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes all pending codes and syncs the memory-mapped files.
+     *
+     * Blocks until the pending codes are written, but does not hold the lock
+     * of the session while waiting, so that `checkAndAdd` is not blocked.
+     */
+    public void flush() throws IOException {
+        awaitPendingCodes();
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            bloomFilterBuffer.force();
+            hashIndexBuffer.force();
+        }
+    }
+
+    public void close() throws IOException {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            // No codes can be added from now on, so the pending codes are complete
+            isClosed = true;
+        }
+        try {
+            awaitPendingCodes();
+        } finally {
+            synchronized (this) {
+                codesExecutor.shutdown();
+                bloomFilterBuffer.force();
+                hashIndexBuffer.force();
+                codesWriter.close();
+                bloomFilterFile.close();
+                hashIndexFile.close();
+            }
+        }
+    }
+
+    /**
+     * Closes the session and deletes all of its files.
+     */
+    public void delete() throws IOException {
+        close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private void awaitPendingCodes() throws IOException {
+        try {
+            codesExecutor
+                .submit(() -> {
+                    writePendingCodes();
+                    return null;
+                })
+                .get();
+        } catch (RejectedExecutionException exception) {
+            // The session was closed and all codes were already written
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException(exception);
+        } catch (ExecutionException exception) {
+            throw new IOException(exception.getCause());
+        }
+    }
+
+    /**
+     * Must run on the codes executor thread.
+     */
+    private void writePendingCodes() throws IOException {
+        List<String> codes;
+        synchronized (pendingCodes) {
+            isCodesFlushScheduled = false;
+            if (pendingCodes.isEmpty()) {
+                return;
+            }
+            codes = new ArrayList<>(pendingCodes);
+            pendingCodes.clear();
+        }
+        for (String code : codes) {
+            codesWriter.write(quote(code));
+            codesWriter.write('\n');
+        }
+        codesWriter.flush();
+    }
+
+    private void writePendingCodesSafely() {
+        try {
+            writePendingCodes();
+        } catch (IOException exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Rebuilds the Bloom filter and the hash table from the codes file if the number of codes does not match.
+     * A partially written last line is removed.
+     */
+    private void rebuildIfInconsistent() throws IOException {
+        File codesFile = getCodesFile();
+        long validLength = 0;
+        long lineCount = 0;
+        if (codesFile.exists()) {
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(codesFile))) {
+                long position = 0;
+                int value;
+                while ((value = inputStream.read()) != -1) {
+                    position++;
+                    if (value == '\n') {
+                        lineCount++;
+                        validLength = position;
+                    }
+                }
+            }
+            if (codesFile.length() != validLength) {
+                try (RandomAccessFile file = new RandomAccessFile(codesFile, "rw")) {
+                    file.setLength(validLength);
+                }
+            }
+        }
+        if (lineCount == count) {
+            return;
+        }
+        for (int i = BLOOM_FILTER_HEADER_SIZE; i < bloomFilterBuffer.capacity(); i++) {
+            bloomFilterBuffer.put(i, (byte) 0);
+        }
+        for (int slot = 0; slot < hashIndexCapacity; slot++) {
+            hashIndexBuffer.putLong(getSlotOffset(slot), 0);
+        }
+        count = 0;
+        writeHashIndexHeader(hashIndexBuffer, hashIndexCapacity, count);
+        if (lineCount > 0) {
+            try (
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(codesFile), StandardCharsets.UTF_8))
+            ) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    long hash = hash(unquote(line));
+                    if (!containsHash(hash)) {
+                        addToBloomFilter(hash);
+                        addHash(hash);
+                    }
+                }
+            }
+        }
+        bloomFilterBuffer.force();
+        hashIndexBuffer.force();
+    }
+
+    private boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < bloomFilterHashCount; i++) {
+            long bitIndex = Math.floorMod(h1 + i * h2, bloomFilterBitCount);
+            int byteIndex = BLOOM_FILTER_HEADER_SIZE + (int) (bitIndex >>> 3);
+            if ((bloomFilterBuffer.get(byteIndex) & (1 << (bitIndex & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addToBloomFilter(long hash) {
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < bloomFilterHashCount; i++) {
+            long bitIndex = Math.floorMod(h1 + i * h2, bloomFilterBitCount);
+            int byteIndex = BLOOM_FILTER_HEADER_SIZE + (int) (bitIndex >>> 3);
+            bloomFilterBuffer.put(byteIndex, (byte) (bloomFilterBuffer.get(byteIndex) | (1 << (bitIndex & 7))));
+        }
+    }
+
+    private boolean containsHash(long hash) {
+        long value = toSlotValue(hash);
+        int mask = hashIndexCapacity - 1;
+        int slot = (int) (mix(value) & mask);
+        while (true) {
+            long slotValue = hashIndexBuffer.getLong(getSlotOffset(slot));
+            if (slotValue == 0) {
+                return false;
+            }
+            if (slotValue == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void addHash(long hash) throws IOException {
+        // Keep the load factor below 0.5
+        if ((count + 1) * 2 > hashIndexCapacity) {
+            growHashIndex();
+        }
+        insertSlotValue(hashIndexBuffer, hashIndexCapacity, toSlotValue(hash));
+        count++;
+        hashIndexBuffer.putLong(8, count);
+    }
+
+    private void growHashIndex() throws IOException {
+        if (hashIndexCapacity >= MAX_HASH_INDEX_CAPACITY) {
+            throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_FULL);
+        }
+        int newCapacity = hashIndexCapacity * 2;
+        File hashIndex = new File(directory, HASH_INDEX_FILE_NAME);
+        File temporaryHashIndex = new File(directory, HASH_INDEX_FILE_NAME + ".tmp");
+        RandomAccessFile newHashIndexFile = new RandomAccessFile(temporaryHashIndex, "rw");
+        MappedByteBuffer newHashIndexBuffer;
+        try {
+            newHashIndexBuffer = mapHashIndex(newHashIndexFile, newCapacity);
+        } catch (IOException | RuntimeException exception) {
+            newHashIndexFile.close();
+            temporaryHashIndex.delete();
+            throw exception;
+        }
+        for (int slot = 0; slot < hashIndexCapacity; slot++) {
+            long slotValue = hashIndexBuffer.getLong(getSlotOffset(slot));
+            if (slotValue != 0) {
+                insertSlotValue(newHashIndexBuffer, newCapacity, slotValue);
+            }
+        }
+        writeHashIndexHeader(newHashIndexBuffer, newCapacity, count);
+        newHashIndexBuffer.force();
+        hashIndexFile.close();
+        if (!temporaryHashIndex.renameTo(hashIndex)) {
+            newHashIndexFile.close();
+            throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CORRUPTED);
+        }
+        hashIndexFile = newHashIndexFile;
+        hashIndexBuffer = newHashIndexBuffer;
+        hashIndexCapacity = newCapacity;
+    }
+
+    @NonNull
+    private static MappedByteBuffer mapHashIndex(@NonNull RandomAccessFile file, int capacity) throws IOException {
+        return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HASH_INDEX_HEADER_SIZE + (long) capacity * 8);
+    }
+
+    private static int getSlotOffset(int slot) {
+        return Math.toIntExact(HASH_INDEX_HEADER_SIZE + (long) slot * 8);
+    }
+
+    private static boolean isValidHashIndexCapacity(int capacity) {
+        return capacity >= MIN_HASH_INDEX_CAPACITY && capacity <= MAX_HASH_INDEX_CAPACITY && Integer.bitCount(capacity) == 1;
+    }
+
+    private static void writeHashIndexHeader(@NonNull MappedByteBuffer buffer, int capacity, long count) {
+        buffer.putInt(0, capacity);
+        buffer.putInt(4, 0);
+        buffer.putLong(8, count);
+    }
+
+    private static void insertSlotValue(@NonNull MappedByteBuffer buffer, int capacity, long value) {
+        int mask = capacity - 1;
+        int slot = (int) (mix(value) & mask);
+        while (true) {
+            long slotValue = buffer.getLong(getSlotOffset(slot));
+            if (slotValue == 0 || slotValue == value) {
+                buffer.putLong(getSlotOffset(slot), value);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * `0` marks an empty slot.
+     */
+    private static long toSlotValue(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int nextPowerOfTwo(long value) {
+        long result = Long.highestOneBit(Math.max(1, value - 1)) << 1;
+        return (int) Math.min(result, MAX_HASH_INDEX_CAPACITY);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-16 code units, finalized with the MurmurHash3 mixer.
+     */
+    private static long hash(@Nullable String value) {
+        long hash = 0xCBF29CE484222325L;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001B3L;
+            }
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Encodes the value as a JSON string.
+     */
+    @NonNull
+    private static String quote(@NonNull String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2);
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                    break;
+            }
+        }
+        builder.append('"');
+        return builder.toString();
+    }
+
+    /**
+     * Decodes a JSON string that was written by `quote(...)`.
+     */
+    @NonNull
+    private static String unquote(@NonNull String value) throws IOException {
+        if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CORRUPTED);
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 1; i < value.length() - 1; i++) {
+            char c = value.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (++i >= value.length() - 1) {
+                throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CORRUPTED);
+            }
+            char escaped = value.charAt(i);
+            switch (escaped) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 >= value.length() - 1) {
+                        throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CORRUPTED);
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException exception) {
+                        throw new IOException(BarcodeScannerPlugin.ERROR_SESSION_CORRUPTED);
+                    }
+                    i += 4;
+                    break;
+                default:
+                    builder.append(escaped);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
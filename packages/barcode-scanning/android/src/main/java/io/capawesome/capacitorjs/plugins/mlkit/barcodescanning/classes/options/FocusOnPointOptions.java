@@ -0,0 +1,20 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+public class FocusOnPointOptions {
+
+    private float x;
+    private float y;
+
+    public FocusOnPointOptions(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+}
@@ -0,0 +1,22 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class ExportSessionResult implements Result {
+
+    private String path;
+    private long count;
+
+    public ExportSessionResult(String path, long count) {
+        this.path = path;
+        this.count = count;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("path", path);
+        result.put("count", count);
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.ScanMetrics;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class GetScanMetricsResult implements Result {
+
+    private final long framesAnalyzed;
+    private final long framesDropped;
+    private final long barcodesDetected;
+    private final long barcodesFiltered;
+    private final long barcodesAccepted;
+
+    public GetScanMetricsResult(ScanMetrics scanMetrics) {
+        this.framesAnalyzed = scanMetrics.framesAnalyzed;
+        this.framesDropped = scanMetrics.framesDropped;
+        this.barcodesDetected = scanMetrics.barcodesDetected;
+        this.barcodesFiltered = scanMetrics.barcodesFiltered;
+        this.barcodesAccepted = scanMetrics.barcodesAccepted;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("framesAnalyzed", framesAnalyzed);
+        result.put("framesDropped", framesDropped);
+        result.put("barcodesDetected", barcodesDetected);
+        result.put("barcodesFiltered", barcodesFiltered);
+        result.put("barcodesAccepted", barcodesAccepted);
+        return result;
+    }
+}
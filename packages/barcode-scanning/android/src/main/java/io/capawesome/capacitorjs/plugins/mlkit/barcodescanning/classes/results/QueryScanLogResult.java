@@ -0,0 +1,47 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.ScanLogSink;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+import java.util.List;
+import org.json.JSONException;
+
+public class QueryScanLogResult implements Result {
+
+    private List<ScanLogSink.Entry> entries;
+
+    public QueryScanLogResult(List<ScanLogSink.Entry> entries) {
+        this.entries = entries;
+    }
+
+    public JSObject toJSObject() {
+        JSArray entriesResult = new JSArray();
+        for (ScanLogSink.Entry entry : entries) {
+            entriesResult.put(createEntryResult(entry));
+        }
+
+        JSObject result = new JSObject();
+        result.put("entries", entriesResult);
+        return result;
+    }
+
+    private JSObject createEntryResult(ScanLogSink.Entry entry) {
+        JSObject result = new JSObject();
+        if (entry.cornerPoints != null) {
+            try {
+                result.put("cornerPoints", new JSArray(entry.cornerPoints));
+            } catch (JSONException exception) {
+                // Skip malformed corner points
+            }
+        }
+        if (entry.format != null) {
+            result.put("format", entry.format);
+        }
+        if (entry.rawValue != null) {
+            result.put("rawValue", entry.rawValue);
+        }
+        result.put("timestamp", entry.timestamp);
+        return result;
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Parses the PDF417 payload of driver's licenses and identification cards
+ * as specified by the AAMVA DL/ID Card Design Standard.
+ */
+public class AamvaParser implements PayloadParser {
+
+    private static final String HEADER_FILE_TYPE = "ANSI ";
+
+    private static final String LEGACY_HEADER_FILE_TYPE = "AAMVA";
+
+    private static final int MAX_HEADER_OFFSET = 8;
+
+    private static final HashMap<String, Element> ELEMENTS = new HashMap<>();
+
+    static {
+        register("DAA", "Full name", FieldType.STRING);
+        register("DAB", "Family name", FieldType.STRING);
+        register("DAC", "First name", FieldType.STRING);
+        register("DAD", "Middle name", FieldType.STRING);
+        register("DAG", "Street address 1", FieldType.STRING);
+        register("DAH", "Street address 2", FieldType.STRING);
+        register("DAI", "City", FieldType.STRING);
+        register("DAJ", "Jurisdiction code", FieldType.STRING);
+        register("DAK", "Postal code", FieldType.STRING);
+        register("DAQ", "Customer ID number", FieldType.STRING);
+        register("DAU", "Height", FieldType.STRING);
+        register("DAW", "Weight (pounds)", FieldType.INTEGER);
+        register("DAX", "Weight (kilograms)", FieldType.INTEGER);
+        register("DAY", "Eye color", FieldType.STRING);
+        register("DAZ", "Hair color", FieldType.STRING);
+        register("DBA", "Expiration date", FieldType.DATE);
+        register("DBB", "Date of birth", FieldType.DATE);
+        register("DBC", "Sex", FieldType.STRING);
+        register("DBD", "Issue date", FieldType.DATE);
+        register("DBG", "Alias given name", FieldType.STRING);
+        register("DBN", "Alias family name", FieldType.STRING);
+        register("DBS", "Alias suffix name", FieldType.STRING);
+        register("DCA", "Vehicle class", FieldType.STRING);
+        register("DCB", "Restriction codes", FieldType.STRING);
+        register("DCD", "Endorsement codes", FieldType.STRING);
+        register("DCE", "Weight range", FieldType.STRING);
+        register("DCF", "Document discriminator", FieldType.STRING);
+        register("DCG", "Country identification", FieldType.STRING);
+        register("DCI", "Place of birth", FieldType.STRING);
+        register("DCJ", "Audit information", FieldType.STRING);
+        register("DCK", "Inventory control number", FieldType.STRING);
+        register("DCL", "Race / ethnicity", FieldType.STRING);
+        register("DCM", "Standard vehicle classification", FieldType.STRING);
+        register("DCN", "Standard endorsement code", FieldType.STRING);
+        register("DCO", "Standard restriction code", FieldType.STRING);
+        register("DCP", "Vehicle classification description", FieldType.STRING);
+        register("DCQ", "Endorsement code description", FieldType.STRING);
+        register("DCR", "Restriction code description", FieldType.STRING);
+        register("DCS", "Family name", FieldType.STRING);
+        register("DCT", "Given names", FieldType.STRING);
+        register("DCU", "Name suffix", FieldType.STRING);
+        register("DDA", "Compliance type", FieldType.STRING);
+        register("DDB", "Card revision date", FieldType.DATE);
+        register("DDC", "HAZMAT endorsement expiration date", FieldType.DATE);
+        register("DDD", "Limited duration document indicator", FieldType.STRING);
+        register("DDE", "Family name truncation", FieldType.STRING);
+        register("DDF", "First name truncation", FieldType.STRING);
+        register("DDG", "Middle name truncation", FieldType.STRING);
+        register("DDH", "Under 18 until", FieldType.DATE);
+        register("DDI", "Under 19 until", FieldType.DATE);
+        register("DDJ", "Under 21 until", FieldType.DATE);
+        register("DDK", "Organ donor indicator", FieldType.STRING);
+        register("DDL", "Veteran indicator", FieldType.STRING);
+    }
+
+    private static void register(String id, String label, FieldType type) {
+        ELEMENTS.put(id, new Element(label, type));
+    }
+
+    @Override
+    @Nullable
+    public ParseResult parse(@NonNull String value) {
+        if (value.isEmpty() || value.charAt(0) != '@') {
+            return null;
+        }
+        int headerStart = findHeaderStart(value);
+        if (headerStart < 0) {
+            return null;
+        }
+        // Header: file type (5), IIN (6), AAMVA version (2), jurisdiction version (2, since version 2), number of entries (2)
+        int position = headerStart + HEADER_FILE_TYPE.length();
+        String iin = substring(value, position, 6);
+        int version = parseNumber(value, position + 6, 2);
+        if (iin == null || version < 0) {
+            return null;
+        }
+        position += 8;
+        int jurisdictionVersion = -1;
+        if (version >= 2) {
+            jurisdictionVersion = parseNumber(value, position, 2);
+            position += 2;
+        }
+        int numberOfEntries = parseNumber(value, position, 2);
+        if (numberOfEntries <= 0) {
+            return null;
+        }
+        position += 2;
+        // Subfile designators: subfile type (2), offset (4), length (4)
+        List<String> subfileTypes = new ArrayList<>(numberOfEntries);
+        for (int i = 0; i < numberOfEntries; i++) {
+            String subfileType = substring(value, position, 2);
+            if (subfileType == null || parseNumber(value, position + 2, 8) < 0) {
+                return null;
+            }
+            subfileTypes.add(subfileType);
+            position += 10;
+        }
+
+        List<ParsedField> fields = new ArrayList<>();
+        fields.add(new ParsedField("IIN", "Issuer identification number", FieldType.STRING, iin, iin));
+        fields.add(new ParsedField("AAMVA_VERSION", "AAMVA version number", FieldType.INTEGER, (long) version, String.valueOf(version)));
+        if (jurisdictionVersion >= 0) {
+            fields.add(
+                new ParsedField(
+                    "JURISDICTION_VERSION",
+                    "Jurisdiction version number",
+                    FieldType.INTEGER,
+                    (long) jurisdictionVersion,
+                    String.valueOf(jurisdictionVersion)
+                )
+            );
+        }
+        // The subfile offsets are not reliable in practice, so the subfiles are searched in order
+        List<String[]> elements = new ArrayList<>();
+        for (String subfileType : subfileTypes) {
+            int subfileStart = value.indexOf(subfileType, position);
+            if (subfileStart < 0) {
+                break;
+            }
+            position = readSubfile(value, subfileStart + subfileType.length(), elements);
+        }
+        if (elements.isEmpty()) {
+            return null;
+        }
+        boolean isCanadian = false;
+        for (String[] element : elements) {
+            if (element[0].equals("DCG") && element[1].equals("CAN")) {
+                isCanadian = true;
+            }
+        }
+        boolean isValid = true;
+        for (String[] element : elements) {
+            ParsedField field = createField(element[0], element[1], version, isCanadian);
+            Element definition = ELEMENTS.get(element[0]);
+            if (definition != null && definition.type != field.getType()) {
+                isValid = false;
+            }
+            fields.add(field);
+        }
+        return new ParseResult(PayloadFormat.AAMVA, fields, isValid);
+    }
+
+    /**
+     * Reads the elements of a subfile, which are separated by line feeds and terminated by a carriage return.
+     *
+     * Returns the position after the subfile.
+     */
+    private static int readSubfile(@NonNull String value, int position, @NonNull List<String[]> elements) {
+        int length = value.length();
+        while (position < length) {
+            int end = position;
+            while (end < length && value.charAt(end) != '\n' && value.charAt(end) != '\r') {
+                end++;
+            }
+            if (end - position >= 3 && isElementId(value, position)) {
+                String data = value.substring(position + 3, end).trim();
+                if (!data.isEmpty()) {
+                    elements.add(new String[] { value.substring(position, position + 3), data });
+                }
+            }
+            if (end >= length || value.charAt(end) == '\r') {
+                return end + 1;
+            }
+            position = end + 1;
+        }
+        return position;
+    }
+
+    @NonNull
+    private static ParsedField createField(@NonNull String id, @NonNull String data, int version, boolean isCanadian) {
+        Element definition = ELEMENTS.get(id);
+        if (definition == null) {
+            // Jurisdiction specific or unknown element
+            return new ParsedField(id, id, FieldType.STRING, data, data);
+        }
+        Object value = null;
+        switch (definition.type) {
+            case INTEGER:
+                int number = parseNumber(data, 0, data.length());
+                value = number < 0 ? null : (long) number;
+                break;
+            case DATE:
+                value = convertDate(data, version, isCanadian);
+                break;
+            default:
+                value = data;
+                break;
+        }
+        if (value == null) {
+            return new ParsedField(id, definition.label, FieldType.STRING, data, data);
+        }
+        return new ParsedField(id, definition.label, definition.type, value, data);
+    }
+
+    /**
+     * Converts a date in the format `MMDDCCYY` (USA) or `CCYYMMDD` (Canada and version 1).
+     */
+    @Nullable
+    private static String convertDate(@NonNull String data, int version, boolean isCanadian) {
+        if (data.length() != 8) {
+            return null;
+        }
+        if (isCanadian || version == 1) {
+            String date = DateValues.toIsoDate(parseNumber(data, 0, 4), parseNumber(data, 4, 2), parseNumber(data, 6, 2));
+            if (date != null || isCanadian) {
+                return date;
+            }
+        }
+        return DateValues.toIsoDate(parseNumber(data, 4, 4), parseNumber(data, 0, 2), parseNumber(data, 2, 2));
+    }
+
+    private static int findHeaderStart(@NonNull String value) {
+        int limit = Math.min(value.length(), MAX_HEADER_OFFSET + HEADER_FILE_TYPE.length());
+        for (int i = 1; i + HEADER_FILE_TYPE.length() <= limit; i++) {
+            if (value.startsWith(HEADER_FILE_TYPE, i) || value.startsWith(LEGACY_HEADER_FILE_TYPE, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isElementId(@NonNull String value, int position) {
+        char first = value.charAt(position);
+        return (
+            (first == 'D' || first == 'Z') &&
+            Character.isUpperCase(value.charAt(position + 1)) &&
+            Character.isUpperCase(value.charAt(position + 2))
+        );
+    }
+
+    @Nullable
+    private static String substring(@NonNull String value, int start, int length) {
+        if (start + length > value.length()) {
+            return null;
+        }
+        return value.substring(start, start + length);
+    }
+
+    /**
+     * Returns `-1` if the range is out of bounds or contains a non-digit.
+     */
+    private static int parseNumber(@NonNull String value, int start, int length) {
+        if (length <= 0 || length > 9 || start + length > value.length()) {
+            return -1;
+        }
+        return DateValues.parseDigits(value, start, start + length);
+    }
+
+    private static class Element {
+
+        @NonNull
+        private final String label;
+
+        @NonNull
+        private final FieldType type;
+
+        private Element(@NonNull String label, @NonNull FieldType type) {
+            this.label = label;
+            this.type = type;
+        }
+    }
+}
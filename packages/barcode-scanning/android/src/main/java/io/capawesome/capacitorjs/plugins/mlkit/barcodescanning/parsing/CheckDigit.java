@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public class CheckDigit {
+
+    /**
+     * Validates the GS1 mod 10 check digit of a numeric string (GTIN, SSCC, GLN, ...).
+     *
+     * The last digit is the check digit.
+     */
+    public static boolean isValidGs1CheckDigit(@NonNull CharSequence value) {
+        int length = value.length();
+        if (length < 2) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = length - 2, weight = 3; i >= 0; i--, weight = 4 - weight) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            sum += (c - '0') * weight;
+        }
+        char checkDigit = value.charAt(length - 1);
+        if (checkDigit < '0' || checkDigit > '9') {
+            return false;
+        }
+        return (10 - (sum % 10)) % 10 == checkDigit - '0';
+    }
+
+    /**
+     * Expands an 8 digit UPC-E value (number system, 6 digits, check digit) to the 12 digit UPC-A value.
+     *
+     * Returns `null` if the value cannot be expanded.
+     */
+    @Nullable
+    public static String expandUpcE(@NonNull String value) {
+        if (value.length() != 8 || !isNumeric(value)) {
+            return null;
+        }
+        char numberSystem = value.charAt(0);
+        if (numberSystem != '0' && numberSystem != '1') {
+            return null;
+        }
+        String digits = value.substring(1, 7);
+        char checkDigit = value.charAt(7);
+        char last = digits.charAt(5);
+        String manufacturer;
+        String product;
+        switch (last) {
+            case '0':
+            case '1':
+            case '2':
+                manufacturer = digits.substring(0, 2) + last + "00";
+                product = "00" + digits.substring(2, 5);
+                break;
+            case '3':
+                manufacturer = digits.substring(0, 3) + "00";
+                product = "000" + digits.substring(3, 5);
+                break;
+            case '4':
+                manufacturer = digits.substring(0, 4) + "0";
+                product = "0000" + digits.charAt(4);
+                break;
+            default:
+                manufacturer = digits.substring(0, 5);
+                product = "0000" + last;
+                break;
+        }
+        return numberSystem + manufacturer + product + checkDigit;
+    }
+
+    public static boolean isNumeric(@NonNull CharSequence value) {
+        if (value.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+/**
+ * The type of the value of a {@link ParsedField}.
+ */
+public enum FieldType {
+    /**
+     * The value is a `String`.
+     */
+    STRING,
+    /**
+     * The value is a `Long`.
+     */
+    INTEGER,
+    /**
+     * The value is a `java.math.BigDecimal`.
+     */
+    DECIMAL,
+    /**
+     * The value is a `String` in the ISO 8601 format `YYYY-MM-DD`.
+     */
+    DATE
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.HashMap;
+
+/**
+ * A GS1 Application Identifier (AI) and the structure of its data field.
+ *
+ * @see <a href="https://ref.gs1.org/ai/">GS1 Application Identifiers</a>
+ */
+public class Gs1ApplicationIdentifier {
+
+    private static final HashMap<String, Gs1ApplicationIdentifier> TABLE = new HashMap<>();
+
+    static {
+        // AI, title, fixed length (0 = variable), max length, numeric, check digit, type (default: string)
+        register("00", "SSCC", 18, 18, true, true);
+        register("01", "GTIN", 14, 14, true, true);
+        register("02", "CONTENT", 14, 14, true, true);
+        register("10", "BATCH/LOT", 0, 20, false, false);
+        register("11", "PROD DATE", 6, 6, true, false, FieldType.DATE);
+        register("12", "DUE DATE", 6, 6, true, false, FieldType.DATE);
+        register("13", "PACK DATE", 6, 6, true, false, FieldType.DATE);
+        register("15", "BEST BEFORE or BEST BY", 6, 6, true, false, FieldType.DATE);
+        register("16", "SELL BY", 6, 6, true, false, FieldType.DATE);
+        register("17", "USE BY or EXPIRY", 6, 6, true, false, FieldType.DATE);
+        register("20", "VARIANT", 2, 2, true, false);
+        register("21", "SERIAL", 0, 20, false, false);
+        register("22", "CPV", 0, 20, false, false);
+        register("235", "TPX", 0, 28, false, false);
+        register("240", "ADDITIONAL ID", 0, 30, false, false);
+        register("241", "CUST. PART No.", 0, 30, false, false);
+        register("242", "MTO VARIANT", 0, 6, true, false);
+        register("243", "PCN", 0, 20, false, false);
+        register("250", "SECONDARY SERIAL", 0, 30, false, false);
+        register("251", "REF. TO SOURCE", 0, 30, false, false);
+        register("253", "GDTI", 0, 30, false, false);
+        register("254", "GLN EXTENSION COMPONENT", 0, 20, false, false);
+        register("255", "GCN", 0, 25, true, false);
+        register("30", "VAR. COUNT", 0, 8, true, false, FieldType.INTEGER);
+        register("37", "COUNT", 0, 8, true, false, FieldType.INTEGER);
+        register("400", "ORDER NUMBER", 0, 30, false, false);
+        register("401", "GINC", 0, 30, false, false);
+        register("402", "GSIN", 17, 17, true, true);
+        register("403", "ROUTE", 0, 30, false, false);
+        register("410", "SHIP TO LOC", 13, 13, true, true);
+        register("411", "BILL TO", 13, 13, true, true);
+        register("412", "PURCHASE FROM", 13, 13, true, true);
+        register("413", "SHIP FOR LOC", 13, 13, true, true);
+        register("414", "LOC No.", 13, 13, true, true);
+        register("415", "PAY TO", 13, 13, true, true);
+        register("416", "PROD/SERV LOC", 13, 13, true, true);
+        register("417", "PARTY", 13, 13, true, true);
+        register("420", "SHIP TO POST", 0, 20, false, false);
+        register("421", "SHIP TO POST", 0, 12, false, false);
+        register("422", "ORIGIN", 3, 3, true, false);
+        register("423", "COUNTRY - INITIAL PROCESS.", 0, 15, true, false);
+        register("424", "COUNTRY - PROCESS.", 3, 3, true, false);
+        register("425", "COUNTRY - DISASSEMBLY", 0, 15, true, false);
+        register("426", "COUNTRY - FULL PROCESS", 3, 3, true, false);
+        register("427", "ORIGIN SUBDIVISION", 0, 3, false, false);
+        register("7001", "NSN", 13, 13, true, false);
+        register("7002", "MEAT CUT", 0, 30, false, false);
+        register("7003", "EXPIRY TIME", 10, 10, true, false);
+        register("7004", "ACTIVE POTENCY", 0, 4, true, false);
+        register("7006", "FIRST FREEZE DATE", 6, 6, true, false, FieldType.DATE);
+        register("7007", "HARVEST DATE", 0, 12, true, false);
+        register("8003", "GRAI", 0, 30, false, false);
+        register("8004", "GIAI", 0, 30, false, false);
+        register("8005", "PRICE PER UNIT", 6, 6, true, false);
+        register("8006", "ITIP", 18, 18, true, false);
+        register("8007", "IBAN", 0, 34, false, false);
+        register("8008", "PROD TIME", 0, 12, true, false);
+        register("8010", "CPID", 0, 30, false, false);
+        register("8011", "CPID SERIAL", 0, 12, true, false);
+        register("8012", "VERSION", 0, 20, false, false);
+        register("8013", "GMN", 0, 25, false, false);
+        register("8017", "GSRN - PROVIDER", 18, 18, true, true);
+        register("8018", "GSRN - RECIPIENT", 18, 18, true, true);
+        register("8019", "SRIN", 0, 10, true, false);
+        register("8020", "REF No.", 0, 25, false, false);
+        register("8200", "PRODUCT URL", 0, 70, false, false);
+        register("90", "INTERNAL", 0, 30, false, false);
+        for (int i = 91; i <= 99; i++) {
+            register(String.valueOf(i), "INTERNAL", 0, 90, false, false);
+        }
+        // Measures with the decimal point position as last digit of the AI
+        String[] measurePrefixes = new String[] {
+            "310", "311", "312", "313", "314", "315", "316", "320", "321", "322", "323", "324", "325", "326", "327",
+            "328", "329", "330", "331", "332", "333", "334", "335", "336", "337", "340", "341", "342", "343", "344",
+            "345", "346", "347", "348", "349", "350", "351", "352", "353", "354", "355", "356", "357", "360", "361",
+            "362", "363", "364", "365", "366", "367", "368", "369"
+        };
+        for (String prefix : measurePrefixes) {
+            for (int n = 0; n <= 5; n++) {
+                register(prefix + n, "MEASURE", 6, 6, true, false, FieldType.DECIMAL);
+            }
+        }
+        for (int n = 0; n <= 9; n++) {
+            register("390" + n, "AMOUNT", 0, 15, true, false, FieldType.DECIMAL);
+            register("391" + n, "AMOUNT", 0, 18, true, false);
+            register("392" + n, "PRICE", 0, 15, true, false, FieldType.DECIMAL);
+            register("393" + n, "PRICE", 0, 18, true, false);
+        }
+        for (int n = 0; n <= 9; n++) {
+            register("394" + n, "PRCNT OFF", 4, 4, true, false, FieldType.DECIMAL);
+        }
+        for (int n = 0; n <= 9; n++) {
+            register("395" + n, "PRICE/UoM", 6, 6, true, false, FieldType.DECIMAL);
+        }
+    }
+
+    @NonNull
+    private final String ai;
+
+    @NonNull
+    private final String title;
+
+    private final int fixedLength;
+
+    private final int maxLength;
+
+    private final boolean isNumeric;
+
+    private final boolean hasCheckDigit;
+
+    @NonNull
+    private final FieldType type;
+
+    private Gs1ApplicationIdentifier(
+        @NonNull String ai,
+        @NonNull String title,
+        int fixedLength,
+        int maxLength,
+        boolean isNumeric,
+        boolean hasCheckDigit,
+        @NonNull FieldType type
+    ) {
+        this.ai = ai;
+        this.title = title;
+        this.fixedLength = fixedLength;
+        this.maxLength = maxLength;
+        this.isNumeric = isNumeric;
+        this.hasCheckDigit = hasCheckDigit;
+        this.type = type;
+    }
+
+    private static void register(String ai, String title, int fixedLength, int maxLength, boolean isNumeric, boolean hasCheckDigit) {
+        register(ai, title, fixedLength, maxLength, isNumeric, hasCheckDigit, FieldType.STRING);
+    }
+
+    private static void register(
+        String ai,
+        String title,
+        int fixedLength,
+        int maxLength,
+        boolean isNumeric,
+        boolean hasCheckDigit,
+        FieldType type
+    ) {
+        TABLE.put(ai, new Gs1ApplicationIdentifier(ai, title, fixedLength, maxLength, isNumeric, hasCheckDigit, type));
+    }
+
+    /**
+     * Finds the AI at the given position of an element string.
+     *
+     * AIs are prefix-free, so the first match from the shortest to the longest candidate wins.
+     */
+    @Nullable
+    public static Gs1ApplicationIdentifier find(@NonNull String value, int position) {
+        for (int length = 2; length <= 4 && position + length <= value.length(); length++) {
+            Gs1ApplicationIdentifier ai = TABLE.get(value.substring(position, position + length));
+            if (ai != null) {
+                return ai;
+            }
+        }
+        return null;
+    }
+
+    @NonNull
+    public String getAi() {
+        return ai;
+    }
+
+    @NonNull
+    public String getTitle() {
+        return title;
+    }
+
+    public boolean isFixedLength() {
+        return fixedLength > 0;
+    }
+
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public boolean isNumeric() {
+        return isNumeric;
+    }
+
+    public boolean hasCheckDigit() {
+        return hasCheckDigit;
+    }
+
+    @NonNull
+    public FieldType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of decimal places of a decimal field, which is indicated by the last digit of the AI.
+     */
+    public int getDecimalPlaces() {
+        if (type != FieldType.DECIMAL) {
+            return 0;
+        }
+        return ai.charAt(ai.length() - 1) - '0';
+    }
+}
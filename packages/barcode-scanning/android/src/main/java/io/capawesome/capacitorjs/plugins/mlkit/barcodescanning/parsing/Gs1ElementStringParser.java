@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses GS1 element strings as encoded in GS1-128, GS1 DataMatrix and GS1 QR Code symbols.
+ */
+public class Gs1ElementStringParser {
+
+    public static final char GROUP_SEPARATOR = '\u001D';
+
+    private static final String[] SYMBOLOGY_IDENTIFIERS = new String[] { "]C1", "]d2", "]Q3", "]e0" };
+
+    /**
+     * Returns `true` if the value is unambiguously a GS1 element string,
+     * i.e. it starts with a GS1 symbology identifier or contains a group separator.
+     */
+    public static boolean isGs1ElementString(@NonNull String value) {
+        return getSymbologyIdentifierLength(value) > 0 || value.indexOf(GROUP_SEPARATOR) >= 0;
+    }
+
+    /**
+     * Parses the element string into its elements.
+     *
+     * Returns `null` if the value is not a well-formed GS1 element string.
+     * Check digits are not verified, see {@link Element#hasValidCheckDigit()}.
+     */
+    @Nullable
+    public static List<Element> parse(@NonNull String value) {
+        int position = getSymbologyIdentifierLength(value);
+        // Some scanners transmit the leading FNC1 as group separator
+        while (position < value.length() && value.charAt(position) == GROUP_SEPARATOR) {
+            position++;
+        }
+        if (position >= value.length()) {
+            return null;
+        }
+        List<Element> elements = new ArrayList<>();
+        while (position < value.length()) {
+            Gs1ApplicationIdentifier ai = Gs1ApplicationIdentifier.find(value, position);
+            if (ai == null) {
+                return null;
+            }
+            int dataStart = position + ai.getAi().length();
+            int dataEnd;
+            if (ai.isFixedLength()) {
+                dataEnd = dataStart + ai.getFixedLength();
+                if (dataEnd > value.length()) {
+                    return null;
+                }
+            } else {
+                int separatorIndex = value.indexOf(GROUP_SEPARATOR, dataStart);
+                dataEnd = separatorIndex < 0 ? value.length() : separatorIndex;
+                if (dataEnd == dataStart || dataEnd - dataStart > ai.getMaxLength()) {
+                    return null;
+                }
+            }
+            String data = value.substring(dataStart, dataEnd);
+            if (data.indexOf(GROUP_SEPARATOR) >= 0 || (ai.isNumeric() && !CheckDigit.isNumeric(data))) {
+                return null;
+            }
+            elements.add(new Element(ai, data));
+            position = dataEnd;
+            // A group separator is also allowed after fixed length fields
+            if (position < value.length() && value.charAt(position) == GROUP_SEPARATOR) {
+                position++;
+            }
+        }
+        return elements;
+    }
+
+    private static int getSymbologyIdentifierLength(@NonNull String value) {
+        for (String identifier : SYMBOLOGY_IDENTIFIERS) {
+            if (value.startsWith(identifier)) {
+                return identifier.length();
+            }
+        }
+        return 0;
+    }
+
+    public static class Element {
+
+        @NonNull
+        private final Gs1ApplicationIdentifier ai;
+
+        @NonNull
+        private final String data;
+
+        public Element(@NonNull Gs1ApplicationIdentifier ai, @NonNull String data) {
+            this.ai = ai;
+            this.data = data;
+        }
+
+        @NonNull
+        public Gs1ApplicationIdentifier getAi() {
+            return ai;
+        }
+
+        @NonNull
+        public String getData() {
+            return data;
+        }
+
+        /**
+         * Returns `true` if the AI has no check digit or the check digit is valid.
+         */
+        public boolean hasValidCheckDigit() {
+            return !ai.hasCheckDigit() || CheckDigit.isValidGs1CheckDigit(data);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Parses GS1 element strings into typed fields.
+ *
+ * Besides element strings with group separators or symbology identifiers,
+ * the human readable form with AIs in parentheses and unmarked strings starting with an SSCC or a GTIN are supported.
+ */
+public class Gs1Parser implements PayloadParser {
+
+    private final int currentYear;
+
+    public Gs1Parser() {
+        this(Calendar.getInstance().get(Calendar.YEAR));
+    }
+
+    /**
+     * @param currentYear The year used to determine the century of dates.
+     */
+    Gs1Parser(int currentYear) {
+        this.currentYear = currentYear;
+    }
+
+    @Override
+    @Nullable
+    public ParseResult parse(@NonNull String value) {
+        boolean isHumanReadable = value.startsWith("(");
+        String elementString = isHumanReadable ? convertHumanReadableToElementString(value) : value;
+        if (elementString == null) {
+            return null;
+        }
+        List<Gs1ElementStringParser.Element> elements = Gs1ElementStringParser.parse(elementString);
+        if (elements == null) {
+            return null;
+        }
+        boolean isValid = true;
+        List<ParsedField> fields = new ArrayList<>(elements.size());
+        for (Gs1ElementStringParser.Element element : elements) {
+            ParsedField field = createField(element);
+            if (!element.hasValidCheckDigit() || field.getType() != element.getAi().getType()) {
+                isValid = false;
+            }
+            fields.add(field);
+        }
+        boolean isMarked = isHumanReadable || Gs1ElementStringParser.isGs1ElementString(elementString);
+        if (!isMarked && !(isValid && startsWithIdentificationKey(elements))) {
+            // Without a GS1 marker, any numeric value could be misinterpreted as element string
+            return null;
+        }
+        return new ParseResult(PayloadFormat.GS1, fields, isValid);
+    }
+
+    /**
+     * Falls back to a string field if the data cannot be converted to the type of the AI.
+     */
+    @NonNull
+    private ParsedField createField(@NonNull Gs1ElementStringParser.Element element) {
+        Gs1ApplicationIdentifier ai = element.getAi();
+        String data = element.getData();
+        Object value = null;
+        switch (ai.getType()) {
+            case INTEGER:
+                value = Long.parseLong(data);
+                break;
+            case DECIMAL:
+                value = new BigDecimal(new BigInteger(data), ai.getDecimalPlaces());
+                break;
+            case DATE:
+                value = convertDate(data);
+                break;
+            default:
+                break;
+        }
+        if (value == null) {
+            return new ParsedField(ai.getAi(), ai.getTitle(), FieldType.STRING, data, data);
+        }
+        return new ParsedField(ai.getAi(), ai.getTitle(), ai.getType(), value, data);
+    }
+
+    /**
+     * Converts a date in the format `YYMMDD`, where a day of `00` means the last day of the month.
+     */
+    @Nullable
+    private String convertDate(@NonNull String data) {
+        int twoDigitYear = DateValues.parseDigits(data, 0, 2);
+        int month = DateValues.parseDigits(data, 2, 4);
+        int day = DateValues.parseDigits(data, 4, 6);
+        if (twoDigitYear < 0 || month < 1 || month > 12 || day < 0) {
+            return null;
+        }
+        // Determine the century as specified in section 7.12 of the GS1 General Specifications
+        int century = currentYear / 100;
+        int difference = twoDigitYear - currentYear % 100;
+        if (difference >= 51) {
+            century--;
+        } else if (difference <= -50) {
+            century++;
+        }
+        int year = century * 100 + twoDigitYear;
+        if (day == 0) {
+            day = DateValues.getDaysInMonth(year, month);
+        }
+        return DateValues.toIsoDate(year, month, day);
+    }
+
+    private static boolean startsWithIdentificationKey(@NonNull List<Gs1ElementStringParser.Element> elements) {
+        String ai = elements.get(0).getAi().getAi();
+        return ai.equals("00") || ai.equals("01") || ai.equals("02");
+    }
+
+    /**
+     * Converts `(01)09501101530003(10)ABC` to an element string with group separators.
+     */
+    @Nullable
+    private static String convertHumanReadableToElementString(@NonNull String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        int position = 0;
+        while (position < value.length()) {
+            if (value.charAt(position) != '(') {
+                return null;
+            }
+            int aiEnd = value.indexOf(')', position);
+            if (aiEnd < 0) {
+                return null;
+            }
+            int dataEnd = value.indexOf('(', aiEnd);
+            if (dataEnd < 0) {
+                dataEnd = value.length();
+            }
+            if (builder.length() > 0) {
+                builder.append(Gs1ElementStringParser.GROUP_SEPARATOR);
+            }
+            builder.append(value, position + 1, aiEnd).append(value, aiEnd + 1, dataEnd);
+            position = dataEnd;
+        }
+        return builder.toString();
+    }
+}
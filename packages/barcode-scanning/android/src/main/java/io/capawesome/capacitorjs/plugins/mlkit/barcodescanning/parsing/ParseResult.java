@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.List;
+
+public class ParseResult {
+
+    @NonNull
+    private final PayloadFormat format;
+
+    @NonNull
+    private final List<ParsedField> fields;
+
+    private final boolean isValid;
+
+    public ParseResult(@NonNull PayloadFormat format, @NonNull List<ParsedField> fields, boolean isValid) {
+        this.format = format;
+        this.fields = fields;
+        this.isValid = isValid;
+    }
+
+    @NonNull
+    public PayloadFormat getFormat() {
+        return format;
+    }
+
+    @NonNull
+    public List<ParsedField> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the first field with the given ID.
+     */
+    @Nullable
+    public ParsedField getField(@NonNull String id) {
+        for (ParsedField field : fields) {
+            if (field.getId().equals(id)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns `false` if a check digit or a value of a field is invalid.
+     */
+    public boolean isValid() {
+        return isValid;
+    }
+}
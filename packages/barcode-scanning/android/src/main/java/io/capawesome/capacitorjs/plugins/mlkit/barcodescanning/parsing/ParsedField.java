@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+
+public class ParsedField {
+
+    @NonNull
+    private final String id;
+
+    @NonNull
+    private final String label;
+
+    @NonNull
+    private final FieldType type;
+
+    @NonNull
+    private final Object value;
+
+    @NonNull
+    private final String rawValue;
+
+    public ParsedField(@NonNull String id, @NonNull String label, @NonNull FieldType type, @NonNull Object value, @NonNull String rawValue) {
+        this.id = id;
+        this.label = label;
+        this.type = type;
+        this.value = value;
+        this.rawValue = rawValue;
+    }
+
+    /**
+     * The identifier of the field, e.g. the GS1 Application Identifier or the AAMVA element ID.
+     */
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getLabel() {
+        return label;
+    }
+
+    @NonNull
+    public FieldType getType() {
+        return type;
+    }
+
+    /**
+     * The typed value, see {@link FieldType}.
+     */
+    @NonNull
+    public Object getValue() {
+        return value;
+    }
+
+    @NonNull
+    public String getRawValue() {
+        return rawValue;
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public enum PayloadFormat {
+    GS1,
+    AAMVA;
+
+    /**
+     * Returns the parser of the format.
+     *
+     * Parsers are created on demand, so that their tables are only loaded if they are used.
+     */
+    @NonNull
+    public PayloadParser createParser() {
+        switch (this) {
+            case GS1:
+                return new Gs1Parser();
+            case AAMVA:
+            default:
+                return new AamvaParser();
+        }
+    }
+
+    @Nullable
+    public static PayloadFormat fromString(@NonNull String value) {
+        for (PayloadFormat format : values()) {
+            if (format.name().equals(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Copyright (c) 2023 Robin Genz
+ */
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public interface PayloadParser {
+    /**
+     * Returns `null` if the value does not have the structure of the payload format.
+     */
+    @Nullable
+    ParseResult parse(@NonNull String value);
+}
@@ -0,0 +1,169 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BarcodeBatcherTest {
+
+    private FakeScheduler scheduler;
+    private List<Batch> batches;
+    private BarcodeBatcher<String> batcher;
+
+    @Before
+    public void setUp() {
+        scheduler = new FakeScheduler();
+        batches = new ArrayList<>();
+        batcher = new BarcodeBatcher<>(scheduler, (batchId, items, droppedCount) -> batches.add(new Batch(batchId, items, droppedCount)), 100, 3);
+    }
+
+    @Test
+    public void add_deliversAfterTheInterval() {
+        add("a");
+        scheduler.advance(99);
+        assertEquals(0, batches.size());
+        scheduler.advance(1);
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList("a"), batches.get(0).items);
+        assertEquals(0, batches.get(0).droppedCount);
+    }
+
+    @Test
+    public void add_deliversAFullBatchImmediately() {
+        add("a", "b", "c", "d");
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList("a", "b", "c"), batches.get(0).items);
+    }
+
+    @Test
+    public void add_replacesPendingItemsWithTheSameKey() {
+        add("a", "b");
+        add("a");
+        scheduler.advance(100);
+        assertEquals(Arrays.asList("b", "a"), batches.get(0).items);
+    }
+
+    @Test
+    public void acknowledge_deliversTheNextBatchOnlyAfterAcknowledgement() {
+        add("a");
+        scheduler.advance(100);
+        add("b");
+        scheduler.advance(100);
+        assertEquals(1, batches.size());
+        assertTrue(batcher.acknowledge(batches.get(0).batchId));
+        assertEquals(2, batches.size());
+        assertEquals(Arrays.asList("b"), batches.get(1).items);
+    }
+
+    @Test
+    public void acknowledge_returnsFalseForAnUnknownBatchId() {
+        add("a");
+        scheduler.advance(100);
+        assertFalse(batcher.acknowledge(batches.get(0).batchId + 1));
+        assertTrue(batcher.acknowledge(batches.get(0).batchId));
+        assertFalse(batcher.acknowledge(batches.get(0).batchId));
+    }
+
+    @Test
+    public void acknowledgeTimeout_deliversTheNextBatchWithoutDroppedBarcodes() {
+        add("a", "b", "c");
+        add("d");
+        scheduler.advance(BarcodeBatcher.ACKNOWLEDGE_TIMEOUT - 1);
+        assertEquals(1, batches.size());
+        scheduler.advance(1);
+        assertEquals(2, batches.size());
+        assertEquals(Arrays.asList("d"), batches.get(1).items);
+        assertEquals(0, batches.get(1).droppedCount);
+        assertFalse(batcher.acknowledge(batches.get(0).batchId));
+        assertTrue(batcher.acknowledge(batches.get(1).batchId));
+    }
+
+    @Test
+    public void add_dropsTheOldestItemsWhenTooManyArePending() {
+        add("a", "b", "c");
+        int maxPendingItems = 3 * BarcodeBatcher.MAX_PENDING_BATCHES;
+        for (int i = 0; i < maxPendingItems + 2; i++) {
+            add("item-" + i);
+        }
+        assertEquals(1, batches.size());
+        batcher.acknowledge(batches.get(0).batchId);
+        assertEquals(2, batches.size());
+        assertEquals(Arrays.asList("item-2", "item-3", "item-4"), batches.get(1).items);
+        assertEquals(2, batches.get(1).droppedCount);
+        batcher.acknowledge(batches.get(1).batchId);
+        assertEquals(0, batches.get(2).droppedCount);
+    }
+
+    @Test
+    public void clear_discardsPendingItems() {
+        add("a");
+        batcher.clear();
+        scheduler.advance(BarcodeBatcher.ACKNOWLEDGE_TIMEOUT);
+        assertEquals(0, batches.size());
+    }
+
+    private void add(String... items) {
+        List<String> list = Arrays.asList(items);
+        batcher.add(list, list);
+    }
+
+    private static class Batch {
+
+        final int batchId;
+        final List<String> items;
+        final int droppedCount;
+
+        Batch(int batchId, List<String> items, int droppedCount) {
+            this.batchId = batchId;
+            this.items = items;
+            this.droppedCount = droppedCount;
+        }
+    }
+
+    private static class FakeScheduler implements BarcodeBatcher.Scheduler {
+
+        private final List<Runnable> runnables = new ArrayList<>();
+        private final List<Long> times = new ArrayList<>();
+        private long now = 0;
+
+        @Override
+        public void postDelayed(Runnable runnable, long delayMillis) {
+            runnables.add(runnable);
+            times.add(now + delayMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {
+            for (int i = runnables.size() - 1; i >= 0; i--) {
+                if (runnables.get(i) == runnable) {
+                    runnables.remove(i);
+                    times.remove(i);
+                }
+            }
+        }
+
+        void advance(long millis) {
+            long target = now + millis;
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < times.size(); i++) {
+                    if (times.get(i) <= target && (next == -1 || times.get(i) < times.get(next))) {
+                        next = i;
+                    }
+                }
+                if (next == -1) {
+                    break;
+                }
+                now = times.get(next);
+                Runnable runnable = runnables.remove(next);
+                times.remove(next);
+                runnable.run();
+            }
+            now = target;
+        }
+    }
+}
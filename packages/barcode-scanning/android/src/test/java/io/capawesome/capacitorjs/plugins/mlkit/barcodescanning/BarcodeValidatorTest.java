@@ -0,0 +1,45 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class BarcodeValidatorTest {
+
+    @Test
+    public void validateGs1ElementString_unmarkedWithoutCheckDigitIsUnverifiable() {
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("10ABC"));
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("21XYZ123"));
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("2112345"));
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("37123"));
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("9912345"));
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("4006381333931"));
+    }
+
+    @Test
+    public void validateGs1ElementString_unmarkedWithValidCheckDigitIsValid() {
+        assertEquals(BarcodeValidator.Result.VALID, BarcodeValidator.validateGs1ElementString("0109501101530003"));
+        assertEquals(BarcodeValidator.Result.VALID, BarcodeValidator.validateGs1ElementString("010950110153000310ABC"));
+    }
+
+    @Test
+    public void validateGs1ElementString_unmarkedWithInvalidCheckDigitIsUnverifiable() {
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("0109501101530004"));
+    }
+
+    @Test
+    public void validateGs1ElementString_markedWithoutCheckDigitIsValid() {
+        assertEquals(BarcodeValidator.Result.VALID, BarcodeValidator.validateGs1ElementString("]C110ABC"));
+        assertEquals(BarcodeValidator.Result.VALID, BarcodeValidator.validateGs1ElementString("10ABC\u001D21XYZ"));
+    }
+
+    @Test
+    public void validateGs1ElementString_markedWithInvalidCheckDigitIsInvalid() {
+        assertEquals(BarcodeValidator.Result.INVALID, BarcodeValidator.validateGs1ElementString("]C10109501101530004"));
+    }
+
+    @Test
+    public void validateGs1ElementString_arbitraryTextIsUnverifiable() {
+        assertEquals(BarcodeValidator.Result.UNVERIFIABLE, BarcodeValidator.validateGs1ElementString("https://example.com"));
+    }
+}
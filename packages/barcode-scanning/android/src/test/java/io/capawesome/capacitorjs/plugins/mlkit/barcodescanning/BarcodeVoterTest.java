@@ -0,0 +1,150 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class BarcodeVoterTest {
+
+    private static final int FRAME_SIZE = 1000;
+
+    @Test
+    public void count_acceptsAfterTheVoteThreshold() {
+        BarcodeVoter voter = new BarcodeVoter();
+        BarcodeVoter.Candidate candidate = createCenteredCandidate("4006381333931", BarcodeValidator.Result.UNVERIFIABLE);
+        for (int i = 1; i < BarcodeVoter.VOTE_THRESHOLD; i++) {
+            assertFalse(vote(voter, candidate));
+        }
+        assertTrue(vote(voter, candidate));
+        assertTrue(vote(voter, candidate));
+    }
+
+    @Test
+    public void count_acceptsValidatedBarcodesAfterTheValidatedVoteThreshold() {
+        BarcodeVoter voter = new BarcodeVoter();
+        BarcodeVoter.Candidate candidate = createCenteredCandidate("4006381333931", BarcodeValidator.Result.VALID);
+        for (int i = 1; i < BarcodeVoter.VALIDATED_VOTE_THRESHOLD; i++) {
+            assertFalse(vote(voter, candidate));
+        }
+        assertTrue(vote(voter, candidate));
+    }
+
+    @Test
+    public void count_neverAcceptsInvalidBarcodes() {
+        BarcodeVoter voter = new BarcodeVoter();
+        BarcodeVoter.Candidate candidate = createCenteredCandidate("4006381333932", BarcodeValidator.Result.INVALID);
+        for (int i = 0; i < BarcodeVoter.VOTE_THRESHOLD * 2; i++) {
+            assertFalse(vote(voter, candidate));
+        }
+    }
+
+    @Test
+    public void count_countsVotesPerRawValue() {
+        BarcodeVoter voter = new BarcodeVoter();
+        BarcodeVoter.Candidate first = createCenteredCandidate("first", BarcodeValidator.Result.UNVERIFIABLE);
+        BarcodeVoter.Candidate second = createCenteredCandidate("second", BarcodeValidator.Result.UNVERIFIABLE);
+        for (int i = 1; i < BarcodeVoter.VOTE_THRESHOLD; i++) {
+            vote(voter, first);
+        }
+        boolean[] acceptedFlags = voter.voteForCandidates(Arrays.asList(first, second), FRAME_SIZE, FRAME_SIZE);
+        assertTrue(acceptedFlags[0]);
+        assertFalse(acceptedFlags[1]);
+    }
+
+    @Test
+    public void vote_acceptsBarcodesWithoutRawValue() {
+        BarcodeVoter voter = new BarcodeVoter();
+        assertTrue(vote(voter, createCenteredCandidate(null, BarcodeValidator.Result.UNVERIFIABLE)));
+    }
+
+    @Test
+    public void clear_resetsTheVotes() {
+        BarcodeVoter voter = new BarcodeVoter();
+        BarcodeVoter.Candidate candidate = createCenteredCandidate("4006381333931", BarcodeValidator.Result.VALID);
+        vote(voter, candidate);
+        voter.clear();
+        assertFalse(vote(voter, candidate));
+        assertTrue(vote(voter, candidate));
+    }
+
+    @Test
+    public void weighted_acceptsASteadyCenteredBarcodeAfterTheAcceptanceScore() {
+        BarcodeVoter voter = createWeightedVoter();
+        BarcodeVoter.Candidate candidate = createCenteredCandidate("4006381333931", BarcodeValidator.Result.UNVERIFIABLE);
+        // The first vote has the initial stability of 0.5, all further votes have the full weight of 1
+        assertFalse(vote(voter, candidate));
+        assertFalse(vote(voter, candidate));
+        assertFalse(vote(voter, candidate));
+        assertTrue(vote(voter, candidate));
+    }
+
+    @Test
+    public void weighted_acceptsValidatedBarcodesSooner() {
+        BarcodeVoter voter = createWeightedVoter();
+        BarcodeVoter.Candidate candidate = createCenteredCandidate("4006381333931", BarcodeValidator.Result.VALID);
+        assertFalse(vote(voter, candidate));
+        assertTrue(vote(voter, candidate));
+    }
+
+    @Test
+    public void weighted_acceptsASmallBarcodeAtTheEdgeLater() {
+        BarcodeVoter voter = createWeightedVoter();
+        BarcodeVoter.Candidate candidate = createCandidate("4006381333931", 0, 0, 40, BarcodeValidator.Result.UNVERIFIABLE);
+        for (int i = 0; i < BarcodeVoter.VOTE_THRESHOLD * 2; i++) {
+            assertFalse(vote(voter, candidate));
+        }
+    }
+
+    @Test
+    public void weighted_givesMovingBarcodesLessWeight() {
+        BarcodeVoter voter = createWeightedVoter();
+        for (int i = 0; i < 4; i++) {
+            // Move the barcode by more than the maximum relative displacement between frames
+            int offset = (i % 2) * 200;
+            BarcodeVoter.Candidate candidate = createCandidate("4006381333931", 300 + offset, 300, 400, BarcodeValidator.Result.UNVERIFIABLE);
+            assertFalse(vote(voter, candidate));
+        }
+    }
+
+    @Test
+    public void weighted_usesTheAcceptanceScore() {
+        BarcodeVoter voter = createWeightedVoter();
+        voter.setAcceptanceScore(0.5f);
+        assertTrue(vote(voter, createCenteredCandidate("4006381333931", BarcodeValidator.Result.UNVERIFIABLE)));
+    }
+
+    private static BarcodeVoter createWeightedVoter() {
+        BarcodeVoter voter = new BarcodeVoter();
+        voter.setStrategy(BarcodeVoter.Strategy.WEIGHTED);
+        return voter;
+    }
+
+    private static boolean vote(BarcodeVoter voter, BarcodeVoter.Candidate candidate) {
+        List<BarcodeVoter.Candidate> candidates = Collections.singletonList(candidate);
+        return voter.voteForCandidates(candidates, FRAME_SIZE, FRAME_SIZE)[0];
+    }
+
+    /**
+     * Creates a candidate in the frame center whose size saturates the size weight.
+     */
+    private static BarcodeVoter.Candidate createCenteredCandidate(String rawValue, BarcodeValidator.Result validationResult) {
+        return createCandidate(rawValue, 300, 300, 400, validationResult);
+    }
+
+    private static BarcodeVoter.Candidate createCandidate(
+        String rawValue,
+        int left,
+        int top,
+        int size,
+        BarcodeValidator.Result validationResult
+    ) {
+        int right = left + size;
+        int bottom = top + size;
+        int[] boundingBox = new int[] { left, top, right, bottom };
+        int[] cornerPoints = new int[] { left, top, right, top, right, bottom, left, bottom };
+        return new BarcodeVoter.Candidate(rawValue, boundingBox, cornerPoints, validationResult);
+    }
+}
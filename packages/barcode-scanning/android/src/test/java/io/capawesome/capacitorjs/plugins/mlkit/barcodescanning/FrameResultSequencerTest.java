@@ -0,0 +1,55 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class FrameResultSequencerTest {
+
+    @Test
+    public void complete_releasesResultsInTimestampOrder() {
+        FrameResultSequencer<String> sequencer = new FrameResultSequencer<>();
+        sequencer.register(100);
+        sequencer.register(200);
+        sequencer.register(300);
+        assertEquals(Collections.emptyList(), sequencer.complete(300, "c"));
+        assertEquals(Collections.emptyList(), sequencer.complete(200, "b"));
+        assertEquals(3, sequencer.getPendingFrameCount());
+        assertEquals(Arrays.asList("a", "b", "c"), sequencer.complete(100, "a"));
+        assertEquals(0, sequencer.getPendingFrameCount());
+    }
+
+    @Test
+    public void complete_skipsFramesWithoutResult() {
+        FrameResultSequencer<String> sequencer = new FrameResultSequencer<>();
+        sequencer.register(100);
+        sequencer.register(200);
+        sequencer.register(300);
+        assertEquals(Collections.emptyList(), sequencer.complete(200, null));
+        assertEquals(Collections.singletonList("a"), sequencer.complete(100, "a"));
+        assertEquals(Collections.singletonList("c"), sequencer.complete(300, "c"));
+        assertEquals(0, sequencer.getPendingFrameCount());
+    }
+
+    @Test
+    public void complete_ignoresUnknownTimestamps() {
+        FrameResultSequencer<String> sequencer = new FrameResultSequencer<>();
+        sequencer.register(100);
+        assertEquals(Collections.emptyList(), sequencer.complete(50, "x"));
+        assertEquals(1, sequencer.getPendingFrameCount());
+        assertEquals(Collections.singletonList("a"), sequencer.complete(100, "a"));
+    }
+
+    @Test
+    public void complete_ignoresFramesRegisteredBeforeClear() {
+        FrameResultSequencer<String> sequencer = new FrameResultSequencer<>();
+        sequencer.register(100);
+        sequencer.clear();
+        sequencer.register(200);
+        assertEquals(Collections.emptyList(), sequencer.complete(100, "a"));
+        assertEquals(1, sequencer.getPendingFrameCount());
+        assertEquals(Collections.singletonList("b"), sequencer.complete(200, "b"));
+    }
+}
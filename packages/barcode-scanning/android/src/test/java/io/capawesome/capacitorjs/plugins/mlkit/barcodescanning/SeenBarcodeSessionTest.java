@@ -0,0 +1,145 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SeenBarcodeSessionTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void checkAndAdd_returnsTrueForSeenValues() throws IOException {
+        SeenBarcodeSession session = open(100);
+        assertFalse(session.checkAndAdd("4006381333931"));
+        assertFalse(session.checkAndAdd("96385074"));
+        assertTrue(session.checkAndAdd("4006381333931"));
+        assertTrue(session.checkAndAdd("96385074"));
+        assertFalse(session.checkAndAdd(""));
+        assertTrue(session.checkAndAdd(""));
+        assertEquals(3, session.getCount());
+        session.close();
+    }
+
+    @Test
+    public void checkAndAdd_growsTheHashIndex() throws IOException {
+        SeenBarcodeSession session = open(1);
+        for (int i = 0; i < 5000; i++) {
+            assertFalse(session.checkAndAdd("code-" + i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(session.checkAndAdd("code-" + i));
+        }
+        assertEquals(5000, session.getCount());
+        session.close();
+    }
+
+    @Test
+    public void checkAndAdd_throwsAfterClose() throws IOException {
+        SeenBarcodeSession session = open(100);
+        session.close();
+        try {
+            session.checkAndAdd("4006381333931");
+            fail();
+        } catch (IOException exception) {
+            assertEquals(BarcodeScannerPlugin.ERROR_SESSION_CLOSED, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void flush_writesAllCodes() throws IOException {
+        SeenBarcodeSession session = open(100);
+        session.checkAndAdd("a");
+        session.checkAndAdd("with \"quotes\" and \\ backslash");
+        session.checkAndAdd("line\nbreak");
+        session.flush();
+        List<String> lines = Files.readAllLines(session.getCodesFile().toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("\"a\"", lines.get(0));
+        assertEquals("\"with \\\"quotes\\\" and \\\\ backslash\"", lines.get(1));
+        assertEquals("\"line\\nbreak\"", lines.get(2));
+        session.close();
+    }
+
+    @Test
+    public void open_resumesAClosedSession() throws IOException {
+        SeenBarcodeSession session = open(1);
+        for (int i = 0; i < 3000; i++) {
+            session.checkAndAdd("code-" + i);
+        }
+        session.checkAndAdd("line\nbreak");
+        session.close();
+
+        SeenBarcodeSession resumedSession = open(1);
+        assertEquals(3001, resumedSession.getCount());
+        for (int i = 0; i < 3000; i++) {
+            assertTrue(resumedSession.checkAndAdd("code-" + i));
+        }
+        assertTrue(resumedSession.checkAndAdd("line\nbreak"));
+        assertFalse(resumedSession.checkAndAdd("code-3000"));
+        resumedSession.close();
+    }
+
+    @Test
+    public void open_rebuildsTheIndexFromTheCodesFile() throws IOException {
+        SeenBarcodeSession session = open(100);
+        session.checkAndAdd("a");
+        session.checkAndAdd("b");
+        session.checkAndAdd("c");
+        session.close();
+        // Simulate that the app was killed before the last code was written
+        File codesFile = session.getCodesFile();
+        try (RandomAccessFile file = new RandomAccessFile(codesFile, "rw")) {
+            file.setLength("\"a\"\n\"b\"\n".length());
+        }
+
+        SeenBarcodeSession resumedSession = open(100);
+        assertEquals(2, resumedSession.getCount());
+        assertTrue(resumedSession.checkAndAdd("a"));
+        assertTrue(resumedSession.checkAndAdd("b"));
+        assertFalse(resumedSession.checkAndAdd("c"));
+        resumedSession.close();
+    }
+
+    @Test
+    public void open_removesAPartiallyWrittenLine() throws IOException {
+        SeenBarcodeSession session = open(100);
+        session.checkAndAdd("a");
+        session.close();
+        File codesFile = session.getCodesFile();
+        try (FileOutputStream outputStream = new FileOutputStream(codesFile, true)) {
+            outputStream.write("\"b".getBytes(StandardCharsets.UTF_8));
+        }
+
+        SeenBarcodeSession resumedSession = open(100);
+        assertEquals(1, resumedSession.getCount());
+        assertFalse(resumedSession.checkAndAdd("b"));
+        resumedSession.close();
+        List<String> lines = Files.readAllLines(codesFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("\"a\"", lines.get(0));
+        assertEquals("\"b\"", lines.get(1));
+    }
+
+    @Test
+    public void delete_removesAllFiles() throws IOException {
+        SeenBarcodeSession session = open(100);
+        session.checkAndAdd("a");
+        session.delete();
+        assertFalse(new File(temporaryFolder.getRoot(), "inventory").exists());
+    }
+
+    private SeenBarcodeSession open(long expectedCodes) throws IOException {
+        return SeenBarcodeSession.open(temporaryFolder.getRoot(), "inventory", SeenBarcodeSession.Mode.TAG, expectedCodes);
+    }
+}
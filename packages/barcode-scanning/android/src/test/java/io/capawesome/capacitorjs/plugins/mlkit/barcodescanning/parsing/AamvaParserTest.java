@@ -0,0 +1,86 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AamvaParserTest {
+
+    private static final String US_LICENSE =
+        "@\n\u001e\rANSI 636014080002DL00410278ZC03190008DLDAQD1234562\nDCSSAMPLE\nDDEN\nDACJOHN\nDDFN\nDADNONE\nDDGN\n" +
+        "DCAC\nDCBNONE\nDCDNONE\nDBD08242015\nDBB01191987\nDBA01192035\nDBC1\nDAU069 IN\nDAYBRN\nDAG123 MAIN STREET\n" +
+        "DAIANYTOWN\nDAJCA\nDAK000000000  \nDCF83D9BN217QO983B1\nDCGUSA\nDAW180\nDCK12345678900000000000\nDDAF\n" +
+        "DDB08292017\nDDJ01192008\rZCZCAY\nZCBCORR LENS\r";
+
+    private static final String CANADIAN_LICENSE =
+        "@\n\u001e\rANSI 636012080001DL00310120DLDAQJ1234-56789-01234\nDCSDOE\nDACJANE\nDBB19870119\nDBA20300119\nDCGCAN\r";
+
+    private final AamvaParser parser = new AamvaParser();
+
+    @Test
+    public void parse_header() {
+        ParseResult result = parser.parse(US_LICENSE);
+        assertNotNull(result);
+        assertEquals(PayloadFormat.AAMVA, result.getFormat());
+        assertField(result.getField("IIN"), FieldType.STRING, "636014");
+        assertField(result.getField("AAMVA_VERSION"), FieldType.INTEGER, 8L);
+        assertField(result.getField("JURISDICTION_VERSION"), FieldType.INTEGER, 0L);
+    }
+
+    @Test
+    public void parse_usLicense() {
+        ParseResult result = parser.parse(US_LICENSE);
+        assertNotNull(result);
+        assertTrue(result.isValid());
+        assertField(result.getField("DAQ"), FieldType.STRING, "D1234562");
+        assertField(result.getField("DCS"), FieldType.STRING, "SAMPLE");
+        assertField(result.getField("DAC"), FieldType.STRING, "JOHN");
+        assertField(result.getField("DBB"), FieldType.DATE, "1987-01-19");
+        assertField(result.getField("DBA"), FieldType.DATE, "2035-01-19");
+        assertField(result.getField("DAW"), FieldType.INTEGER, 180L);
+        assertField(result.getField("DAK"), FieldType.STRING, "000000000");
+        assertEquals("Date of birth", result.getField("DBB").getLabel());
+        assertEquals("01191987", result.getField("DBB").getRawValue());
+    }
+
+    @Test
+    public void parse_jurisdictionSubfile() {
+        ParseResult result = parser.parse(US_LICENSE);
+        assertNotNull(result);
+        assertField(result.getField("ZCA"), FieldType.STRING, "Y");
+        assertField(result.getField("ZCB"), FieldType.STRING, "CORR LENS");
+    }
+
+    @Test
+    public void parse_canadianDates() {
+        ParseResult result = parser.parse(CANADIAN_LICENSE);
+        assertNotNull(result);
+        assertTrue(result.isValid());
+        assertField(result.getField("DAQ"), FieldType.STRING, "J1234-56789-01234");
+        assertField(result.getField("DBB"), FieldType.DATE, "1987-01-19");
+        assertField(result.getField("DBA"), FieldType.DATE, "2030-01-19");
+    }
+
+    @Test
+    public void parse_invalidDateFallsBackToString() {
+        ParseResult result = parser.parse(US_LICENSE.replace("DBB01191987", "DBB13451987"));
+        assertNotNull(result);
+        assertFalse(result.isValid());
+        assertField(result.getField("DBB"), FieldType.STRING, "13451987");
+    }
+
+    @Test
+    public void parse_rejectsOtherPayloads() {
+        assertNull(parser.parse(""));
+        assertNull(parser.parse("hello world"));
+        assertNull(parser.parse("@\n\u001e\rANSI 6360"));
+        assertNull(parser.parse("@\n\u001e\rANSI 636014080002DL0041"));
+        assertNull(parser.parse("]C10109501101530003"));
+    }
+
+    private static void assertField(ParsedField field, FieldType type, Object value) {
+        assertNotNull(field);
+        assertEquals(type, field.getType());
+        assertEquals(value, field.getValue());
+    }
+}
@@ -0,0 +1,40 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CheckDigitTest {
+
+    @Test
+    public void isValidGs1CheckDigit_acceptsValidNumbers() {
+        assertTrue(CheckDigit.isValidGs1CheckDigit("4006381333931"));
+        assertTrue(CheckDigit.isValidGs1CheckDigit("96385074"));
+        assertTrue(CheckDigit.isValidGs1CheckDigit("036000291452"));
+        assertTrue(CheckDigit.isValidGs1CheckDigit("09501101530003"));
+        assertTrue(CheckDigit.isValidGs1CheckDigit("106141412345678908"));
+    }
+
+    @Test
+    public void isValidGs1CheckDigit_rejectsInvalidNumbers() {
+        assertFalse(CheckDigit.isValidGs1CheckDigit("4006381333932"));
+        assertFalse(CheckDigit.isValidGs1CheckDigit("4006381333A31"));
+        assertFalse(CheckDigit.isValidGs1CheckDigit("4"));
+        assertFalse(CheckDigit.isValidGs1CheckDigit(""));
+    }
+
+    @Test
+    public void expandUpcE_expandsAllPatterns() {
+        assertEquals("042100005264", CheckDigit.expandUpcE("04252614"));
+        assertEquals("012300000659", CheckDigit.expandUpcE("01236539"));
+        assertEquals("012340000056", CheckDigit.expandUpcE("01234546"));
+        assertEquals("012345000058", CheckDigit.expandUpcE("01234558"));
+    }
+
+    @Test
+    public void expandUpcE_rejectsInvalidValues() {
+        assertNull(CheckDigit.expandUpcE("0425261"));
+        assertNull(CheckDigit.expandUpcE("24252614"));
+        assertNull(CheckDigit.expandUpcE("0425261A"));
+    }
+}
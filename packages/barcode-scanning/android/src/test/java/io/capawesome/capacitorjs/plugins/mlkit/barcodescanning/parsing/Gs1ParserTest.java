@@ -0,0 +1,107 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.parsing;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import org.junit.Test;
+
+public class Gs1ParserTest {
+
+    private final Gs1Parser parser = new Gs1Parser(2026);
+
+    @Test
+    public void parse_elementStringWithSymbologyIdentifierAndGroupSeparators() {
+        ParseResult result = parser.parse("]C1010950110153000317150101\u001D10ABC123\u001D21XYZ");
+        assertNotNull(result);
+        assertEquals(PayloadFormat.GS1, result.getFormat());
+        assertTrue(result.isValid());
+        assertEquals(4, result.getFields().size());
+        assertField(result.getField("01"), FieldType.STRING, "09501101530003");
+        assertField(result.getField("17"), FieldType.DATE, "2015-01-01");
+        assertField(result.getField("10"), FieldType.STRING, "ABC123");
+        assertField(result.getField("21"), FieldType.STRING, "XYZ");
+    }
+
+    @Test
+    public void parse_dataMatrixSymbologyIdentifier() {
+        ParseResult result = parser.parse("]d20109501101530003\u001D21SERIAL");
+        assertNotNull(result);
+        assertField(result.getField("21"), FieldType.STRING, "SERIAL");
+    }
+
+    @Test
+    public void parse_humanReadableForm() {
+        ParseResult result = parser.parse("(01)09501101530003(3103)000125(10)LOT");
+        assertNotNull(result);
+        assertTrue(result.isValid());
+        assertField(result.getField("3103"), FieldType.DECIMAL, new BigDecimal("0.125"));
+        assertField(result.getField("10"), FieldType.STRING, "LOT");
+    }
+
+    @Test
+    public void parse_integerField() {
+        ParseResult result = parser.parse("]C101095011015300033712");
+        assertNotNull(result);
+        assertEquals(2, result.getFields().size());
+        assertField(result.getField("37"), FieldType.INTEGER, 12L);
+    }
+
+    @Test
+    public void parse_dayZeroIsLastDayOfMonth() {
+        ParseResult result = parser.parse("(17)240200");
+        assertNotNull(result);
+        assertField(result.getField("17"), FieldType.DATE, "2024-02-29");
+    }
+
+    @Test
+    public void parse_dateCenturyIsRelativeToCurrentYear() {
+        ParseResult result = parser.parse("(11)991231(17)751231");
+        assertNotNull(result);
+        assertField(result.getField("11"), FieldType.DATE, "1999-12-31");
+        assertField(result.getField("17"), FieldType.DATE, "2075-12-31");
+    }
+
+    @Test
+    public void parse_invalidDateFallsBackToString() {
+        ParseResult result = parser.parse("(17)151301");
+        assertNotNull(result);
+        assertFalse(result.isValid());
+        assertField(result.getField("17"), FieldType.STRING, "151301");
+    }
+
+    @Test
+    public void parse_invalidCheckDigit() {
+        ParseResult result = parser.parse("]C10109501101530004");
+        assertNotNull(result);
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    public void parse_unmarkedStringStartingWithValidGtin() {
+        ParseResult result = parser.parse("010950110153000317150101");
+        assertNotNull(result);
+        assertField(result.getField("17"), FieldType.DATE, "2015-01-01");
+    }
+
+    @Test
+    public void parse_rejectsUnmarkedStringsThatAreNotGs1() {
+        assertNull(parser.parse("4006381333931"));
+        assertNull(parser.parse("0109501101530004"));
+        assertNull(parser.parse("hello world"));
+    }
+
+    @Test
+    public void parse_rejectsMalformedElementStrings() {
+        assertNull(parser.parse("]C1"));
+        assertNull(parser.parse("]C10109501101530"));
+        assertNull(parser.parse("]C121123456789012345678901"));
+        assertNull(parser.parse("]C111ABCDEF"));
+        assertNull(parser.parse("(01"));
+    }
+
+    private static void assertField(ParsedField field, FieldType type, Object value) {
+        assertNotNull(field);
+        assertEquals(type, field.getType());
+        assertEquals(value, field.getValue());
+    }
+}
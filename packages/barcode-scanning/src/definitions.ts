@@ -1,5 +1,25 @@
+/// <reference types="@capacitor/cli" />
+
 import type { PermissionState, PluginListenerHandle } from '@capacitor/core';
 
+declare module '@capacitor/cli' {
+  export interface PluginsConfig {
+    BarcodeScanner?: {
+      /**
+       * Install the Google Barcode Scanner module in the background when the plugin is loaded,
+       * so that the first call of `scan()` does not have to wait for the download.
+       *
+       * Only available on Android.
+       *
+       * @since 8.1.0
+       * @default false
+       * @example true
+       */
+      preinstallGoogleBarcodeScannerModule?: boolean;
+    };
+  }
+}
+
 export interface BarcodeScannerPlugin {
   /**
    * Start scanning for barcodes.
@@ -50,6 +70,76 @@ export interface BarcodeScannerPlugin {
    * @experimental This method is experimental and may change in the future.
    */
   scan(options?: ScanOptions): Promise<ScanResult>;
+  /**
+   * Start a session that keeps track of the barcodes that were already seen.
+   *
+   * While a session is active, barcodes scanned with `startScan(...)` are checked against
+   * the session before they are emitted. Depending on the `mode`, already seen barcodes are
+   * tagged with the `seen` property or suppressed.
+   *
+   * The session is persisted on the device. Starting a session with the ID of a
+   * previous session resumes it, even after an app restart.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  startSession(options: StartSessionOptions): Promise<void>;
+  /**
+   * End the active session.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  endSession(options?: EndSessionOptions): Promise<void>;
+  /**
+   * Export the raw values of the barcodes seen in the active session.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  exportSession(): Promise<ExportSessionResult>;
+  /**
+   * Query the scan log.
+   *
+   * Barcodes are only written to the scan log if `scanLog` is enabled in `startScan(...)`.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  queryScanLog(options?: QueryScanLogOptions): Promise<QueryScanLogResult>;
+  /**
+   * Delete all entries of the scan log.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  clearScanLog(): Promise<void>;
+  /**
+   * Get the counters of the current scan.
+   *
+   * The counters are reset when `startScan(...)` is called.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  getScanMetrics(): Promise<GetScanMetricsResult>;
+  /**
+   * Acknowledge a batch of barcodes received with the `barcodesBatchScanned` event.
+   *
+   * The next batch is only delivered after the previous batch has been acknowledged.
+   * If a batch is not acknowledged within 5 seconds, the next batch is delivered anyway.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  acknowledgeBatch(options: AcknowledgeBatchOptions): Promise<void>;
   /**
    * Returns whether or not the barcode scanner is supported.
    *
@@ -104,6 +194,16 @@ export interface BarcodeScannerPlugin {
    * @since 5.4.0
    */
   setZoomRatio(options: SetZoomRatioOptions): Promise<void>;
+  /**
+   * Focus and meter the camera on a specific point, e.g. for tap-to-focus.
+   *
+   * The point uses the same coordinate system as the `cornerPoints` of the scanned barcodes.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  focusOnPoint(options: FocusOnPointOptions): Promise<void>;
   /**
    * Get the zoom ratio of the camera.
    *
@@ -158,6 +258,19 @@ export interface BarcodeScannerPlugin {
    * @since 5.1.0
    */
   installGoogleBarcodeScannerModule(): Promise<void>;
+  /**
+   * Wait until the Google Barcode Scanner module is available.
+   *
+   * The installation is started if the module is neither available nor being installed.
+   * Use this method to make sure that `scan()` can be called without delay.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  waitForGoogleBarcodeScannerModule(
+    options?: WaitForGoogleBarcodeScannerModuleOptions,
+  ): Promise<void>;
   /**
    * Check camera permission.
    *
@@ -179,6 +292,30 @@ export interface BarcodeScannerPlugin {
     eventName: 'barcodesScanned',
     listenerFunc: (event: BarcodesScannedEvent) => void,
   ): Promise<PluginListenerHandle>;
+  /**
+   * Called with a batch of barcodes if `batchDelivery` is enabled.
+   *
+   * Call `acknowledgeBatch(...)` to receive the next batch.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'barcodesBatchScanned',
+    listenerFunc: (event: BarcodesBatchScannedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Called with the corner points of all detected barcodes if `overlayEvents` is enabled.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'overlayUpdated',
+    listenerFunc: (event: OverlayUpdatedEvent) => void,
+  ): Promise<PluginListenerHandle>;
   /**
    * Called when an error occurs during the scan.
    *
@@ -195,131 +332,618 @@ export interface BarcodeScannerPlugin {
    *
    * Available on Android.
    *
-   * @since 5.1.0
+   * @since 5.1.0
+   */
+  addListener(
+    eventName: 'googleBarcodeScannerModuleInstallProgress',
+    listenerFunc: (
+      event: GoogleBarcodeScannerModuleInstallProgressEvent,
+    ) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Remove all listeners for this plugin.
+   *
+   * @since 0.0.1
+   */
+  removeAllListeners(): Promise<void>;
+}
+
+/**
+ * @since 0.0.1
+ */
+export interface StartScanOptions {
+  /**
+   * Improve the speed of the barcode scanner by configuring
+   * the barcode formats to scan for.
+   *
+   * Only available on Android and iOS.
+   *
+   * @since 0.0.1
+   */
+  formats?: BarcodeFormat[];
+  /**
+   * Configure the camera (front or back) to use.
+   *
+   * @since 0.0.1
+   */
+  lensFacing?: LensFacing;
+  /**
+   * Configure the resolution of the captured image that is used for barcode scanning.
+   *
+   * If the resolution is not supported by the device, the closest supported resolution will be used.
+   *
+   * Only available on Android and iOS.
+   *
+   * @since 7.0.0
+   * @default Resolution['1280x720']
+   */
+  resolution?: Resolution;
+  /**
+   * Allow camera usage on iPad while in multitasking mode.
+   *
+   * Only available on iOS (16.0+).
+   *
+   * @since 7.5.0
+   * @default false
+   */
+  enableMultitaskingCameraAccess?: boolean;
+  /**
+   * The target frame rate range of the camera in frames per second as `[lower, upper]`.
+   *
+   * Use this option to get a predictable frame pacing and CPU load.
+   * For example, `[30, 30]` caps the analysis stream at 30 FPS, while `[15, 30]`
+   * allows the camera to lower the frame rate in low light.
+   * The range must be supported by the camera, otherwise it is ignored by the device.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @example [30, 30]
+   */
+  targetFpsRange?: [number, number];
+  /**
+   * Scan without a camera preview.
+   *
+   * If `true`, no preview is shown and the WebView is left untouched.
+   * Only the image analysis stream is bound to the camera, so that a higher
+   * `resolution` can be used within the same camera stream budget.
+   * This is useful for fixed-mount scan stations.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  headless?: boolean;
+  /**
+   * Automatically focus and meter the exposure on the largest barcode in the camera frame.
+   *
+   * Metering is re-triggered when a new barcode candidate appears.
+   * This helps with close-up scans where the continuous autofocus focuses on the background.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  autoFocus?: boolean;
+  /**
+   * Write accepted barcodes to a local scan log on the device.
+   *
+   * The barcodes are written in batches in the background, so that scanning continues
+   * even if the WebView is busy. A barcode is logged each time it is accepted after
+   * not being accepted for one second. Barcodes without raw value are not logged.
+   * Use `queryScanLog(...)` to read the scan log.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  scanLog?: boolean;
+  /**
+   * Validate the check digits and the structure of decoded barcodes before accepting them.
+   *
+   * EAN-13, EAN-8, UPC-A, UPC-E and ITF-14 barcodes as well as GS1 element strings
+   * in Code 128, Data Matrix and QR codes are validated.
+   * Barcodes with an invalid check digit are rejected and barcodes with a valid
+   * check digit are accepted after fewer frames.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  checkDigitValidation?: boolean;
+  /**
+   * The strategy used to decide when a barcode is accepted.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default VotingStrategy.Count
+   */
+  votingStrategy?: VotingStrategy;
+  /**
+   * Rules that a detected barcode must match to be emitted.
+   *
+   * Barcodes that do not match are dropped natively before voting,
+   * so they are never serialized and passed to the WebView.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  filters?: BarcodeFilters;
+  /**
+   * Parse the raw value of scanned barcodes natively into typed fields.
+   *
+   * The payload formats are tried in the given order and the result of the first
+   * recognized format is set as `parsed` property of the barcode.
+   * The raw value is only parsed if at least one payload format is requested.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  parse?: PayloadFormat[];
+  /**
+   * The score at which a barcode is accepted when using `VotingStrategy.Weighted`.
+   *
+   * Each frame in which a barcode is detected adds a score between `0` and `1`.
+   * A steady, large barcode in the center of the frame adds a score close to `1`.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default 3
+   */
+  acceptanceScore?: number;
+  /**
+   * The maximum number of camera frames that are processed concurrently.
+   *
+   * Values greater than `1` allow multi-core devices to analyze more frames per second.
+   * The results are still handled in the order in which the frames were captured.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default 1
+   */
+  maxFramesInFlight?: number;
+  /**
+   * Deliver accepted barcodes in batches with the `barcodesBatchScanned` event
+   * instead of the `barcodeScanned` and `barcodesScanned` events.
+   *
+   * A batch is only delivered after the previous batch has been acknowledged
+   * with `acknowledgeBatch(...)`. While waiting, newer detections of the same barcode
+   * replace older ones, so that the WebView is never flooded with events.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  batchDelivery?: boolean;
+  /**
+   * Emit the `overlayUpdated` event with the corner points of all detected barcodes for each analyzed frame.
+   *
+   * The corner points are emitted before voting, so that overlays follow the barcodes without delay.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  overlayEvents?: boolean;
+  /**
+   * The encoding of the corner points in the `overlayUpdated` event.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default OverlayEncoding.Array
+   */
+  overlayEncoding?: OverlayEncoding;
+  /**
+   * The time in milliseconds to collect barcodes before a batch is delivered.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default 100
+   */
+  batchInterval?: number;
+  /**
+   * The maximum number of barcodes in a batch.
+   * A batch is delivered as soon as this number is reached.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default 50
+   */
+  batchSize?: number;
+  /**
+   * The number of camera frames that can be queued for analysis.
+   *
+   * This option is only used if `maxFramesInFlight` is greater than `1`.
+   * The value is never lower than `maxFramesInFlight`.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default maxFramesInFlight + 1
+   */
+  imageQueueDepth?: number;
+  /**
+   * The time in milliseconds for which the camera session is retained after `stopScan()`.
+   *
+   * While the session is retained, the camera provider and the barcode scanner client
+   * are kept alive. A subsequent `startScan(...)` call then
+   * only rebinds the camera instead of setting everything up from scratch.
+   * The barcode scanner client is only reused if the `formats` did not change.
+   *
+   * Set to `0` to release the session immediately.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default 0
+   */
+  sessionReuseTimeout?: number;
+  /**
+   * The HTML video element to use for the camera preview.
+   *
+   * Only available on web.
+   *
+   * @since 7.1.0
+   */
+  videoElement?: HTMLVideoElement;
+}
+
+/**
+ * @since 0.0.1
+ */
+export interface ReadBarcodesFromImageOptions {
+  /**
+   * Improve the speed of the barcode scanner by configuring
+   * the barcode formats to scan for.
+   *
+   * @since 0.0.1
+   */
+  formats?: BarcodeFormat[];
+  /**
+   * The local path to the image file.
+   *
+   * @since 0.0.1
+   */
+  path: string;
+}
+
+/**
+ * @since 0.0.1
+ */
+export interface ReadBarcodesFromImageResult {
+  /**
+   * The detected barcodes.
+   *
+   * @since 0.0.1
+   */
+  barcodes: Barcode[];
+}
+
+/**
+ * @since 0.0.1
+ */
+export interface ScanOptions {
+  /**
+   * Improve the speed of the barcode scanner by configuring
+   * the barcode formats to scan for.
+   *
+   * @since 0.0.1
+   */
+  formats?: BarcodeFormat[];
+  /**
+   * Toggle the auto zoom feature.
+   *
+   * @since 7.4.0
+   */
+  autoZoom?: boolean;
+}
+
+/**
+ * @since 0.0.1
+ */
+export interface ScanResult {
+  /**
+   * The detected barcodes.
+   *
+   * @since 0.0.1
+   */
+  barcodes: Barcode[];
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface StartSessionOptions {
+  /**
+   * The unique identifier of the session.
+   *
+   * Only letters, digits, underscores and hyphens are allowed.
+   *
+   * @since 8.1.0
+   * @example "inventory-2026-10-19"
+   */
+  id: string;
+  /**
+   * How already seen barcodes are handled.
+   *
+   * @since 8.1.0
+   * @default SessionMode.Tag
+   */
+  mode?: SessionMode;
+  /**
+   * The expected number of unique barcodes in the session.
+   *
+   * This value is used to size the session storage and only applies
+   * when a new session is created.
+   * Must not exceed 67108864.
+   *
+   * @since 8.1.0
+   * @default 100000
+   */
+  expectedCodes?: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface EndSessionOptions {
+  /**
+   * Whether or not to delete the session from the device.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  delete?: boolean;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface ExportSessionResult {
+  /**
+   * The path to a file with the raw values of the seen barcodes.
+   *
+   * The file contains one JSON string per line.
+   *
+   * @since 8.1.0
+   */
+  path: string;
+  /**
+   * The number of unique barcodes seen in the session.
+   *
+   * @since 8.1.0
+   */
+  count: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface QueryScanLogOptions {
+  /**
+   * Only return entries with a timestamp greater than or equal to this value
+   * (in milliseconds since epoch).
+   *
+   * @since 8.1.0
+   * @default 0
+   */
+  since?: number;
+  /**
+   * The maximum number of entries to return.
+   *
+   * @since 8.1.0
+   * @default 100
+   */
+  limit?: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface QueryScanLogResult {
+  /**
+   * The scan log entries ordered by timestamp.
+   *
+   * @since 8.1.0
+   */
+  entries: ScanLogEntry[];
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface ScanLogEntry {
+  /**
+   * The four corner points of the barcode in image coordinates.
+   *
+   * @since 8.1.0
+   */
+  cornerPoints?: [
+    [number, number],
+    [number, number],
+    [number, number],
+    [number, number],
+  ];
+  /**
+   * The barcode format.
+   *
+   * @since 8.1.0
+   */
+  format?: BarcodeFormat;
+  /**
+   * The barcode value in a machine readable format.
+   *
+   * @since 8.1.0
+   */
+  rawValue?: string;
+  /**
+   * The time the barcode was accepted in milliseconds since epoch.
+   *
+   * @since 8.1.0
+   */
+  timestamp: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface ParsedPayload {
+  /**
+   * The recognized payload format.
+   *
+   * @since 8.1.0
+   */
+  format: PayloadFormat;
+  /**
+   * The fields in the order in which they appear in the raw value.
+   *
+   * @since 8.1.0
    */
-  addListener(
-    eventName: 'googleBarcodeScannerModuleInstallProgress',
-    listenerFunc: (
-      event: GoogleBarcodeScannerModuleInstallProgressEvent,
-    ) => void,
-  ): Promise<PluginListenerHandle>;
+  fields: ParsedField[];
   /**
-   * Remove all listeners for this plugin.
+   * Whether or not all check digits and field values are valid.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
-  removeAllListeners(): Promise<void>;
+  valid: boolean;
 }
 
 /**
- * @since 0.0.1
+ * @since 8.1.0
  */
-export interface StartScanOptions {
+export interface ParsedField {
   /**
-   * Improve the speed of the barcode scanner by configuring
-   * the barcode formats to scan for.
+   * The identifier of the field.
    *
-   * Only available on Android and iOS.
+   * This is the Application Identifier (e.g. `01`) for GS1 payloads
+   * and the element ID (e.g. `DBB`) for AAMVA payloads.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
-  formats?: BarcodeFormat[];
+  id: string;
   /**
-   * Configure the camera (front or back) to use.
+   * A human readable label of the field.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
-  lensFacing?: LensFacing;
+  label: string;
   /**
-   * Configure the resolution of the captured image that is used for barcode scanning.
-   *
-   * If the resolution is not supported by the device, the closest supported resolution will be used.
+   * The type of the value.
    *
-   * Only available on Android and iOS.
+   * If the raw value cannot be converted to the type of the field,
+   * the type is `ParsedFieldType.String` and `valid` of the payload is `false`.
    *
-   * @since 7.0.0
-   * @default Resolution['1280x720']
+   * @since 8.1.0
    */
-  resolution?: Resolution;
+  type: ParsedFieldType;
   /**
-   * Allow camera usage on iPad while in multitasking mode.
+   * The typed value.
    *
-   * Only available on iOS (16.0+).
+   * Dates are strings in the format `YYYY-MM-DD`.
    *
-   * @since 7.5.0
-   * @default false
+   * @since 8.1.0
    */
-  enableMultitaskingCameraAccess?: boolean;
+  value: string | number;
   /**
-   * The HTML video element to use for the camera preview.
+   * The value as encoded in the barcode.
    *
-   * Only available on web.
-   *
-   * @since 7.1.0
+   * @since 8.1.0
    */
-  videoElement?: HTMLVideoElement;
+  rawValue: string;
 }
 
 /**
- * @since 0.0.1
+ * @since 8.1.0
  */
-export interface ReadBarcodesFromImageOptions {
+export interface BarcodeFilters {
   /**
-   * Improve the speed of the barcode scanner by configuring
-   * the barcode formats to scan for.
+   * Only emit barcodes with one of these formats.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
   formats?: BarcodeFormat[];
   /**
-   * The local path to the image file.
+   * The minimum length of the raw value.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
-  path: string;
-}
-
-/**
- * @since 0.0.1
- */
-export interface ReadBarcodesFromImageResult {
+  minLength?: number;
   /**
-   * The detected barcodes.
+   * The maximum length of the raw value.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
-  barcodes: Barcode[];
-}
-
-/**
- * @since 0.0.1
- */
-export interface ScanOptions {
+  maxLength?: number;
   /**
-   * Improve the speed of the barcode scanner by configuring
-   * the barcode formats to scan for.
+   * Only emit barcodes whose raw value starts with one of these prefixes.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
-  formats?: BarcodeFormat[];
+  prefixes?: string[];
   /**
-   * Toggle the auto zoom feature.
+   * Only emit barcodes whose whole raw value matches this regular expression.
    *
-   * @since 7.4.0
+   * The pattern is compiled with the Java regular expression syntax.
+   *
+   * @since 8.1.0
    */
-  autoZoom?: boolean;
+  pattern?: string;
+  /**
+   * Only emit barcodes with one of these value types.
+   *
+   * @since 8.1.0
+   */
+  valueTypes?: BarcodeValueType[];
 }
 
 /**
- * @since 0.0.1
+ * @since 8.1.0
  */
-export interface ScanResult {
+export interface GetScanMetricsResult {
   /**
-   * The detected barcodes.
+   * The number of frames that were analyzed.
    *
-   * @since 0.0.1
+   * @since 8.1.0
    */
-  barcodes: Barcode[];
+  framesAnalyzed: number;
+  /**
+   * The number of frames that were dropped because enough frames were already being processed.
+   *
+   * @since 8.1.0
+   */
+  framesDropped: number;
+  /**
+   * The number of barcodes that were detected in all frames.
+   *
+   * @since 8.1.0
+   */
+  barcodesDetected: number;
+  /**
+   * The number of detected barcodes that were rejected by the `filters`.
+   *
+   * @since 8.1.0
+   */
+  barcodesFiltered: number;
+  /**
+   * The number of barcodes that were accepted and emitted.
+   *
+   * @since 8.1.0
+   */
+  barcodesAccepted: number;
 }
 
 /**
@@ -373,6 +997,24 @@ export interface SetZoomRatioOptions {
   zoomRatio: number;
 }
 
+/**
+ * @since 8.1.0
+ */
+export interface FocusOnPointOptions {
+  /**
+   * The x coordinate of the point.
+   *
+   * @since 8.1.0
+   */
+  x: number;
+  /**
+   * The y coordinate of the point.
+   *
+   * @since 8.1.0
+   */
+  y: number;
+}
+
 /**
  * @since 5.4.0
  */
@@ -460,6 +1102,99 @@ export interface BarcodesScannedEvent {
   barcodes: Barcode[];
 }
 
+/**
+ * @since 8.1.0
+ */
+export interface BarcodesBatchScannedEvent {
+  /**
+   * The ID of the batch to pass to `acknowledgeBatch(...)`.
+   *
+   * @since 8.1.0
+   */
+  batchId: number;
+  /**
+   * The accepted barcodes.
+   *
+   * @since 8.1.0
+   */
+  barcodes: Barcode[];
+  /**
+   * The number of barcodes that were dropped since the previous batch
+   * because too many barcodes were pending.
+   *
+   * @since 8.1.0
+   */
+  droppedCount: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface OverlayUpdatedEvent {
+  /**
+   * The consecutive number of the analyzed frame, starting at `1` for each scan.
+   *
+   * Frames without barcodes are only emitted once after a frame with barcodes.
+   *
+   * @since 8.1.0
+   */
+  frameId: number;
+  /**
+   * The capture time of the frame in milliseconds.
+   *
+   * The timestamp is monotonic and not related to the wall clock time.
+   *
+   * @since 8.1.0
+   */
+  timestamp: number;
+  /**
+   * The number of barcodes in `cornerPoints`.
+   *
+   * @since 8.1.0
+   */
+  count: number;
+  /**
+   * The corner points of the barcodes in screen coordinates.
+   *
+   * Each barcode has four corner points with an x and a y coordinate,
+   * so the corner points of the barcode `i` are at the indexes `i * 8` to `i * 8 + 7`.
+   *
+   * If `overlayEncoding` is `OverlayEncoding.Base64Int16`, the coordinates are
+   * little-endian 16-bit integers encoded in base64 that can be read with an `Int16Array`.
+   *
+   * @since 8.1.0
+   */
+  cornerPoints: number[] | string;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface AcknowledgeBatchOptions {
+  /**
+   * The ID of the batch.
+   *
+   * @since 8.1.0
+   */
+  batchId: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface WaitForGoogleBarcodeScannerModuleOptions {
+  /**
+   * The maximum time to wait in milliseconds.
+   *
+   * If the module is not available in time, the promise is rejected.
+   * Use `0` to wait without a time limit.
+   *
+   * @since 8.1.0
+   * @default 0
+   */
+  timeout?: number;
+}
+
 /**
  * @since 0.0.1
  */
@@ -485,6 +1220,8 @@ export interface GoogleBarcodeScannerModuleInstallProgressEvent {
   /**
    * The progress of the installation in percent between 0 and 100.
    *
+   * Progress updates are reported at most every 250 milliseconds or 5 percent.
+   *
    * @since 5.1.0
    */
   progress?: number;
@@ -578,6 +1315,27 @@ export interface Barcode {
    * @example "CapacitorJS"
    */
   rawValue?: string;
+  /**
+   * Whether or not the barcode was already seen in the active session.
+   *
+   * This property is only set if a session with `SessionMode.Tag` is active.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  seen?: boolean;
+  /**
+   * The structured payload of the raw value.
+   *
+   * This property is only set if the raw value was recognized by one of the
+   * payload formats requested with the `parse` option.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  parsed?: ParsedPayload;
   /**
    * A sms message from a 'SMS:'.
    *
@@ -1150,6 +1908,102 @@ export enum Resolution {
   '3840x2160' = 3,
 }
 
+/**
+ * @since 8.1.0
+ */
+export enum VotingStrategy {
+  /**
+   * A barcode is accepted after it was detected in 10 frames.
+   *
+   * @since 8.1.0
+   */
+  Count = 'COUNT',
+  /**
+   * Each detection is weighted by the corner point stability between frames,
+   * the barcode size and the distance to the frame center.
+   * A barcode is accepted when the sum of the weights reaches the `acceptanceScore`.
+   *
+   * @since 8.1.0
+   */
+  Weighted = 'WEIGHTED',
+}
+
+/**
+ * @since 8.1.0
+ */
+export enum OverlayEncoding {
+  /**
+   * The coordinates are sent as an array of numbers.
+   *
+   * @since 8.1.0
+   */
+  Array = 'ARRAY',
+  /**
+   * The coordinates are sent as little-endian 16-bit integers encoded in base64.
+   *
+   * @since 8.1.0
+   */
+  Base64Int16 = 'BASE64_INT16',
+}
+
+/**
+ * @since 8.1.0
+ */
+export enum PayloadFormat {
+  /**
+   * GS1 element strings as encoded in GS1-128, GS1 DataMatrix and GS1 QR Code barcodes.
+   *
+   * @since 8.1.0
+   */
+  Gs1 = 'GS1',
+  /**
+   * Driver's licenses and identification cards as specified by the AAMVA DL/ID Card Design Standard.
+   *
+   * @since 8.1.0
+   */
+  Aamva = 'AAMVA',
+}
+
+/**
+ * @since 8.1.0
+ */
+export enum ParsedFieldType {
+  /**
+   * @since 8.1.0
+   */
+  String = 'STRING',
+  /**
+   * @since 8.1.0
+   */
+  Integer = 'INTEGER',
+  /**
+   * @since 8.1.0
+   */
+  Decimal = 'DECIMAL',
+  /**
+   * @since 8.1.0
+   */
+  Date = 'DATE',
+}
+
+/**
+ * @since 8.1.0
+ */
+export enum SessionMode {
+  /**
+   * Already seen barcodes are emitted with `seen` set to `true`.
+   *
+   * @since 8.1.0
+   */
+  Tag = 'TAG',
+  /**
+   * Already seen barcodes are not emitted.
+   *
+   * @since 8.1.0
+   */
+  Suppress = 'SUPPRESS',
+}
+
 /**
  * @since 0.0.1
  */
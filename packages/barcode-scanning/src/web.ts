@@ -3,20 +3,29 @@ import { CapacitorException, ExceptionCode, WebPlugin } from '@capacitor/core';
 import type { DetectedBarcode } from './barcode-detector';
 import { BarcodeValueType, LensFacing } from './definitions';
 import type {
+  AcknowledgeBatchOptions,
   BarcodeFormat,
   BarcodesScannedEvent,
   BarcodeScannerPlugin,
+  EndSessionOptions,
+  ExportSessionResult,
+  FocusOnPointOptions,
   GetMaxZoomRatioResult,
   GetMinZoomRatioResult,
+  GetScanMetricsResult,
   GetZoomRatioResult,
   IsGoogleBarcodeScannerModuleAvailableResult,
   IsSupportedResult,
   PermissionStatus,
+  QueryScanLogOptions,
+  QueryScanLogResult,
   ReadBarcodesFromImageOptions,
   ReadBarcodesFromImageResult,
   ScanResult,
   SetZoomRatioOptions,
   StartScanOptions,
+  StartSessionOptions,
+  WaitForGoogleBarcodeScannerModuleOptions,
   IsTorchEnabledResult,
   IsTorchAvailableResult,
 } from './definitions';
@@ -141,6 +150,36 @@ export class BarcodeScannerWeb
     throw this.createUnimplementedException();
   }
 
+  async startSession(_options: StartSessionOptions): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
+  async endSession(_options?: EndSessionOptions): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
+  async exportSession(): Promise<ExportSessionResult> {
+    throw this.createUnimplementedException();
+  }
+
+  async queryScanLog(
+    _options?: QueryScanLogOptions,
+  ): Promise<QueryScanLogResult> {
+    throw this.createUnimplementedException();
+  }
+
+  async clearScanLog(): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
+  async getScanMetrics(): Promise<GetScanMetricsResult> {
+    throw this.createUnimplementedException();
+  }
+
+  async acknowledgeBatch(_options: AcknowledgeBatchOptions): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
   async isSupported(): Promise<IsSupportedResult> {
     return { supported: this._isSupported };
   }
@@ -169,6 +208,10 @@ export class BarcodeScannerWeb
     throw this.createUnimplementedException();
   }
 
+  async focusOnPoint(_options: FocusOnPointOptions): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
   async getZoomRatio(): Promise<GetZoomRatioResult> {
     throw this.createUnimplementedException();
   }
@@ -193,6 +236,12 @@ export class BarcodeScannerWeb
     throw this.createUnimplementedException();
   }
 
+  async waitForGoogleBarcodeScannerModule(
+    _options?: WaitForGoogleBarcodeScannerModuleOptions,
+  ): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
   async checkPermissions(): Promise<PermissionStatus> {
     try {
       const result = await navigator.permissions.query({
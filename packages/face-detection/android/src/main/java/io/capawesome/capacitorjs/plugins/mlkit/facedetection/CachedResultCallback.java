@@ -0,0 +1,13 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+
+public interface CachedResultCallback {
+    /**
+     * @param result The cached result or `null` if there is none.
+     */
+    void success(@NonNull String key, @Nullable JSObject result);
+    void error(Exception exception);
+}
@@ -0,0 +1,115 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.Logger;
+import com.google.mlkit.vision.face.Face;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.CropFacesOptions;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes square crops of the detected faces from the bitmap the faces were detected in.
+ */
+public class FaceCropper {
+
+    private static final String DIRECTORY_NAME = "face-crops";
+
+    @NonNull
+    private final Context context;
+
+    public FaceCropper(@NonNull Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Returns the file URIs of the crops, in the same order as the faces.
+     * An entry is `null` if the crop could not be written.
+     *
+     * @param offsets The offsets of the face coordinates within the bitmap, in the same order as the faces.
+     */
+    @NonNull
+    public List<String> cropFaces(
+        @NonNull Bitmap bitmap,
+        @NonNull List<Face> faces,
+        @Nullable List<Point> offsets,
+        @NonNull CropFacesOptions options
+    ) {
+        List<String> cropPaths = new ArrayList<>();
+        File directory = new File(context.getCacheDir(), DIRECTORY_NAME);
+        if (!directory.exists() && !directory.mkdirs()) {
+            Logger.error(FaceDetectionPlugin.TAG, "Directory for face crops could not be created.", null);
+        }
+        for (int i = 0; i < faces.size(); i++) {
+            Point offset = offsets == null ? new Point(0, 0) : offsets.get(i);
+            String cropPath = null;
+            try {
+                Bitmap crop = cropFace(bitmap, faces.get(i), offset, options);
+                cropPath = writeCrop(directory, crop, options);
+                crop.recycle();
+            } catch (Exception exception) {
+                Logger.error(FaceDetectionPlugin.TAG, exception.getMessage(), exception);
+            }
+            cropPaths.add(cropPath);
+        }
+        return cropPaths;
+    }
+
+    /**
+     * The crop is centered on the bounding box and enlarged by `padding` times the longest side on each side.
+     * If rotation is enabled, the crop is rotated by `headEulerAngleZ`, so that the face is upright.
+     */
+    @NonNull
+    private Bitmap cropFace(@NonNull Bitmap bitmap, @NonNull Face face, @NonNull Point offset, @NonNull CropFacesOptions options) {
+        Rect boundingBox = face.getBoundingBox();
+        float side = Math.max(boundingBox.width(), boundingBox.height()) * (1 + 2 * options.getPadding());
+        int size = options.getSize();
+
+        Matrix matrix = new Matrix();
+        matrix.setTranslate(-boundingBox.exactCenterX() - offset.x, -boundingBox.exactCenterY() - offset.y);
+        if (options.isRotationEnabled()) {
+            matrix.postRotate(face.getHeadEulerAngleZ());
+        }
+        matrix.postScale(size / side, size / side);
+        matrix.postTranslate(size / 2f, size / 2f);
+
+        Bitmap crop = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(crop);
+        canvas.drawBitmap(bitmap, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+        return crop;
+    }
+
+    @Nullable
+    private String writeCrop(@NonNull File directory, @NonNull Bitmap crop, @NonNull CropFacesOptions options) throws IOException {
+        File file = new File(directory, "face_" + UUID.randomUUID() + getFileExtension(options.getFormat()));
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            if (!crop.compress(options.getFormat(), options.getQuality(), outputStream)) {
+                return null;
+            }
+        }
+        return Uri.fromFile(file).toString();
+    }
+
+    @NonNull
+    private static String getFileExtension(@NonNull Bitmap.CompressFormat format) {
+        if (format == Bitmap.CompressFormat.PNG) {
+            return ".png";
+        } else if (format == Bitmap.CompressFormat.JPEG) {
+            return ".jpg";
+        } else {
+            return ".webp";
+        }
+    }
+}
@@ -1,21 +1,87 @@
 package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
 
+import android.graphics.Bitmap;
+import android.graphics.Point;
 import android.net.Uri;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.PermissionState;
 import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.face.Face;
 import com.google.mlkit.vision.face.FaceDetector;
-import com.google.mlkit.vision.face.FaceDetectorOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.CropFacesOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.DecodedImage;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.FaceDetectorSettings;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.GetCacheStatsResult;
 import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImageOptions;
 import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImageResult;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImagesOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImagesResult;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.StartDetectionOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.TilingOptions;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class FaceDetection {
 
+    private static final int PRELOAD_IMAGE_SIZE = 32;
+    /**
+     * The maximum length of the longest side of a bitmap that is decoded without `maxDetectionDimension`,
+     * so that images with a very high resolution do not exhaust the memory.
+     */
+    private static final int DEFAULT_MAX_BITMAP_DIMENSION = 4096;
+    private static final long DETECTION_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final int IO_THREAD_COUNT = 2;
+    private static final int COMPUTE_THREAD_COUNT = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+
     @NonNull
     private final FaceDetectionPlugin plugin;
 
+    @NonNull
+    private final FaceDetectorPool faceDetectorPool = new FaceDetectorPool();
+
+    @NonNull
+    private final FaceDetectionStream faceDetectionStream;
+
+    @NonNull
+    private final FaceCropper faceCropper;
+
+    @NonNull
+    private final TiledFaceDetector tiledFaceDetector;
+
+    @NonNull
+    private final FaceResultCache faceResultCache;
+
+    /**
+     * Runs the task listeners of `processImage(...)`, including the result serialization,
+     * so that neither blocks the main thread.
+     */
+    @NonNull
+    private final ThreadPoolExecutor detectionExecutor;
+
+    /**
+     * Decodes the images of `processImages(...)` and hashes the files for the result cache.
+     */
+    @NonNull
+    private final ThreadPoolExecutor ioExecutor;
+
+    /**
+     * Serializes the results of `processImages(...)` and prepares the tiles of a tiled detection.
+     */
+    @NonNull
+    private final ThreadPoolExecutor computeExecutor;
+
     public FaceDetection(@NonNull FaceDetectionPlugin plugin) {
         this.plugin = plugin;
+        this.faceDetectionStream = new FaceDetectionStream(plugin);
+        this.faceCropper = new FaceCropper(plugin.getContext());
+        this.faceResultCache = new FaceResultCache(plugin.getContext());
+        this.detectionExecutor = FaceDetectionHelper.createIdleTerminatingExecutor(1, DETECTION_THREAD_KEEP_ALIVE_SECONDS);
+        this.ioExecutor = FaceDetectionHelper.createIdleTerminatingExecutor(IO_THREAD_COUNT, DETECTION_THREAD_KEEP_ALIVE_SECONDS);
+        this.computeExecutor = FaceDetectionHelper.createIdleTerminatingExecutor(COMPUTE_THREAD_COUNT, DETECTION_THREAD_KEEP_ALIVE_SECONDS);
+        this.tiledFaceDetector = new TiledFaceDetector(faceDetectorPool, computeExecutor, COMPUTE_THREAD_COUNT);
     }
 
     @Nullable
@@ -27,45 +93,242 @@ public class FaceDetection {
         }
     }
 
+    /**
+     * Loads the image and downscales it if `maxDetectionDimension` is greater than `0`.
+     *
+     * If `requireBitmap` is `true`, the image is always decoded by the plugin, so that the bitmap is available.
+     * In this case, the image is downscaled to `DEFAULT_MAX_BITMAP_DIMENSION` if `maxDetectionDimension` is not set.
+     */
+    @Nullable
+    public DecodedImage loadImage(@NonNull String path, int maxDetectionDimension, boolean requireBitmap) {
+        if (maxDetectionDimension <= 0 && requireBitmap) {
+            maxDetectionDimension = DEFAULT_MAX_BITMAP_DIMENSION;
+        }
+        if (maxDetectionDimension <= 0) {
+            InputImage inputImage = createInputImageFromFilePath(path);
+            return inputImage == null ? null : new DecodedImage(inputImage, null, 1);
+        }
+        try {
+            return ImageLoader.load(this.plugin.getContext(), Uri.parse(path), maxDetectionDimension);
+        } catch (Exception exception) {
+            return null;
+        }
+    }
+
     public void processImage(ProcessImageOptions options, ProcessImageResultCallback callback) {
         InputImage inputImage = options.getInputImage();
-        int performanceMode = options.getPerformanceMode();
-        int landmarkMode = options.getLandmarkMode();
-        int contourMode = options.getContourMode();
-        int classificationMode = options.getClassificationMode();
-        float minFaceSize = options.getMinFaceSize();
-        boolean enableTracking = options.isTrackingEnabled();
-
-        FaceDetectorOptions.Builder builder = new FaceDetectorOptions.Builder();
-        builder.setPerformanceMode(performanceMode);
-        builder.setLandmarkMode(landmarkMode);
-        builder.setContourMode(contourMode);
-        builder.setClassificationMode(classificationMode);
-        builder.setMinFaceSize(minFaceSize);
-        if (enableTracking) {
-            builder.enableTracking();
-        }
-        FaceDetectorOptions faceDetectorOptions = builder.build();
-
-        final FaceDetector faceDetector = com.google.mlkit.vision.face.FaceDetection.getClient(faceDetectorOptions);
-        plugin
-            .getActivity()
-            .runOnUiThread(() -> {
-                faceDetector
-                    .process(inputImage)
-                    .addOnSuccessListener(faces -> {
-                        faceDetector.close();
-                        ProcessImageResult result = new ProcessImageResult(faces);
-                        callback.success(result);
-                    })
-                    .addOnCanceledListener(() -> {
-                        faceDetector.close();
-                        callback.cancel();
-                    })
-                    .addOnFailureListener(exception -> {
-                        faceDetector.close();
+        FaceDetectorSettings settings = options.getFaceDetectorSettings();
+        TilingOptions tilingOptions = options.getTilingOptions();
+        Bitmap bitmap = options.getBitmap();
+
+        if (tilingOptions != null && bitmap != null) {
+            tiledFaceDetector.detect(
+                bitmap,
+                settings,
+                tilingOptions,
+                new TiledFaceDetector.Callback() {
+                    @Override
+                    public void success(List<Face> faces, List<Point> offsets) {
+                        callback.success(createProcessImageResult(options, faces, offsets));
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
                         callback.error(exception);
-                    });
+                    }
+                }
+            );
+            return;
+        }
+
+        final FaceDetector faceDetector = faceDetectorPool.acquire(settings);
+        faceDetector
+            .process(inputImage)
+            .addOnSuccessListener(detectionExecutor, faces -> {
+                faceDetectorPool.release(settings, faceDetector);
+                callback.success(createProcessImageResult(options, faces, null));
+            })
+            .addOnCanceledListener(detectionExecutor, () -> {
+                faceDetectorPool.release(settings, faceDetector);
+                callback.cancel();
+            })
+            .addOnFailureListener(detectionExecutor, exception -> {
+                faceDetectorPool.release(settings, faceDetector);
+                callback.error(exception);
             });
     }
+
+    /**
+     * Processes all images with one detector from the pool.
+     *
+     * The callback is invoked on a background thread.
+     */
+    public void processImages(ProcessImagesOptions options, ProcessImagesResultCallback callback) {
+        FaceDetectorSettings settings = options.getFaceDetectorSettings();
+
+        final FaceDetector faceDetector = faceDetectorPool.acquire(settings);
+        FaceDetectionBatch batch = new FaceDetectionBatch(
+            plugin.getContext(),
+            faceDetector,
+            ioExecutor,
+            computeExecutor,
+            options.getPaths(),
+            options.getConcurrency(),
+            options.isCompact(),
+            options.getMaxDetectionDimension(),
+            new ProcessImagesResultCallback() {
+                @Override
+                public void imageProcessed(
+                    int index,
+                    String path,
+                    @Nullable ProcessImageResult result,
+                    @Nullable Exception exception
+                ) {
+                    callback.imageProcessed(index, path, result, exception);
+                }
+
+                @Override
+                public void success(ProcessImagesResult result) {
+                    faceDetectorPool.release(settings, faceDetector);
+                    callback.success(result);
+                }
+            }
+        );
+        batch.start();
+    }
+
+    /**
+     * Creates the detector for the given settings and runs it once on a blank image,
+     * so that the model is initialized before the first real image is processed.
+     */
+    public void preload(FaceDetectorSettings settings, PreloadResultCallback callback) {
+        Bitmap bitmap = Bitmap.createBitmap(PRELOAD_IMAGE_SIZE, PRELOAD_IMAGE_SIZE, Bitmap.Config.ARGB_8888);
+        InputImage inputImage = InputImage.fromBitmap(bitmap, 0);
+
+        final FaceDetector faceDetector = faceDetectorPool.acquire(settings);
+        faceDetector
+            .process(inputImage)
+            .addOnSuccessListener(detectionExecutor, faces -> {
+                faceDetectorPool.release(settings, faceDetector);
+                callback.success();
+            })
+            .addOnCanceledListener(detectionExecutor, () -> {
+                faceDetectorPool.release(settings, faceDetector);
+                callback.success();
+            })
+            .addOnFailureListener(detectionExecutor, exception -> {
+                faceDetectorPool.release(settings, faceDetector);
+                callback.error(exception);
+            });
+    }
+
+    private ProcessImageResult createProcessImageResult(ProcessImageOptions options, List<Face> faces, @Nullable List<Point> offsets) {
+        ProcessImageResult result = new ProcessImageResult(faces, options.isCompact(), options.getScale());
+        result.setOffsets(offsets);
+        CropFacesOptions cropFacesOptions = options.getCropFacesOptions();
+        Bitmap bitmap = options.getBitmap();
+        if (cropFacesOptions != null && bitmap != null) {
+            result.setCropPaths(faceCropper.cropFaces(bitmap, faces, offsets, cropFacesOptions));
+        }
+        return result;
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public void startDetection(StartDetectionOptions options, StartDetectionResultCallback callback) {
+        faceDetectionStream.start(options, callback);
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public void stopDetection() {
+        faceDetectionStream.stop();
+    }
+
+    /**
+     * Hashes the file on the IO executor and looks up the cached result, so that large files do not block the calling thread.
+     *
+     * The callback is invoked on a background thread.
+     */
+    public void getCachedResult(
+        @NonNull String path,
+        @NonNull FaceDetectorSettings settings,
+        boolean compact,
+        int maxDetectionDimension,
+        @Nullable TilingOptions tilingOptions,
+        @NonNull CachedResultCallback callback
+    ) {
+        ioExecutor.execute(() -> {
+            String key;
+            try {
+                key = createResultCacheKey(path, settings, compact, maxDetectionDimension, tilingOptions);
+            } catch (Exception exception) {
+                callback.error(exception);
+                return;
+            }
+            callback.success(key, faceResultCache.get(key));
+        });
+    }
+
+    /**
+     * Creates the key of the result cache from the file content and every option that affects the result.
+     */
+    @NonNull
+    private String createResultCacheKey(
+        @NonNull String path,
+        @NonNull FaceDetectorSettings settings,
+        boolean compact,
+        int maxDetectionDimension,
+        @Nullable TilingOptions tilingOptions
+    ) throws IOException {
+        StringBuilder optionsKey = new StringBuilder()
+            .append(settings.getPerformanceMode())
+            .append(',')
+            .append(settings.getLandmarkMode())
+            .append(',')
+            .append(settings.getContourMode())
+            .append(',')
+            .append(settings.getClassificationMode())
+            .append(',')
+            .append(settings.getMinFaceSize())
+            .append(',')
+            .append(settings.isTrackingEnabled())
+            .append(',')
+            .append(compact)
+            .append(',')
+            .append(maxDetectionDimension);
+        if (tilingOptions != null) {
+            optionsKey
+                .append(',')
+                .append(tilingOptions.getRows())
+                .append(',')
+                .append(tilingOptions.getColumns())
+                .append(',')
+                .append(tilingOptions.getOverlap());
+        }
+        return faceResultCache.createKey(Uri.parse(path), optionsKey.toString());
+    }
+
+    public void putCachedResult(@NonNull String key, @NonNull JSObject result) {
+        faceResultCache.put(key, result);
+    }
+
+    @NonNull
+    public GetCacheStatsResult getCacheStats() {
+        return faceResultCache.getStats();
+    }
+
+    public PermissionState getCameraPermission() {
+        return plugin.getPermissionState(FaceDetectionPlugin.CAMERA);
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public void release() {
+        faceDetectionStream.stop();
+        faceDetectorPool.closeAll();
+    }
 }
@@ -0,0 +1,149 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.face.FaceDetector;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.DecodedImage;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImageResult;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImagesResult;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Processes a list of images with a shared detector.
+ *
+ * The images are decoded on the I/O executor and the detection results are serialized on the compute executor.
+ * At most `concurrency` images are decoded or detected at the same time, which also bounds the number of
+ * decoded bitmaps in memory.
+ */
+public class FaceDetectionBatch {
+
+    @NonNull
+    private final Context context;
+
+    @NonNull
+    private final FaceDetector faceDetector;
+
+    @NonNull
+    private final Executor ioExecutor;
+
+    @NonNull
+    private final Executor computeExecutor;
+
+    @NonNull
+    private final List<String> paths;
+
+    private final int concurrency;
+    private final boolean compact;
+    private final int maxDetectionDimension;
+
+    @NonNull
+    private final ProcessImagesResultCallback callback;
+
+    private int nextIndex;
+    private int completedCount;
+    private int failedCount;
+    private int faceCount;
+    private long startTime;
+
+    public FaceDetectionBatch(
+        @NonNull Context context,
+        @NonNull FaceDetector faceDetector,
+        @NonNull Executor ioExecutor,
+        @NonNull Executor computeExecutor,
+        @NonNull List<String> paths,
+        int concurrency,
+        boolean compact,
+        int maxDetectionDimension,
+        @NonNull ProcessImagesResultCallback callback
+    ) {
+        this.context = context;
+        this.faceDetector = faceDetector;
+        this.ioExecutor = ioExecutor;
+        this.computeExecutor = computeExecutor;
+        this.paths = paths;
+        this.concurrency = Math.max(1, concurrency);
+        this.compact = compact;
+        this.maxDetectionDimension = maxDetectionDimension;
+        this.callback = callback;
+    }
+
+    public void start() {
+        startTime = SystemClock.elapsedRealtime();
+        if (paths.isEmpty()) {
+            finish();
+            return;
+        }
+        int initialCount = Math.min(concurrency, paths.size());
+        for (int i = 0; i < initialCount; i++) {
+            processNextImage();
+        }
+    }
+
+    private void processNextImage() {
+        int index;
+        synchronized (this) {
+            if (nextIndex >= paths.size()) {
+                return;
+            }
+            index = nextIndex++;
+        }
+        ioExecutor.execute(() -> processImage(index));
+    }
+
+    private void processImage(int index) {
+        String path = paths.get(index);
+        DecodedImage image;
+        try {
+            if (maxDetectionDimension > 0) {
+                image = ImageLoader.load(context, Uri.parse(path), maxDetectionDimension);
+            } else {
+                image = new DecodedImage(InputImage.fromFilePath(context, Uri.parse(path)), null, 1);
+            }
+        } catch (Exception exception) {
+            complete(index, null, new Exception(FaceDetectionPlugin.ERROR_LOAD_IMAGE_FAILED, exception));
+            return;
+        }
+        faceDetector
+            .process(image.getInputImage())
+            .addOnSuccessListener(computeExecutor, faces ->
+                complete(index, new ProcessImageResult(faces, compact, image.getScale()), null)
+            )
+            .addOnCanceledListener(computeExecutor, () ->
+                complete(index, null, new Exception(FaceDetectionPlugin.ERROR_PROCESS_IMAGE_CANCELED))
+            )
+            .addOnFailureListener(computeExecutor, exception -> complete(index, null, exception));
+    }
+
+    private void complete(int index, @Nullable ProcessImageResult result, @Nullable Exception exception) {
+        callback.imageProcessed(index, paths.get(index), result, exception);
+        boolean isFinished;
+        synchronized (this) {
+            completedCount++;
+            if (result == null) {
+                failedCount++;
+            } else {
+                faceCount += result.getFaceCount();
+            }
+            isFinished = completedCount == paths.size();
+        }
+        if (isFinished) {
+            finish();
+        } else {
+            processNextImage();
+        }
+    }
+
+    private void finish() {
+        long duration = SystemClock.elapsedRealtime() - startTime;
+        ProcessImagesResult result;
+        synchronized (this) {
+            result = new ProcessImagesResult(completedCount - failedCount, failedCount, faceCount, duration);
+        }
+        callback.success(result);
+    }
+}
@@ -0,0 +1,27 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import androidx.annotation.NonNull;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class FaceDetectionHelper {
+
+    /**
+     * Creates an executor with a fixed number of threads that terminate when they are idle.
+     *
+     * Such an executor never needs to be shut down, so late task listeners can always be dispatched.
+     */
+    @NonNull
+    public static ThreadPoolExecutor createIdleTerminatingExecutor(int threadCount, long keepAliveSeconds) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            keepAliveSeconds,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -1,31 +1,62 @@
 package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
 
+import android.Manifest;
+import android.graphics.Bitmap;
 import android.graphics.PointF;
 import android.graphics.Rect;
 import android.net.Uri;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.camera.core.CameraSelector;
 import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.Logger;
+import com.getcapacitor.PermissionState;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
-import com.google.mlkit.vision.common.InputImage;
+import com.getcapacitor.annotation.Permission;
+import com.getcapacitor.annotation.PermissionCallback;
 import com.google.mlkit.vision.face.Face;
 import com.google.mlkit.vision.face.FaceContour;
 import com.google.mlkit.vision.face.FaceDetectorOptions;
 import com.google.mlkit.vision.face.FaceLandmark;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.CropFacesOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.DecodedImage;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.FaceDetectorSettings;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.GetCacheStatsResult;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.GestureOptions;
 import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImageOptions;
 import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImageResult;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImagesOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImagesResult;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.StartDetectionOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.TilingOptions;
 import java.util.List;
 
-@CapacitorPlugin(name = "FaceDetection")
+@CapacitorPlugin(
+    name = "FaceDetection",
+    permissions = { @Permission(strings = { Manifest.permission.CAMERA }, alias = FaceDetectionPlugin.CAMERA) }
+)
 public class FaceDetectionPlugin extends Plugin {
 
     public static final String TAG = "FaceDetection";
+
+    // Permission alias constants
+    public static final String CAMERA = "camera";
+
+    public static final String FACES_DETECTED_EVENT = "facesDetected";
+    public static final String IMAGE_PROCESSED_EVENT = "imageProcessed";
+    public static final String GESTURE_DETECTED_EVENT = "gestureDetected";
     public static final String ERROR_PROCESS_IMAGE_CANCELED = "processImage canceled.";
+    public static final String ERROR_START_DETECTION_CANCELED = "startDetection canceled.";
     public static final String ERROR_PATH_MISSING = "path must be provided.";
+    public static final String ERROR_PATHS_MISSING = "paths must be provided.";
     public static final String ERROR_LOAD_IMAGE_FAILED = "image could not be loaded.";
+    public static final String ERROR_CROP_FACES_INVALID = "cropFaces must have a size greater than 0 and a quality between 0 and 100.";
+    public static final String ERROR_PERMISSION_DENIED = "User denied access to camera.";
 
     private FaceDetection implementation;
 
@@ -38,6 +69,42 @@ public class FaceDetectionPlugin extends Plugin {
         }
     }
 
+    @Override
+    protected void handleOnDestroy() {
+        if (implementation == null) {
+            return;
+        }
+        implementation.release();
+    }
+
+    @PluginMethod
+    public void preload(PluginCall call) {
+        try {
+            FaceDetectorSettings settings = createFaceDetectorSettings(call);
+
+            implementation.preload(
+                settings,
+                new PreloadResultCallback() {
+                    @Override
+                    public void success() {
+                        call.resolve();
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        String message = exception.getMessage();
+                        Logger.error(TAG, message, exception);
+                        call.reject(message);
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            String message = exception.getMessage();
+            Logger.error(TAG, message, exception);
+            call.reject(message);
+        }
+    }
+
     @PluginMethod
     public void processImage(PluginCall call) {
         try {
@@ -46,34 +113,97 @@ public class FaceDetectionPlugin extends Plugin {
                 call.reject(ERROR_PATH_MISSING);
                 return;
             }
-            Integer performanceMode = call.getInt("performanceMode", FaceDetectorOptions.PERFORMANCE_MODE_FAST);
-            Integer landmarkMode = call.getInt("landmarkMode", FaceDetectorOptions.LANDMARK_MODE_NONE);
-            Integer contourMode = call.getInt("contourMode", FaceDetectorOptions.CONTOUR_MODE_NONE);
-            Integer classificationMode = call.getInt("classificationMode", FaceDetectorOptions.CLASSIFICATION_MODE_NONE);
-            Float minFaceSize = call.getFloat("minFaceSize", 0.1f);
-            Boolean enableTracking = call.getBoolean("enableTracking", false);
-
-            InputImage image = implementation.createInputImageFromFilePath(path);
+            FaceDetectorSettings settings = createFaceDetectorSettings(call);
+
+            int maxDetectionDimension = Math.max(0, call.getInt("maxDetectionDimension", 0));
+
+            CropFacesOptions cropFacesOptions = null;
+            JSObject cropFacesOption = call.getObject("cropFaces");
+            if (cropFacesOption != null) {
+                cropFacesOptions = createCropFacesOptions(cropFacesOption);
+                if (cropFacesOptions == null) {
+                    call.reject(ERROR_CROP_FACES_INVALID);
+                    return;
+                }
+            }
+
+            TilingOptions tilingOptions = null;
+            JSObject tilingOption = call.getObject("tiling");
+            if (tilingOption != null) {
+                tilingOptions = createTilingOptions(tilingOption);
+            }
+
+            boolean compact = call.getBoolean("compact", false);
+
+            // Crops are not cached, since their files may have been deleted in the meantime
+            if (call.getBoolean("cache", false) && cropFacesOptions == null) {
+                TilingOptions finalTilingOptions = tilingOptions;
+                implementation.getCachedResult(
+                    path,
+                    settings,
+                    compact,
+                    maxDetectionDimension,
+                    tilingOptions,
+                    new CachedResultCallback() {
+                        @Override
+                        public void success(@NonNull String key, @Nullable JSObject result) {
+                            if (result != null) {
+                                call.resolve(result);
+                                return;
+                            }
+                            detectFaces(call, path, settings, maxDetectionDimension, null, finalTilingOptions, compact, key);
+                        }
+
+                        @Override
+                        public void error(Exception exception) {
+                            String message = exception.getMessage();
+                            Logger.error(TAG, message, exception);
+                            call.reject(message);
+                        }
+                    }
+                );
+                return;
+            }
+            detectFaces(call, path, settings, maxDetectionDimension, cropFacesOptions, tilingOptions, compact, null);
+        } catch (Exception exception) {
+            String message = exception.getMessage();
+            Logger.error(TAG, message, exception);
+            call.reject(message);
+        }
+    }
+
+    /**
+     * @param resultCacheKey The key under which the result is cached or `null` if the result is not cached.
+     */
+    private void detectFaces(
+        PluginCall call,
+        String path,
+        FaceDetectorSettings settings,
+        int maxDetectionDimension,
+        @Nullable CropFacesOptions cropFacesOptions,
+        @Nullable TilingOptions tilingOptions,
+        boolean compact,
+        @Nullable String resultCacheKey
+    ) {
+        try {
+            boolean requireBitmap = cropFacesOptions != null || tilingOptions != null;
+            DecodedImage image = implementation.loadImage(path, maxDetectionDimension, requireBitmap);
             if (image == null) {
                 call.reject(ERROR_LOAD_IMAGE_FAILED);
                 return;
             }
-            ProcessImageOptions options = new ProcessImageOptions(
-                image,
-                performanceMode,
-                landmarkMode,
-                contourMode,
-                classificationMode,
-                minFaceSize,
-                enableTracking
-            );
+            ProcessImageOptions options = new ProcessImageOptions(image, settings, compact, cropFacesOptions, tilingOptions);
 
             implementation.processImage(
                 options,
                 new ProcessImageResultCallback() {
                     @Override
                     public void success(ProcessImageResult result) {
-                        call.resolve(result.toJSObject());
+                        JSObject resultObject = result.toJSObject();
+                        if (resultCacheKey != null) {
+                            implementation.putCachedResult(resultCacheKey, resultObject);
+                        }
+                        call.resolve(resultObject);
                     }
 
                     @Override
@@ -95,4 +225,243 @@ public class FaceDetectionPlugin extends Plugin {
             call.reject(message);
         }
     }
+
+    @PluginMethod
+    public void processImages(PluginCall call) {
+        try {
+            JSArray pathsOption = call.getArray("paths");
+            if (pathsOption == null) {
+                call.reject(ERROR_PATHS_MISSING);
+                return;
+            }
+            List<String> paths = pathsOption.toList();
+            FaceDetectorSettings settings = createFaceDetectorSettings(call);
+            int concurrency = Math.max(1, call.getInt("concurrency", 2));
+            ProcessImagesOptions options = new ProcessImagesOptions(
+                paths,
+                settings,
+                concurrency,
+                call.getBoolean("compact", false),
+                Math.max(0, call.getInt("maxDetectionDimension", 0))
+            );
+
+            implementation.processImages(
+                options,
+                new ProcessImagesResultCallback() {
+                    @Override
+                    public void imageProcessed(
+                        int index,
+                        String path,
+                        @Nullable ProcessImageResult result,
+                        @Nullable Exception exception
+                    ) {
+                        notifyImageProcessedListener(index, path, result, exception);
+                    }
+
+                    @Override
+                    public void success(ProcessImagesResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            String message = exception.getMessage();
+            Logger.error(TAG, message, exception);
+            call.reject(message);
+        }
+    }
+
+    @PluginMethod
+    public void getCacheStats(PluginCall call) {
+        try {
+            GetCacheStatsResult result = implementation.getCacheStats();
+            call.resolve(result.toJSObject());
+        } catch (Exception exception) {
+            String message = exception.getMessage();
+            Logger.error(TAG, message, exception);
+            call.reject(message);
+        }
+    }
+
+    @PluginMethod
+    public void startDetection(PluginCall call) {
+        try {
+            FaceDetectorSettings settings = createFaceDetectorSettings(call);
+            String lensFacingOption = call.getString("lensFacing", "FRONT");
+            int lensFacing = lensFacingOption.equals("BACK") ? CameraSelector.LENS_FACING_BACK : CameraSelector.LENS_FACING_FRONT;
+            GestureOptions gestureOptions = null;
+            JSObject gesturesOption = call.getObject("gestures");
+            if (gesturesOption != null) {
+                gestureOptions = createGestureOptions(gesturesOption);
+            }
+            StartDetectionOptions options = new StartDetectionOptions(
+                settings,
+                lensFacing,
+                call.getBoolean("compact", false),
+                gestureOptions
+            );
+
+            PermissionState permissionState = implementation.getCameraPermission();
+            if (permissionState == PermissionState.DENIED) {
+                call.reject(ERROR_PERMISSION_DENIED);
+                return;
+            } else if (permissionState != PermissionState.GRANTED) {
+                requestPermissionForAlias(CAMERA, call, "cameraPermissionsCallback");
+                return;
+            }
+
+            getActivity()
+                .runOnUiThread(() -> {
+                    implementation.startDetection(
+                        options,
+                        new StartDetectionResultCallback() {
+                            @Override
+                            public void success() {
+                                call.resolve();
+                            }
+
+                            @Override
+                            public void error(Exception exception) {
+                                String message = exception.getMessage();
+                                Logger.error(TAG, message, exception);
+                                call.reject(message);
+                            }
+                        }
+                    );
+                });
+        } catch (Exception exception) {
+            String message = exception.getMessage();
+            Logger.error(TAG, message, exception);
+            call.reject(message);
+        }
+    }
+
+    @PluginMethod
+    public void stopDetection(PluginCall call) {
+        try {
+            getActivity()
+                .runOnUiThread(() -> {
+                    implementation.stopDetection();
+                    call.resolve();
+                });
+        } catch (Exception exception) {
+            String message = exception.getMessage();
+            Logger.error(TAG, message, exception);
+            call.reject(message);
+        }
+    }
+
+    public void notifyFacesDetectedListener(List<Face> faces, int imageWidth, int imageHeight, boolean compact) {
+        try {
+            JSObject imageSizeResult = new JSObject();
+            imageSizeResult.put("width", imageWidth);
+            imageSizeResult.put("height", imageHeight);
+
+            JSObject result = new ProcessImageResult(faces, compact).toJSObject();
+            result.put("imageSize", imageSizeResult);
+            notifyListeners(FACES_DETECTED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
+    public void notifyGestureDetectedListener(String type, int trackingId) {
+        try {
+            JSObject result = new JSObject();
+            result.put("type", type);
+            result.put("trackingId", trackingId);
+            notifyListeners(GESTURE_DETECTED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
+    public void notifyImageProcessedListener(
+        int index,
+        String path,
+        @Nullable ProcessImageResult processImageResult,
+        @Nullable Exception processImageException
+    ) {
+        try {
+            JSObject result = processImageResult == null ? new JSObject() : processImageResult.toJSObject();
+            result.put("index", index);
+            result.put("path", path);
+            if (processImageException != null) {
+                result.put("errorMessage", processImageException.getMessage());
+            }
+            notifyListeners(IMAGE_PROCESSED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
+    @PermissionCallback
+    private void cameraPermissionsCallback(PluginCall call) {
+        if (!call.getMethodName().equals("startDetection")) {
+            return;
+        }
+        if (implementation.getCameraPermission() == PermissionState.GRANTED) {
+            startDetection(call);
+        } else {
+            call.reject(ERROR_PERMISSION_DENIED);
+        }
+    }
+
+    @Nullable
+    private CropFacesOptions createCropFacesOptions(JSObject cropFacesOption) {
+        int size = cropFacesOption.getInteger("size", 224);
+        float padding = (float) Math.max(0, cropFacesOption.optDouble("padding", 0.25));
+        int quality = cropFacesOption.getInteger("quality", 90);
+        boolean rotate = cropFacesOption.getBoolean("rotate", false);
+        if (size <= 0 || quality < 0 || quality > 100) {
+            return null;
+        }
+        Bitmap.CompressFormat format;
+        switch (cropFacesOption.getString("format", "JPEG")) {
+            case "PNG":
+                format = Bitmap.CompressFormat.PNG;
+                break;
+            case "WEBP":
+                format = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.WEBP;
+                break;
+            default:
+                format = Bitmap.CompressFormat.JPEG;
+                break;
+        }
+        return new CropFacesOptions(size, padding, format, quality, rotate);
+    }
+
+    private GestureOptions createGestureOptions(JSObject gesturesOption) {
+        float eyeClosedThreshold = (float) gesturesOption.optDouble("eyeClosedThreshold", 0.2);
+        float eyeOpenThreshold = (float) gesturesOption.optDouble("eyeOpenThreshold", 0.6);
+        float smileThreshold = (float) gesturesOption.optDouble("smileThreshold", 0.8);
+        float smileReleaseThreshold = (float) gesturesOption.optDouble("smileReleaseThreshold", 0.3);
+        float headTurnAngle = (float) gesturesOption.optDouble("headTurnAngle", 25);
+        float headCenterAngle = (float) gesturesOption.optDouble("headCenterAngle", 10);
+        return new GestureOptions(
+            eyeClosedThreshold,
+            Math.max(eyeClosedThreshold, eyeOpenThreshold),
+            smileThreshold,
+            Math.min(smileReleaseThreshold, smileThreshold),
+            headTurnAngle,
+            Math.min(headCenterAngle, headTurnAngle)
+        );
+    }
+
+    private TilingOptions createTilingOptions(JSObject tilingOption) {
+        int rows = Math.max(1, tilingOption.getInteger("rows", 2));
+        int columns = Math.max(1, tilingOption.getInteger("columns", 2));
+        float overlap = (float) Math.min(Math.max(0, tilingOption.optDouble("overlap", 0.2)), 0.9);
+        return new TilingOptions(rows, columns, overlap);
+    }
+
+    private FaceDetectorSettings createFaceDetectorSettings(PluginCall call) {
+        Integer performanceMode = call.getInt("performanceMode", FaceDetectorOptions.PERFORMANCE_MODE_FAST);
+        Integer landmarkMode = call.getInt("landmarkMode", FaceDetectorOptions.LANDMARK_MODE_NONE);
+        Integer contourMode = call.getInt("contourMode", FaceDetectorOptions.CONTOUR_MODE_NONE);
+        Integer classificationMode = call.getInt("classificationMode", FaceDetectorOptions.CLASSIFICATION_MODE_NONE);
+        Float minFaceSize = call.getFloat("minFaceSize", 0.1f);
+        Boolean enableTracking = call.getBoolean("enableTracking", false);
+        return new FaceDetectorSettings(performanceMode, landmarkMode, contourMode, classificationMode, minFaceSize, enableTracking);
+    }
 }
@@ -0,0 +1,212 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import android.annotation.SuppressLint;
+import android.graphics.Color;
+import android.media.Image;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.camera.core.ImageAnalysis;
+import androidx.camera.core.ImageProxy;
+import androidx.camera.core.Preview;
+import androidx.camera.lifecycle.ProcessCameraProvider;
+import androidx.camera.view.PreviewView;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LifecycleOwner;
+import com.getcapacitor.Logger;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.face.FaceDetector;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.GestureOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.StartDetectionOptions;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs a single long-lived `FaceDetector` with tracking enabled on the frames of the camera,
+ * so that faces keep their `trackingId` across frames.
+ *
+ * Frames are analyzed on a background executor.
+ * If gestures are enabled, the faces are passed to a `FaceGestureDetector` instead of the WebView.
+ */
+public class FaceDetectionStream implements ImageAnalysis.Analyzer {
+
+    @NonNull
+    private final FaceDetectionPlugin plugin;
+
+    private static final long ANALYSIS_THREAD_KEEP_ALIVE_SECONDS = 10;
+
+    @NonNull
+    private final ThreadPoolExecutor analysisExecutor;
+
+    @Nullable
+    private ProcessCameraProvider processCameraProvider;
+
+    @Nullable
+    private PreviewView previewView;
+
+    @Nullable
+    private volatile FaceDetector faceDetector;
+
+    private volatile boolean compact;
+
+    @Nullable
+    private volatile FaceGestureDetector faceGestureDetector;
+
+    public FaceDetectionStream(@NonNull FaceDetectionPlugin plugin) {
+        this.plugin = plugin;
+        this.analysisExecutor = FaceDetectionHelper.createIdleTerminatingExecutor(1, ANALYSIS_THREAD_KEEP_ALIVE_SECONDS);
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public void start(@NonNull StartDetectionOptions options, @NonNull StartDetectionResultCallback callback) {
+        // Stop the camera if running
+        stop();
+
+        compact = options.isCompact();
+        GestureOptions gestureOptions = options.getGestureOptions();
+        if (gestureOptions != null) {
+            faceGestureDetector = new FaceGestureDetector(gestureOptions, plugin::notifyGestureDetectedListener);
+        }
+        FaceDetector faceDetector = com.google.mlkit.vision.face.FaceDetection.getClient(
+            options.getFaceDetectorSettings().toFaceDetectorOptions()
+        );
+        this.faceDetector = faceDetector;
+
+        ImageAnalysis imageAnalysis = new ImageAnalysis.Builder().setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST).build();
+        imageAnalysis.setAnalyzer(analysisExecutor, this);
+
+        ListenableFuture<ProcessCameraProvider> cameraProviderFuture = ProcessCameraProvider.getInstance(plugin.getContext());
+        cameraProviderFuture.addListener(
+            () -> {
+                try {
+                    if (this.faceDetector != faceDetector) {
+                        // Detection stopped or restarted while the camera provider was loading
+                        callback.error(new Exception(FaceDetectionPlugin.ERROR_START_DETECTION_CANCELED));
+                        return;
+                    }
+                    processCameraProvider = cameraProviderFuture.get();
+
+                    preparePreviewView();
+                    Preview preview = new Preview.Builder().build();
+                    preview.setSurfaceProvider(previewView.getSurfaceProvider());
+
+                    // Start the camera
+                    processCameraProvider.bindToLifecycle(
+                        (LifecycleOwner) plugin.getContext(),
+                        options.getCameraSelector(),
+                        preview,
+                        imageAnalysis
+                    );
+
+                    callback.success();
+                } catch (Exception exception) {
+                    stop();
+                    callback.error(exception);
+                }
+            },
+            ContextCompat.getMainExecutor(plugin.getContext())
+        );
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    public void stop() {
+        // Stop the camera
+        if (processCameraProvider != null) {
+            processCameraProvider.unbindAll();
+            processCameraProvider = null;
+        }
+        if (previewView != null) {
+            ((ViewGroup) previewView.getParent()).removeView(previewView);
+            previewView = null;
+            showWebViewBackground();
+        }
+        FaceDetector faceDetector = this.faceDetector;
+        this.faceDetector = null;
+        faceGestureDetector = null;
+        if (faceDetector != null) {
+            faceDetector.close();
+        }
+    }
+
+    public boolean isRunning() {
+        return faceDetector != null;
+    }
+
+    @Override
+    public void analyze(@NonNull ImageProxy imageProxy) {
+        @SuppressLint("UnsafeOptInUsageError")
+        Image image = imageProxy.getImage();
+        FaceDetector faceDetector = this.faceDetector;
+
+        if (image == null || faceDetector == null) {
+            imageProxy.close();
+            return;
+        }
+
+        int rotationDegrees = imageProxy.getImageInfo().getRotationDegrees();
+        InputImage inputImage = InputImage.fromMediaImage(image, rotationDegrees);
+        // The face coordinates refer to the upright image
+        boolean isRotated = rotationDegrees == 90 || rotationDegrees == 270;
+        int imageWidth = isRotated ? inputImage.getHeight() : inputImage.getWidth();
+        int imageHeight = isRotated ? inputImage.getWidth() : inputImage.getHeight();
+        faceDetector
+            .process(inputImage)
+            .addOnSuccessListener(analysisExecutor, faces -> {
+                if (this.faceDetector != faceDetector) {
+                    // Detection stopped while processing the image
+                    return;
+                }
+                FaceGestureDetector faceGestureDetector = this.faceGestureDetector;
+                if (faceGestureDetector == null) {
+                    plugin.notifyFacesDetectedListener(faces, imageWidth, imageHeight, compact);
+                } else {
+                    // Only the gestures are sent to the WebView
+                    faceGestureDetector.process(faces);
+                }
+            })
+            .addOnFailureListener(analysisExecutor, exception -> {
+                if (this.faceDetector != faceDetector) {
+                    return;
+                }
+                Logger.error(FaceDetectionPlugin.TAG, exception.getMessage(), exception);
+            })
+            .addOnCompleteListener(analysisExecutor, task -> {
+                imageProxy.close();
+            });
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    private void preparePreviewView() {
+        previewView = new PreviewView(plugin.getActivity());
+        previewView.setLayoutParams(
+            new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT)
+        );
+        previewView.setScaleType(PreviewView.ScaleType.FILL_CENTER);
+        previewView.setBackgroundColor(Color.BLACK);
+
+        // Add preview view behind the WebView
+        ((ViewGroup) plugin.getBridge().getWebView().getParent()).addView(previewView, 0);
+        hideWebViewBackground();
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    private void hideWebViewBackground() {
+        plugin.getBridge().getWebView().setBackgroundColor(Color.TRANSPARENT);
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    private void showWebViewBackground() {
+        plugin.getBridge().getWebView().setBackgroundColor(Color.WHITE);
+    }
+}
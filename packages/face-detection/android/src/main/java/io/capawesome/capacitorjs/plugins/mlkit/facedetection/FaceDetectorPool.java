@@ -0,0 +1,197 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.face.FaceDetector;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.FaceDetectorSettings;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps `FaceDetector` clients alive between calls so that each configuration
+ * only pays for the model initialization once.
+ *
+ * Each caller gets a detector of its own, so that several detectors with the same settings
+ * can process images in parallel. Detectors with tracking enabled are not pooled,
+ * since their tracking state would leak from one caller to the next.
+ * A detector that is not in use is closed after `idleTimeout` milliseconds.
+ * If more than `maxSize` detectors are pooled, the least recently used idle detectors are closed.
+ */
+public class FaceDetectorPool {
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 60000;
+    public static final int DEFAULT_MAX_SIZE = 4;
+
+    private final long idleTimeout;
+    private final int maxSize;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Access-ordered, so iteration starts with the least recently used detector.
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(8, 0.75f, true);
+    // Also contains the detectors that were removed by `closeAll` while in use.
+    private final IdentityHashMap<FaceDetector, Entry> entriesByDetector = new IdentityHashMap<>();
+
+    public FaceDetectorPool() {
+        this(DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_SIZE);
+    }
+
+    public FaceDetectorPool(long idleTimeout, int maxSize) {
+        this.idleTimeout = idleTimeout;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns an idle detector for the given settings, creating it if necessary.
+     * The detector is not handed out again until it is released.
+     *
+     * Every call must be balanced with a call to `release`.
+     */
+    @NonNull
+    public synchronized FaceDetector acquire(@NonNull FaceDetectorSettings settings) {
+        if (settings.isTrackingEnabled()) {
+            return createDetector(settings);
+        }
+        Entry entry = null;
+        for (int instance = 0; entry == null; instance++) {
+            Key key = new Key(settings, instance);
+            Entry existingEntry = entries.get(key);
+            if (existingEntry == null) {
+                entry = new Entry(key, createDetector(settings));
+                entries.put(key, entry);
+                entriesByDetector.put(entry.detector, entry);
+            } else if (existingEntry.useCount == 0) {
+                entry = existingEntry;
+            }
+        }
+        handler.removeCallbacks(entry.evictRunnable);
+        // Mark the entry as in use before trimming, so that the new detector is never evicted
+        entry.useCount++;
+        trimToMaxSize();
+        return entry.detector;
+    }
+
+    public synchronized void release(@NonNull FaceDetectorSettings settings, @NonNull FaceDetector detector) {
+        Entry entry = entriesByDetector.get(detector);
+        if (entry == null) {
+            // The detector is not pooled.
+            detector.close();
+            return;
+        }
+        entry.useCount = Math.max(0, entry.useCount - 1);
+        if (entry.useCount > 0) {
+            return;
+        }
+        if (entries.get(entry.key) != entry) {
+            // The pool has been closed while the detector was in use.
+            entriesByDetector.remove(detector);
+            detector.close();
+            return;
+        }
+        handler.postDelayed(entry.evictRunnable, idleTimeout);
+        trimToMaxSize();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Closes all idle detectors.
+     * Detectors that are in use are closed as soon as they are released.
+     */
+    public void closeAll() {
+        List<FaceDetector> detectors = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                handler.removeCallbacks(entry.evictRunnable);
+                iterator.remove();
+                if (entry.useCount == 0) {
+                    entriesByDetector.remove(entry.detector);
+                    detectors.add(entry.detector);
+                }
+            }
+        }
+        for (FaceDetector detector : detectors) {
+            detector.close();
+        }
+    }
+
+    private void trimToMaxSize() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.useCount > 0) {
+                continue;
+            }
+            handler.removeCallbacks(entry.evictRunnable);
+            iterator.remove();
+            entriesByDetector.remove(entry.detector);
+            entry.detector.close();
+        }
+    }
+
+    private synchronized void evict(@NonNull Entry entry) {
+        if (entry.useCount > 0 || entries.get(entry.key) != entry) {
+            return;
+        }
+        entries.remove(entry.key);
+        entriesByDetector.remove(entry.detector);
+        entry.detector.close();
+    }
+
+    @NonNull
+    private static FaceDetector createDetector(@NonNull FaceDetectorSettings settings) {
+        return com.google.mlkit.vision.face.FaceDetection.getClient(settings.toFaceDetectorOptions());
+    }
+
+    private static class Key {
+
+        private final FaceDetectorSettings settings;
+        private final int instance;
+
+        private Key(@NonNull FaceDetectorSettings settings, int instance) {
+            this.settings = settings;
+            this.instance = instance;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return instance == other.instance && settings.equals(other.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * settings.hashCode() + instance;
+        }
+    }
+
+    private class Entry {
+
+        private final Key key;
+        private final FaceDetector detector;
+        private final Runnable evictRunnable = () -> evict(this);
+        private int useCount;
+
+        private Entry(@NonNull Key key, @NonNull FaceDetector detector) {
+            this.key = key;
+            this.detector = detector;
+        }
+    }
+}
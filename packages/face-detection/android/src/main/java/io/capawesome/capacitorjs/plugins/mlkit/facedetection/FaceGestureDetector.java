@@ -0,0 +1,211 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.face.Face;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.GestureOptions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns the classification results and head poses of consecutive frames into gesture events.
+ *
+ * Every tracked face has a small state machine per gesture. Each state change needs a separate
+ * threshold to be crossed in the opposite direction (hysteresis), so that values hovering around
+ * a threshold do not emit the same gesture on every frame.
+ * A state machine only starts once the face has been seen in its neutral state,
+ * e.g. a face that appears with closed eyes does not blink when it opens them.
+ *
+ * Not thread-safe, all frames must be processed on the same thread.
+ */
+public class FaceGestureDetector {
+
+    public interface Listener {
+        void gestureDetected(@NonNull String type, int trackingId);
+    }
+
+    public static final String GESTURE_BLINK = "blink";
+    public static final String GESTURE_SMILE = "smile";
+    public static final String GESTURE_TURN_LEFT = "turnLeft";
+    public static final String GESTURE_TURN_RIGHT = "turnRight";
+
+    private enum EyeState {
+        OPEN,
+        CLOSED
+    }
+
+    private enum SmileState {
+        NEUTRAL,
+        SMILING
+    }
+
+    private enum HeadState {
+        CENTER,
+        LEFT,
+        RIGHT
+    }
+
+    @NonNull
+    private final GestureOptions options;
+
+    @NonNull
+    private final Listener listener;
+
+    private final Map<Integer, FaceState> faceStates = new HashMap<>();
+
+    public FaceGestureDetector(@NonNull GestureOptions options, @NonNull Listener listener) {
+        this.options = options;
+        this.listener = listener;
+    }
+
+    /**
+     * Updates the state machines with the faces of the next frame.
+     * Faces without a tracking ID are ignored and the states of faces that are no longer visible are dropped.
+     */
+    public void process(@NonNull List<Face> faces) {
+        List<FaceSample> samples = new ArrayList<>();
+        for (Face face : faces) {
+            samples.add(
+                new FaceSample(
+                    face.getTrackingId(),
+                    face.getLeftEyeOpenProbability(),
+                    face.getRightEyeOpenProbability(),
+                    face.getSmilingProbability(),
+                    face.getHeadEulerAngleY()
+                )
+            );
+        }
+        processSamples(samples);
+    }
+
+    void processSamples(@NonNull List<FaceSample> samples) {
+        Set<Integer> visibleTrackingIds = new HashSet<>();
+        for (FaceSample sample : samples) {
+            Integer trackingId = sample.trackingId;
+            if (trackingId == null) {
+                continue;
+            }
+            visibleTrackingIds.add(trackingId);
+            FaceState faceState = faceStates.get(trackingId);
+            if (faceState == null) {
+                faceState = new FaceState();
+                faceStates.put(trackingId, faceState);
+            }
+            updateEyeState(faceState, sample, trackingId);
+            updateSmileState(faceState, sample, trackingId);
+            updateHeadState(faceState, sample, trackingId);
+        }
+        faceStates.keySet().retainAll(visibleTrackingIds);
+    }
+
+    private void updateEyeState(@NonNull FaceState faceState, @NonNull FaceSample sample, int trackingId) {
+        Float leftEyeOpenProbability = sample.leftEyeOpenProbability;
+        Float rightEyeOpenProbability = sample.rightEyeOpenProbability;
+        if (leftEyeOpenProbability == null || rightEyeOpenProbability == null) {
+            return;
+        }
+        // Both eyes must change their state, so that winking is not a blink
+        boolean isOpen = Math.min(leftEyeOpenProbability, rightEyeOpenProbability) > options.getEyeOpenThreshold();
+        boolean isClosed = Math.max(leftEyeOpenProbability, rightEyeOpenProbability) < options.getEyeClosedThreshold();
+        if (faceState.eyeState == null) {
+            if (isOpen) {
+                faceState.eyeState = EyeState.OPEN;
+            }
+        } else if (faceState.eyeState == EyeState.OPEN && isClosed) {
+            faceState.eyeState = EyeState.CLOSED;
+        } else if (faceState.eyeState == EyeState.CLOSED && isOpen) {
+            faceState.eyeState = EyeState.OPEN;
+            listener.gestureDetected(GESTURE_BLINK, trackingId);
+        }
+    }
+
+    private void updateSmileState(@NonNull FaceState faceState, @NonNull FaceSample sample, int trackingId) {
+        Float smilingProbability = sample.smilingProbability;
+        if (smilingProbability == null) {
+            return;
+        }
+        if (faceState.smileState == null) {
+            if (smilingProbability < options.getSmileReleaseThreshold()) {
+                faceState.smileState = SmileState.NEUTRAL;
+            }
+        } else if (faceState.smileState == SmileState.NEUTRAL && smilingProbability > options.getSmileThreshold()) {
+            faceState.smileState = SmileState.SMILING;
+            listener.gestureDetected(GESTURE_SMILE, trackingId);
+        } else if (faceState.smileState == SmileState.SMILING && smilingProbability < options.getSmileReleaseThreshold()) {
+            faceState.smileState = SmileState.NEUTRAL;
+        }
+    }
+
+    /**
+     * A positive `headEulerAngleY` means that the face is turned towards the right side of the image.
+     */
+    private void updateHeadState(@NonNull FaceState faceState, @NonNull FaceSample sample, int trackingId) {
+        float headEulerAngleY = sample.headEulerAngleY;
+        boolean isCentered = Math.abs(headEulerAngleY) < options.getHeadCenterAngle();
+        if (faceState.headState == null) {
+            if (isCentered) {
+                faceState.headState = HeadState.CENTER;
+            }
+        } else if (faceState.headState == HeadState.CENTER) {
+            if (headEulerAngleY > options.getHeadTurnAngle()) {
+                faceState.headState = HeadState.RIGHT;
+                listener.gestureDetected(GESTURE_TURN_RIGHT, trackingId);
+            } else if (headEulerAngleY < -options.getHeadTurnAngle()) {
+                faceState.headState = HeadState.LEFT;
+                listener.gestureDetected(GESTURE_TURN_LEFT, trackingId);
+            }
+        } else if (isCentered) {
+            faceState.headState = HeadState.CENTER;
+        }
+    }
+
+    /**
+     * The values of a detected face that the state machines depend on.
+     */
+    static class FaceSample {
+
+        @Nullable
+        private final Integer trackingId;
+
+        @Nullable
+        private final Float leftEyeOpenProbability;
+
+        @Nullable
+        private final Float rightEyeOpenProbability;
+
+        @Nullable
+        private final Float smilingProbability;
+
+        private final float headEulerAngleY;
+
+        FaceSample(
+            @Nullable Integer trackingId,
+            @Nullable Float leftEyeOpenProbability,
+            @Nullable Float rightEyeOpenProbability,
+            @Nullable Float smilingProbability,
+            float headEulerAngleY
+        ) {
+            this.trackingId = trackingId;
+            this.leftEyeOpenProbability = leftEyeOpenProbability;
+            this.rightEyeOpenProbability = rightEyeOpenProbability;
+            this.smilingProbability = smilingProbability;
+            this.headEulerAngleY = headEulerAngleY;
+        }
+    }
+
+    private static class FaceState {
+
+        @Nullable
+        private EyeState eyeState;
+
+        @Nullable
+        private SmileState smileState;
+
+        @Nullable
+        private HeadState headState;
+    }
+}
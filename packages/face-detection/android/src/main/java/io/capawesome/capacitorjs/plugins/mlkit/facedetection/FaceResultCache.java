@@ -0,0 +1,215 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import android.content.Context;
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Logger;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.GetCacheStatsResult;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the serialized results of `processImage(...)` on disk, so that processing the same file
+ * with the same options again neither decodes the image nor runs the detector.
+ *
+ * Entries are keyed by a hash of the file content and the options themselves, so that different options never share an entry.
+ * The content is hashed with the native CRC32 and Adler32 implementations, which together form a 64-bit hash.
+ * The modification time of an entry is updated on every hit, and the least recently used entries
+ * are deleted as soon as the cache grows beyond `maxSize` bytes.
+ */
+public class FaceResultCache {
+
+    public static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+    private static final String DIRECTORY_NAME = "face-results";
+    private static final String FILE_EXTENSION = ".json";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+    /**
+     * Temporary files older than this were left behind by an interrupted `put` and are deleted.
+     */
+    private static final long STALE_TEMPORARY_FILE_AGE = 60 * 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @NonNull
+    private final Context context;
+
+    @NonNull
+    private final File directory;
+
+    private final long maxSize;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public FaceResultCache(@NonNull Context context) {
+        this(context, DEFAULT_MAX_SIZE);
+    }
+
+    public FaceResultCache(@NonNull Context context, long maxSize) {
+        this.context = context;
+        this.directory = new File(context.getCacheDir(), DIRECTORY_NAME);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Hashes the content of the file and combines it with the options.
+     *
+     * @param optionsKey A short string that contains every option that affects the result.
+     */
+    @NonNull
+    public String createKey(@NonNull Uri uri, @NonNull String optionsKey) throws IOException {
+        CRC32 crc32 = new CRC32();
+        Adler32 adler32 = new Adler32();
+        long length = 0;
+        try (InputStream inputStream = context.getContentResolver().openInputStream(uri)) {
+            if (inputStream == null) {
+                throw new IOException(FaceDetectionPlugin.ERROR_LOAD_IMAGE_FAILED);
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                crc32.update(buffer, 0, count);
+                adler32.update(buffer, 0, count);
+                length += count;
+            }
+        }
+        long contentHash = (crc32.getValue() << 32) | adler32.getValue();
+        // Keep the options readable instead of hashing them, so that they cannot collide
+        String sanitizedOptionsKey = optionsKey.replaceAll("[^A-Za-z0-9.-]", "_");
+        return Long.toHexString(contentHash) + "-" + Long.toHexString(length) + "-" + sanitizedOptionsKey;
+    }
+
+    /**
+     * Returns the cached result or `null` if there is none.
+     */
+    @Nullable
+    public JSObject get(@NonNull String key) {
+        File file = getFile(key);
+        if (file.exists()) {
+            try {
+                JSObject result = new JSObject(readFile(file));
+                // Keep the entry from being evicted
+                file.setLastModified(System.currentTimeMillis());
+                hitCount.incrementAndGet();
+                return result;
+            } catch (Exception exception) {
+                Logger.error(FaceDetectionPlugin.TAG, exception.getMessage(), exception);
+                file.delete();
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    public void put(@NonNull String key, @NonNull JSObject result) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            Logger.error(FaceDetectionPlugin.TAG, "Directory for face results could not be created.", null);
+            return;
+        }
+        File file = getFile(key);
+        // Write to a temporary file first, so that a concurrent `get` never reads a partial entry
+        File temporaryFile = null;
+        try {
+            temporaryFile = File.createTempFile(key, TEMPORARY_FILE_EXTENSION, directory);
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8)) {
+                writer.write(result.toString());
+            }
+        } catch (IOException exception) {
+            Logger.error(FaceDetectionPlugin.TAG, exception.getMessage(), exception);
+            if (temporaryFile != null) {
+                temporaryFile.delete();
+            }
+            return;
+        }
+        if (!temporaryFile.renameTo(file)) {
+            temporaryFile.delete();
+            return;
+        }
+        trimToMaxSize();
+    }
+
+    @NonNull
+    public GetCacheStatsResult getStats() {
+        long size = 0;
+        File[] files = listEntries();
+        for (File file : files) {
+            size += file.length();
+        }
+        return new GetCacheStatsResult(hitCount.get(), missCount.get(), files.length, size);
+    }
+
+    private synchronized void trimToMaxSize() {
+        deleteStaleTemporaryFiles();
+        File[] files = listEntries();
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (size <= maxSize) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    /**
+     * Recent temporary files are kept, since they may still be written by a concurrent `put`.
+     */
+    private void deleteStaleTemporaryFiles() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(TEMPORARY_FILE_EXTENSION));
+        if (files == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            if (now - file.lastModified() > STALE_TEMPORARY_FILE_AGE) {
+                file.delete();
+            }
+        }
+    }
+
+    @NonNull
+    private File[] listEntries() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+        return files == null ? new File[0] : files;
+    }
+
+    @NonNull
+    private File getFile(@NonNull String key) {
+        return new File(directory, key + FILE_EXTENSION);
+    }
+
+    @NonNull
+    private static String readFile(@NonNull File file) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, count);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import com.google.mlkit.vision.common.InputImage;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.DecodedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes images at a reduced size, so that large photos do not have to be decoded at full resolution
+ * only to be downscaled by ML Kit.
+ */
+public class ImageLoader {
+
+    /**
+     * Decodes the image so that its longest side is at most `maxDimension` pixels.
+     *
+     * The image is subsampled while decoding and only the remaining factor is applied to the decoded bitmap.
+     * The EXIF orientation is applied to the bitmap, so the returned scale maps coordinates of the
+     * decoded image to coordinates of the upright original image.
+     */
+    @NonNull
+    public static DecodedImage load(@NonNull Context context, @NonNull Uri uri, int maxDimension) throws IOException {
+        ContentResolver contentResolver = context.getContentResolver();
+
+        int orientation;
+        try (InputStream inputStream = openInputStream(contentResolver, uri)) {
+            orientation = new ExifInterface(inputStream).getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        }
+
+        BitmapFactory.Options boundsOptions = new BitmapFactory.Options();
+        boundsOptions.inJustDecodeBounds = true;
+        try (InputStream inputStream = openInputStream(contentResolver, uri)) {
+            BitmapFactory.decodeStream(inputStream, null, boundsOptions);
+        }
+        int originalWidth = boundsOptions.outWidth;
+        int originalHeight = boundsOptions.outHeight;
+        if (originalWidth <= 0 || originalHeight <= 0) {
+            throw new IOException(FaceDetectionPlugin.ERROR_LOAD_IMAGE_FAILED);
+        }
+
+        BitmapFactory.Options decodeOptions = new BitmapFactory.Options();
+        decodeOptions.inSampleSize = calculateInSampleSize(Math.max(originalWidth, originalHeight), maxDimension);
+        Bitmap bitmap;
+        try (InputStream inputStream = openInputStream(contentResolver, uri)) {
+            bitmap = BitmapFactory.decodeStream(inputStream, null, decodeOptions);
+        }
+        if (bitmap == null) {
+            throw new IOException(FaceDetectionPlugin.ERROR_LOAD_IMAGE_FAILED);
+        }
+
+        Matrix matrix = createOrientationMatrix(orientation);
+        float remainingScale = (float) maxDimension / Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (remainingScale < 1) {
+            matrix.postScale(remainingScale, remainingScale);
+        }
+        if (!matrix.isIdentity()) {
+            Bitmap transformedBitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+            if (transformedBitmap != bitmap) {
+                bitmap.recycle();
+            }
+            bitmap = transformedBitmap;
+        }
+
+        int uprightOriginalWidth = isTransposed(orientation) ? originalHeight : originalWidth;
+        float scale = (float) uprightOriginalWidth / bitmap.getWidth();
+        return new DecodedImage(InputImage.fromBitmap(bitmap, 0), bitmap, scale);
+    }
+
+    /**
+     * Returns the largest power of two that keeps the longest side at or above `maxDimension`.
+     */
+    public static int calculateInSampleSize(int longestSide, int maxDimension) {
+        int inSampleSize = 1;
+        while (longestSide / (inSampleSize * 2) >= maxDimension) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    @NonNull
+    private static Matrix createOrientationMatrix(int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.setScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.setRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.setScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.setRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.setRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.setRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.setRotate(-90);
+                break;
+            default:
+                break;
+        }
+        return matrix;
+    }
+
+    private static boolean isTransposed(int orientation) {
+        return (
+            orientation == ExifInterface.ORIENTATION_TRANSPOSE ||
+            orientation == ExifInterface.ORIENTATION_ROTATE_90 ||
+            orientation == ExifInterface.ORIENTATION_TRANSVERSE ||
+            orientation == ExifInterface.ORIENTATION_ROTATE_270
+        );
+    }
+
+    @NonNull
+    private static InputStream openInputStream(@NonNull ContentResolver contentResolver, @NonNull Uri uri) throws IOException {
+        InputStream inputStream = contentResolver.openInputStream(uri);
+        if (inputStream == null) {
+            throw new IOException(FaceDetectionPlugin.ERROR_LOAD_IMAGE_FAILED);
+        }
+        return inputStream;
+    }
+}
@@ -0,0 +1,6 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+public interface PreloadResultCallback {
+    void success();
+    void error(Exception exception);
+}
@@ -0,0 +1,13 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import androidx.annotation.Nullable;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImageResult;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.ProcessImagesResult;
+
+public interface ProcessImagesResultCallback {
+    /**
+     * Called for every image, either with a result or with an exception.
+     */
+    void imageProcessed(int index, String path, @Nullable ProcessImageResult result, @Nullable Exception exception);
+    void success(ProcessImagesResult result);
+}
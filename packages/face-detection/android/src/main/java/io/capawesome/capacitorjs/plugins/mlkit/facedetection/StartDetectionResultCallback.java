@@ -0,0 +1,6 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+public interface StartDetectionResultCallback {
+    void success();
+    void error(Exception exception);
+}
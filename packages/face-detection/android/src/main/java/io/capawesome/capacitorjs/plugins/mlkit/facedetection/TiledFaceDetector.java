@@ -0,0 +1,328 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Point;
+import android.graphics.Rect;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.face.Face;
+import com.google.mlkit.vision.face.FaceDetector;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.FaceDetectorSettings;
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.TilingOptions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Detects faces on overlapping tiles of an image, so that small faces are found without
+ * lowering `minFaceSize` for the whole image.
+ *
+ * The tiles are spread over several detector instances from the pool, so that they are processed in parallel.
+ * The tiles are drawn from the image into one reusable bitmap per detector.
+ * Faces that are found in more than one tile are merged with a non-maximum suppression.
+ * Tracking is disabled for the tiles, since the tracking IDs of different tiles do not refer to the same faces.
+ */
+public class TiledFaceDetector {
+
+    public interface Callback {
+        /**
+         * @param offsets The origin of the tile each face was detected in, in the same order as the faces.
+         */
+        void success(List<Face> faces, List<Point> offsets);
+        void error(Exception exception);
+    }
+
+    /**
+     * Two faces whose bounding boxes overlap by more than this intersection over union are duplicates.
+     */
+    private static final float IOU_THRESHOLD = 0.3f;
+
+    /**
+     * A face whose bounding box lies mostly inside a kept face is a duplicate that was cut off at a tile edge.
+     */
+    private static final float CONTAINMENT_THRESHOLD = 0.8f;
+
+    /**
+     * Faces touching an inner tile edge are probably cut off and lose against complete duplicates.
+     */
+    private static final float EDGE_PENALTY = 0.5f;
+
+    private static final int EDGE_TOLERANCE = 2;
+
+    @NonNull
+    private final FaceDetectorPool faceDetectorPool;
+
+    @NonNull
+    private final Executor executor;
+
+    private final int maxParallelDetectors;
+
+    public TiledFaceDetector(@NonNull FaceDetectorPool faceDetectorPool, @NonNull Executor executor, int maxParallelDetectors) {
+        this.faceDetectorPool = faceDetectorPool;
+        this.executor = executor;
+        this.maxParallelDetectors = Math.max(1, maxParallelDetectors);
+    }
+
+    public void detect(
+        @NonNull Bitmap bitmap,
+        @NonNull FaceDetectorSettings faceDetectorSettings,
+        @NonNull TilingOptions options,
+        @NonNull Callback callback
+    ) {
+        FaceDetectorSettings settings = faceDetectorSettings.withoutTracking();
+        List<Rect> tiles = createTiles(bitmap.getWidth(), bitmap.getHeight(), options);
+        int detectorCount = Math.min(tiles.size(), maxParallelDetectors);
+        List<FaceDetector> faceDetectors = new ArrayList<>();
+        for (int i = 0; i < detectorCount; i++) {
+            faceDetectors.add(faceDetectorPool.acquire(settings));
+        }
+
+        TileDetection tileDetection = new TileDetection(bitmap, tiles, settings, faceDetectors, callback);
+        for (int i = 0; i < detectorCount; i++) {
+            int detectorIndex = i;
+            executor.execute(() -> tileDetection.detectTile(detectorIndex, detectorIndex, null));
+        }
+    }
+
+    /**
+     * Splits the image into `rows` x `columns` tiles of equal size that overlap by `overlap` of their size.
+     */
+    @NonNull
+    public static List<Rect> createTiles(int width, int height, @NonNull TilingOptions options) {
+        int columns = Math.max(1, options.getColumns());
+        int rows = Math.max(1, options.getRows());
+        float overlap = Math.min(Math.max(options.getOverlap(), 0), 0.9f);
+        int tileWidth = (int) Math.ceil(width / (columns - (columns - 1) * overlap));
+        int tileHeight = (int) Math.ceil(height / (rows - (rows - 1) * overlap));
+        float stepX = tileWidth * (1 - overlap);
+        float stepY = tileHeight * (1 - overlap);
+
+        List<Rect> tiles = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int left = Math.min(Math.round(column * stepX), Math.max(0, width - tileWidth));
+                int top = Math.min(Math.round(row * stepY), Math.max(0, height - tileHeight));
+                tiles.add(new Rect(left, top, Math.min(width, left + tileWidth), Math.min(height, top + tileHeight)));
+            }
+        }
+        return tiles;
+    }
+
+    private void mergeTileResults(int width, int height, List<Rect> tiles, List<List<Face>> facesPerTile, Callback callback) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            Rect tile = tiles.get(i);
+            for (Face face : facesPerTile.get(i)) {
+                candidates.add(new Candidate(face, tile, width, height));
+            }
+        }
+        Collections.sort(candidates, (a, b) -> Float.compare(b.score, a.score));
+
+        List<Candidate> keptCandidates = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            boolean isDuplicate = false;
+            for (Candidate keptCandidate : keptCandidates) {
+                if (isDuplicate(candidate.bounds, keptCandidate.bounds)) {
+                    isDuplicate = true;
+                    break;
+                }
+            }
+            if (!isDuplicate) {
+                keptCandidates.add(candidate);
+            }
+        }
+
+        List<Face> faces = new ArrayList<>();
+        List<Point> offsets = new ArrayList<>();
+        for (Candidate candidate : keptCandidates) {
+            faces.add(candidate.face);
+            offsets.add(new Point(candidate.tile.left, candidate.tile.top));
+        }
+        callback.success(faces, offsets);
+    }
+
+    private static boolean isDuplicate(@NonNull Rect a, @NonNull Rect b) {
+        Rect intersection = new Rect();
+        if (!intersection.setIntersect(a, b)) {
+            return false;
+        }
+        float intersectionArea = area(intersection);
+        float unionArea = area(a) + area(b) - intersectionArea;
+        if (unionArea > 0 && intersectionArea / unionArea > IOU_THRESHOLD) {
+            return true;
+        }
+        float minArea = Math.min(area(a), area(b));
+        return minArea > 0 && intersectionArea / minArea > CONTAINMENT_THRESHOLD;
+    }
+
+    private static float area(@NonNull Rect rect) {
+        return (float) rect.width() * rect.height();
+    }
+
+    private static class Candidate {
+
+        private final Face face;
+        private final Rect tile;
+        private final Rect bounds;
+        private final float score;
+
+        private Candidate(@NonNull Face face, @NonNull Rect tile, int imageWidth, int imageHeight) {
+            this.face = face;
+            this.tile = tile;
+            this.bounds = new Rect(face.getBoundingBox());
+            this.bounds.offset(tile.left, tile.top);
+            float score = area(bounds);
+            if (touchesInnerEdge(bounds, tile, imageWidth, imageHeight)) {
+                score *= EDGE_PENALTY;
+            }
+            this.score = score;
+        }
+
+        private static boolean touchesInnerEdge(Rect bounds, Rect tile, int imageWidth, int imageHeight) {
+            return (
+                (tile.left > 0 && bounds.left <= tile.left + EDGE_TOLERANCE) ||
+                (tile.top > 0 && bounds.top <= tile.top + EDGE_TOLERANCE) ||
+                (tile.right < imageWidth && bounds.right >= tile.right - EDGE_TOLERANCE) ||
+                (tile.bottom < imageHeight && bounds.bottom >= tile.bottom - EDGE_TOLERANCE)
+            );
+        }
+    }
+
+    /**
+     * Each detector processes every `detectorCount`-th tile one after another, so that it can draw
+     * all of its tiles into the same bitmap instead of copying every tile out of the image.
+     */
+    private class TileDetection {
+
+        private final Bitmap bitmap;
+        private final List<Rect> tiles;
+        private final FaceDetectorSettings settings;
+        private final List<FaceDetector> faceDetectors;
+        private final Callback callback;
+        private final TileResults tileResults;
+
+        private TileDetection(
+            @NonNull Bitmap bitmap,
+            @NonNull List<Rect> tiles,
+            @NonNull FaceDetectorSettings settings,
+            @NonNull List<FaceDetector> faceDetectors,
+            @NonNull Callback callback
+        ) {
+            this.bitmap = bitmap;
+            this.tiles = tiles;
+            this.settings = settings;
+            this.faceDetectors = faceDetectors;
+            this.callback = callback;
+            this.tileResults = new TileResults(tiles.size());
+        }
+
+        private void detectTile(int detectorIndex, int tileIndex, @Nullable Bitmap tileBitmap) {
+            if (tileIndex >= tiles.size()) {
+                if (tileBitmap != null) {
+                    tileBitmap.recycle();
+                }
+                return;
+            }
+            int nextTileIndex = tileIndex + faceDetectors.size();
+            InputImage inputImage;
+            try {
+                tileBitmap = drawTile(tiles.get(tileIndex), tileBitmap);
+                inputImage = InputImage.fromBitmap(tileBitmap, 0);
+            } catch (Exception exception) {
+                completeTile(tileIndex, null, exception);
+                detectTile(detectorIndex, nextTileIndex, tileBitmap);
+                return;
+            }
+            Bitmap reusableTileBitmap = tileBitmap;
+            faceDetectors
+                .get(detectorIndex)
+                .process(inputImage)
+                .addOnCompleteListener(executor, task -> {
+                    if (task.isSuccessful()) {
+                        completeTile(tileIndex, task.getResult(), null);
+                    } else {
+                        Exception exception = task.getException();
+                        if (exception == null) {
+                            exception = new Exception(FaceDetectionPlugin.ERROR_PROCESS_IMAGE_CANCELED);
+                        }
+                        completeTile(tileIndex, null, exception);
+                    }
+                    detectTile(detectorIndex, nextTileIndex, reusableTileBitmap);
+                });
+        }
+
+        /**
+         * Draws the tile from the image into the given bitmap, which is only replaced if its size does not fit.
+         */
+        @NonNull
+        private Bitmap drawTile(@NonNull Rect tile, @Nullable Bitmap tileBitmap) {
+            if (tileBitmap == null || tileBitmap.getWidth() != tile.width() || tileBitmap.getHeight() != tile.height()) {
+                if (tileBitmap != null) {
+                    tileBitmap.recycle();
+                }
+                tileBitmap = Bitmap.createBitmap(tile.width(), tile.height(), Bitmap.Config.ARGB_8888);
+            }
+            Matrix matrix = new Matrix();
+            matrix.setTranslate(-tile.left, -tile.top);
+            new Canvas(tileBitmap).drawBitmap(bitmap, matrix, null);
+            return tileBitmap;
+        }
+
+        private void completeTile(int tileIndex, @Nullable List<Face> tileFaces, @Nullable Exception tileException) {
+            boolean isFinished = tileResults.complete(tileIndex, tileFaces, tileException);
+            if (!isFinished) {
+                return;
+            }
+            for (FaceDetector faceDetector : faceDetectors) {
+                faceDetectorPool.release(settings, faceDetector);
+            }
+            Exception exception = tileResults.getException();
+            if (exception != null) {
+                callback.error(exception);
+            } else {
+                mergeTileResults(bitmap.getWidth(), bitmap.getHeight(), tiles, tileResults.getFaces(), callback);
+            }
+        }
+    }
+
+    private static class TileResults {
+
+        private final List<List<Face>> faces;
+        private int remainingCount;
+
+        @Nullable
+        private Exception exception;
+
+        private TileResults(int tileCount) {
+            this.faces = new ArrayList<>(Collections.nCopies(tileCount, Collections.<Face>emptyList()));
+            this.remainingCount = tileCount;
+        }
+
+        /**
+         * Returns `true` if this was the last tile.
+         */
+        private synchronized boolean complete(int tileIndex, @Nullable List<Face> tileFaces, @Nullable Exception tileException) {
+            if (tileFaces != null) {
+                faces.set(tileIndex, tileFaces);
+            }
+            if (tileException != null && exception == null) {
+                exception = tileException;
+            }
+            remainingCount--;
+            return remainingCount == 0;
+        }
+
+        private synchronized List<List<Face>> getFaces() {
+            return faces;
+        }
+
+        @Nullable
+        private synchronized Exception getException() {
+            return exception;
+        }
+    }
+}
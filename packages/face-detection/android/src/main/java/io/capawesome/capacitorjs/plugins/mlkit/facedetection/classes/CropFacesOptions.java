@@ -0,0 +1,40 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+import android.graphics.Bitmap;
+
+public class CropFacesOptions {
+
+    private int size;
+    private float padding;
+    private Bitmap.CompressFormat format;
+    private int quality;
+    private boolean rotate;
+
+    public CropFacesOptions(int size, float padding, Bitmap.CompressFormat format, int quality, boolean rotate) {
+        this.size = size;
+        this.padding = padding;
+        this.format = format;
+        this.quality = quality;
+        this.rotate = rotate;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public float getPadding() {
+        return padding;
+    }
+
+    public Bitmap.CompressFormat getFormat() {
+        return format;
+    }
+
+    public int getQuality() {
+        return quality;
+    }
+
+    public boolean isRotationEnabled() {
+        return rotate;
+    }
+}
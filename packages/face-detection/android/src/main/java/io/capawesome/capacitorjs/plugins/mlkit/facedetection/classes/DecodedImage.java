@@ -0,0 +1,41 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.common.InputImage;
+
+public class DecodedImage {
+
+    @NonNull
+    private final InputImage inputImage;
+
+    @Nullable
+    private final Bitmap bitmap;
+
+    private final float scale;
+
+    /**
+     * @param bitmap The upright bitmap of the input image, if it has been decoded by the plugin.
+     * @param scale The factor to map coordinates of the input image to coordinates of the original image.
+     */
+    public DecodedImage(@NonNull InputImage inputImage, @Nullable Bitmap bitmap, float scale) {
+        this.inputImage = inputImage;
+        this.bitmap = bitmap;
+        this.scale = scale;
+    }
+
+    @NonNull
+    public InputImage getInputImage() {
+        return inputImage;
+    }
+
+    @Nullable
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+}
@@ -0,0 +1,120 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.face.FaceDetectorOptions;
+
+/**
+ * The subset of the options that is needed to create a `FaceDetector`.
+ *
+ * Two settings with the same values share the same detector client.
+ */
+public class FaceDetectorSettings {
+
+    @FaceDetectorOptions.PerformanceMode
+    private final int performanceMode;
+
+    @FaceDetectorOptions.LandmarkMode
+    private final int landmarkMode;
+
+    @FaceDetectorOptions.ContourMode
+    private final int contourMode;
+
+    @FaceDetectorOptions.ClassificationMode
+    private final int classificationMode;
+
+    private final float minFaceSize;
+    private final boolean enableTracking;
+
+    public FaceDetectorSettings(
+        @FaceDetectorOptions.PerformanceMode int performanceMode,
+        @FaceDetectorOptions.LandmarkMode int landmarkMode,
+        @FaceDetectorOptions.ContourMode int contourMode,
+        @FaceDetectorOptions.ClassificationMode int classificationMode,
+        float minFaceSize,
+        boolean enableTracking
+    ) {
+        this.performanceMode = performanceMode;
+        this.landmarkMode = landmarkMode;
+        this.contourMode = contourMode;
+        this.classificationMode = classificationMode;
+        this.minFaceSize = minFaceSize;
+        this.enableTracking = enableTracking;
+    }
+
+    public int getPerformanceMode() {
+        return performanceMode;
+    }
+
+    public int getLandmarkMode() {
+        return landmarkMode;
+    }
+
+    public int getContourMode() {
+        return contourMode;
+    }
+
+    public int getClassificationMode() {
+        return classificationMode;
+    }
+
+    public float getMinFaceSize() {
+        return minFaceSize;
+    }
+
+    public boolean isTrackingEnabled() {
+        return enableTracking;
+    }
+
+    @NonNull
+    public FaceDetectorSettings withoutTracking() {
+        if (!enableTracking) {
+            return this;
+        }
+        return new FaceDetectorSettings(performanceMode, landmarkMode, contourMode, classificationMode, minFaceSize, false);
+    }
+
+    @NonNull
+    public FaceDetectorOptions toFaceDetectorOptions() {
+        FaceDetectorOptions.Builder builder = new FaceDetectorOptions.Builder();
+        builder.setPerformanceMode(performanceMode);
+        builder.setLandmarkMode(landmarkMode);
+        builder.setContourMode(contourMode);
+        builder.setClassificationMode(classificationMode);
+        builder.setMinFaceSize(minFaceSize);
+        if (enableTracking) {
+            builder.enableTracking();
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof FaceDetectorSettings)) {
+            return false;
+        }
+        FaceDetectorSettings other = (FaceDetectorSettings) object;
+        return (
+            performanceMode == other.performanceMode &&
+            landmarkMode == other.landmarkMode &&
+            contourMode == other.contourMode &&
+            classificationMode == other.classificationMode &&
+            Float.compare(minFaceSize, other.minFaceSize) == 0 &&
+            enableTracking == other.enableTracking
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        int result = performanceMode;
+        result = 31 * result + landmarkMode;
+        result = 31 * result + contourMode;
+        result = 31 * result + classificationMode;
+        result = 31 * result + Float.floatToIntBits(minFaceSize);
+        result = 31 * result + (enableTracking ? 1 : 0);
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+public class GestureOptions {
+
+    private float eyeClosedThreshold;
+    private float eyeOpenThreshold;
+    private float smileThreshold;
+    private float smileReleaseThreshold;
+    private float headTurnAngle;
+    private float headCenterAngle;
+
+    public GestureOptions(
+        float eyeClosedThreshold,
+        float eyeOpenThreshold,
+        float smileThreshold,
+        float smileReleaseThreshold,
+        float headTurnAngle,
+        float headCenterAngle
+    ) {
+        this.eyeClosedThreshold = eyeClosedThreshold;
+        this.eyeOpenThreshold = eyeOpenThreshold;
+        this.smileThreshold = smileThreshold;
+        this.smileReleaseThreshold = smileReleaseThreshold;
+        this.headTurnAngle = headTurnAngle;
+        this.headCenterAngle = headCenterAngle;
+    }
+
+    public float getEyeClosedThreshold() {
+        return eyeClosedThreshold;
+    }
+
+    public float getEyeOpenThreshold() {
+        return eyeOpenThreshold;
+    }
+
+    public float getSmileThreshold() {
+        return smileThreshold;
+    }
+
+    public float getSmileReleaseThreshold() {
+        return smileReleaseThreshold;
+    }
+
+    public float getHeadTurnAngle() {
+        return headTurnAngle;
+    }
+
+    public float getHeadCenterAngle() {
+        return headCenterAngle;
+    }
+}
@@ -0,0 +1,27 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+import com.getcapacitor.JSObject;
+
+public class GetCacheStatsResult {
+
+    private final long hitCount;
+    private final long missCount;
+    private final int entryCount;
+    private final long size;
+
+    public GetCacheStatsResult(long hitCount, long missCount, int entryCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.entryCount = entryCount;
+        this.size = size;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("hitCount", hitCount);
+        result.put("missCount", missCount);
+        result.put("entryCount", entryCount);
+        result.put("size", size);
+        return result;
+    }
+}
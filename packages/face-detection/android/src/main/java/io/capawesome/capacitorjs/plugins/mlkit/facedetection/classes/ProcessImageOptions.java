@@ -1,5 +1,7 @@
 package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
 
+import android.graphics.Bitmap;
+import androidx.annotation.Nullable;
 import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.face.FaceDetectorOptions;
 
@@ -21,6 +23,17 @@ public class ProcessImageOptions {
 
     private float minFaceSize;
     private boolean enableTracking;
+    private boolean compact;
+    private float scale = 1;
+
+    @Nullable
+    private Bitmap bitmap;
+
+    @Nullable
+    private CropFacesOptions cropFacesOptions;
+
+    @Nullable
+    private TilingOptions tilingOptions;
 
     public ProcessImageOptions(
         InputImage inputImage,
@@ -40,6 +53,29 @@ public class ProcessImageOptions {
         this.enableTracking = enableTracking;
     }
 
+    public ProcessImageOptions(
+        DecodedImage image,
+        FaceDetectorSettings settings,
+        boolean compact,
+        @Nullable CropFacesOptions cropFacesOptions,
+        @Nullable TilingOptions tilingOptions
+    ) {
+        this(
+            image.getInputImage(),
+            settings.getPerformanceMode(),
+            settings.getLandmarkMode(),
+            settings.getContourMode(),
+            settings.getClassificationMode(),
+            settings.getMinFaceSize(),
+            settings.isTrackingEnabled()
+        );
+        this.compact = compact;
+        this.scale = image.getScale();
+        this.bitmap = image.getBitmap();
+        this.cropFacesOptions = cropFacesOptions;
+        this.tilingOptions = tilingOptions;
+    }
+
     public InputImage getInputImage() {
         return inputImage;
     }
@@ -67,4 +103,37 @@ public class ProcessImageOptions {
     public boolean isTrackingEnabled() {
         return enableTracking;
     }
+
+    /**
+     * The factor to map coordinates of the input image to coordinates of the original image.
+     */
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * The upright bitmap of the input image, if it has been decoded by the plugin.
+     */
+    @Nullable
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    @Nullable
+    public CropFacesOptions getCropFacesOptions() {
+        return cropFacesOptions;
+    }
+
+    @Nullable
+    public TilingOptions getTilingOptions() {
+        return tilingOptions;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    public FaceDetectorSettings getFaceDetectorSettings() {
+        return new FaceDetectorSettings(performanceMode, landmarkMode, contourMode, classificationMode, minFaceSize, enableTracking);
+    }
 }
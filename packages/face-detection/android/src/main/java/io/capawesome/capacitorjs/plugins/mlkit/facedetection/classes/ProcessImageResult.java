@@ -1,49 +1,112 @@
 package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
 
+import android.graphics.Point;
 import android.graphics.PointF;
 import android.graphics.Rect;
+import androidx.annotation.Nullable;
 import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.google.mlkit.vision.face.Face;
 import com.google.mlkit.vision.face.FaceContour;
 import com.google.mlkit.vision.face.FaceLandmark;
 import java.util.List;
+import org.json.JSONException;
 
 public class ProcessImageResult {
 
+    private static final Point NO_OFFSET = new Point(0, 0);
+
     private List<Face> faces;
+    private boolean compact;
+    private float scale;
+
+    @Nullable
+    private List<String> cropPaths;
+
+    @Nullable
+    private List<Point> offsets;
 
     public ProcessImageResult(List<Face> faces) {
+        this(faces, false);
+    }
+
+    public ProcessImageResult(List<Face> faces, boolean compact) {
+        this(faces, compact, 1);
+    }
+
+    /**
+     * In compact mode, the faces are returned as `compactFaces`, which encode bounds, landmarks and contours
+     * as flat number arrays instead of one object per point.
+     *
+     * All coordinates are multiplied by `scale`, so that faces detected in a downscaled image
+     * refer to the original image.
+     */
+    public ProcessImageResult(List<Face> faces, boolean compact, float scale) {
         this.faces = faces;
+        this.compact = compact;
+        this.scale = scale;
     }
 
-    public JSObject toJSObject() {
-        JSArray facesResult = this.createFacesResult();
+    /**
+     * @param cropPaths The paths of the face crops, in the same order as the faces.
+     */
+    public void setCropPaths(@Nullable List<String> cropPaths) {
+        this.cropPaths = cropPaths;
+    }
+
+    /**
+     * @param offsets The offsets that are added to the coordinates of each face before scaling,
+     *                in the same order as the faces, e.g. the origin of the tile a face was detected in.
+     */
+    public void setOffsets(@Nullable List<Point> offsets) {
+        this.offsets = offsets;
+    }
 
+    public int getFaceCount() {
+        return faces.size();
+    }
+
+    public JSObject toJSObject() {
         JSObject result = new JSObject();
-        result.put("faces", facesResult);
+        if (compact) {
+            result.put("faces", new JSArray());
+            result.put("compactFaces", this.createCompactFacesResult());
+        } else {
+            result.put("faces", this.createFacesResult());
+        }
         return result;
     }
 
     private JSArray createFacesResult() {
         JSArray result = new JSArray();
-        for (Face face : faces) {
-            JSObject faceResult = this.createFaceResult(face);
+        for (int i = 0; i < faces.size(); i++) {
+            JSObject faceResult = this.createFaceResult(faces.get(i), this.getOffset(i));
+            this.putCropPath(faceResult, i);
+            result.put(faceResult);
+        }
+        return result;
+    }
+
+    private JSArray createCompactFacesResult() {
+        JSArray result = new JSArray();
+        for (int i = 0; i < faces.size(); i++) {
+            JSObject faceResult = this.createCompactFaceResult(faces.get(i), this.getOffset(i));
+            this.putCropPath(faceResult, i);
             result.put(faceResult);
         }
         return result;
     }
 
-    private JSObject createFaceResult(Face face) {
+    private JSObject createFaceResult(Face face, Point offset) {
         JSObject result = new JSObject();
 
         Rect boundingBox = face.getBoundingBox();
-        JSObject boundsResult = this.createBoundsResult(boundingBox);
+        JSObject boundsResult = this.createBoundsResult(boundingBox, offset);
         result.put("bounds", boundsResult);
 
         JSArray landmarksResult = new JSArray();
         for (FaceLandmark landmark : face.getAllLandmarks()) {
-            JSObject landmarkResult = this.createLandmarkResult(landmark);
+            JSObject landmarkResult = this.createLandmarkResult(landmark, offset);
             landmarksResult.put(landmarkResult);
         }
         if (landmarksResult.length() > 0) {
@@ -55,7 +118,7 @@ public class ProcessImageResult {
             List<PointF> points = contour.getPoints();
             JSArray pointsResult = new JSArray();
             for (PointF point : points) {
-                JSObject positionResult = this.createPositionResult(point);
+                JSObject positionResult = this.createPositionResult(point, offset);
                 pointsResult.put(positionResult);
             }
             if (pointsResult.length() > 0) {
@@ -67,6 +130,65 @@ public class ProcessImageResult {
             result.put("contours", contoursResult);
         }
 
+        this.putFaceAttributes(result, face);
+
+        return result;
+    }
+
+    /**
+     * Encodes the bounds as `[left, top, right, bottom]`,
+     * the landmarks as `landmarkTypes` and `landmarkPositions` (`[x0, y0, x1, y1, ...]`)
+     * and the contours as `contourTypes`, `contourPointCounts` and `contourPoints` (`[x0, y0, x1, y1, ...]`).
+     */
+    private JSObject createCompactFaceResult(Face face, Point offset) {
+        JSObject result = new JSObject();
+
+        Rect boundingBox = face.getBoundingBox();
+        JSArray boundsResult = new JSArray();
+        boundsResult.put(this.mapCoordinate(boundingBox.left, offset.x));
+        boundsResult.put(this.mapCoordinate(boundingBox.top, offset.y));
+        boundsResult.put(this.mapCoordinate(boundingBox.right, offset.x));
+        boundsResult.put(this.mapCoordinate(boundingBox.bottom, offset.y));
+        result.put("bounds", boundsResult);
+
+        List<FaceLandmark> landmarks = face.getAllLandmarks();
+        if (!landmarks.isEmpty()) {
+            JSArray landmarkTypesResult = new JSArray();
+            JSArray landmarkPositionsResult = new JSArray();
+            for (FaceLandmark landmark : landmarks) {
+                landmarkTypesResult.put(landmark.getLandmarkType());
+                this.putCompactPoint(landmarkPositionsResult, landmark.getPosition(), offset);
+            }
+            result.put("landmarkTypes", landmarkTypesResult);
+            result.put("landmarkPositions", landmarkPositionsResult);
+        }
+
+        JSArray contourTypesResult = new JSArray();
+        JSArray contourPointCountsResult = new JSArray();
+        JSArray contourPointsResult = new JSArray();
+        for (FaceContour contour : face.getAllContours()) {
+            List<PointF> points = contour.getPoints();
+            if (points.isEmpty()) {
+                continue;
+            }
+            contourTypesResult.put(contour.getFaceContourType());
+            contourPointCountsResult.put(points.size());
+            for (PointF point : points) {
+                this.putCompactPoint(contourPointsResult, point, offset);
+            }
+        }
+        if (contourTypesResult.length() > 0) {
+            result.put("contourTypes", contourTypesResult);
+            result.put("contourPointCounts", contourPointCountsResult);
+            result.put("contourPoints", contourPointsResult);
+        }
+
+        this.putFaceAttributes(result, face);
+
+        return result;
+    }
+
+    private void putFaceAttributes(JSObject result, Face face) {
         Integer trackingId = face.getTrackingId();
         if (trackingId != null) {
             result.put("trackingId", trackingId);
@@ -90,34 +212,62 @@ public class ProcessImageResult {
         if (rightEyeOpenProbability != null) {
             result.put("rightEyeOpenProbability", rightEyeOpenProbability);
         }
+    }
 
-        return result;
+    private void putCropPath(JSObject result, int index) {
+        if (cropPaths == null) {
+            return;
+        }
+        String cropPath = cropPaths.get(index);
+        if (cropPath != null) {
+            result.put("cropPath", cropPath);
+        }
     }
 
-    private JSObject createBoundsResult(Rect boundingBox) {
+    /**
+     * Rounds the coordinates to two decimal places to keep the JSON short.
+     */
+    private void putCompactPoint(JSArray result, PointF point, Point offset) {
+        try {
+            result.put(Math.round((point.x + offset.x) * scale * 100) / 100.0);
+            result.put(Math.round((point.y + offset.y) * scale * 100) / 100.0);
+        } catch (JSONException exception) {
+            // Only thrown for non-finite values, which ML Kit does not return
+        }
+    }
+
+    private JSObject createBoundsResult(Rect boundingBox, Point offset) {
         JSObject result = new JSObject();
-        result.put("left", boundingBox.left);
-        result.put("top", boundingBox.top);
-        result.put("right", boundingBox.right);
-        result.put("bottom", boundingBox.bottom);
+        result.put("left", this.mapCoordinate(boundingBox.left, offset.x));
+        result.put("top", this.mapCoordinate(boundingBox.top, offset.y));
+        result.put("right", this.mapCoordinate(boundingBox.right, offset.x));
+        result.put("bottom", this.mapCoordinate(boundingBox.bottom, offset.y));
         return result;
     }
 
-    private JSObject createLandmarkResult(FaceLandmark landmark) {
-        JSObject positionResult = this.createPositionResult(landmark.getPosition());
+    private JSObject createLandmarkResult(FaceLandmark landmark, Point offset) {
+        JSObject positionResult = this.createPositionResult(landmark.getPosition(), offset);
         JSObject result = new JSObject();
         result.put("type", landmark.getLandmarkType());
         result.put("position", positionResult);
         return result;
     }
 
-    private JSObject createPositionResult(PointF point) {
+    private JSObject createPositionResult(PointF point, Point offset) {
         JSObject result = new JSObject();
-        result.put("x", point.x);
-        result.put("y", point.y);
+        result.put("x", (point.x + offset.x) * scale);
+        result.put("y", (point.y + offset.y) * scale);
         return result;
     }
 
+    private int mapCoordinate(int value, int offset) {
+        return Math.round((value + offset) * scale);
+    }
+
+    private Point getOffset(int index) {
+        return offsets == null ? NO_OFFSET : offsets.get(index);
+    }
+
     private JSObject createContourResult(FaceContour contour, JSArray pointsResult) {
         JSObject result = new JSObject();
         result.put("type", contour.getFaceContourType());
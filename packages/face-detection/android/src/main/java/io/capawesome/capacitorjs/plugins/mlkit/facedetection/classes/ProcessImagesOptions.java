@@ -0,0 +1,50 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+import java.util.List;
+
+public class ProcessImagesOptions {
+
+    private List<String> paths;
+    private FaceDetectorSettings faceDetectorSettings;
+    private int concurrency;
+    private boolean compact;
+    private int maxDetectionDimension;
+
+    public ProcessImagesOptions(
+        List<String> paths,
+        FaceDetectorSettings faceDetectorSettings,
+        int concurrency,
+        boolean compact,
+        int maxDetectionDimension
+    ) {
+        this.paths = paths;
+        this.faceDetectorSettings = faceDetectorSettings;
+        this.concurrency = concurrency;
+        this.compact = compact;
+        this.maxDetectionDimension = maxDetectionDimension;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public FaceDetectorSettings getFaceDetectorSettings() {
+        return faceDetectorSettings;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * The maximum length of the longest side of the images that are passed to the detector.
+     * `0` means the images are not downscaled.
+     */
+    public int getMaxDetectionDimension() {
+        return maxDetectionDimension;
+    }
+}
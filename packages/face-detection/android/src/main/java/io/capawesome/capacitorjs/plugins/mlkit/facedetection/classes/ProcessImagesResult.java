@@ -0,0 +1,27 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+import com.getcapacitor.JSObject;
+
+public class ProcessImagesResult {
+
+    private final int processedCount;
+    private final int failedCount;
+    private final int faceCount;
+    private final long duration;
+
+    public ProcessImagesResult(int processedCount, int failedCount, int faceCount, long duration) {
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+        this.faceCount = faceCount;
+        this.duration = duration;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("processedCount", processedCount);
+        result.put("failedCount", failedCount);
+        result.put("faceCount", faceCount);
+        result.put("duration", duration);
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+import androidx.annotation.Nullable;
+import androidx.camera.core.CameraSelector;
+import com.google.mlkit.vision.face.FaceDetectorOptions;
+
+public class StartDetectionOptions {
+
+    private FaceDetectorSettings faceDetectorSettings;
+    private int lensFacing;
+    private boolean compact;
+
+    @Nullable
+    private GestureOptions gestureOptions;
+
+    public StartDetectionOptions(
+        FaceDetectorSettings faceDetectorSettings,
+        int lensFacing,
+        boolean compact,
+        @Nullable GestureOptions gestureOptions
+    ) {
+        this.faceDetectorSettings = faceDetectorSettings;
+        this.lensFacing = lensFacing;
+        this.compact = compact;
+        this.gestureOptions = gestureOptions;
+    }
+
+    /**
+     * Tracking is always enabled, since the detector processes consecutive frames.
+     * Classification is enabled if gestures are detected, since blinks and smiles depend on it.
+     */
+    public FaceDetectorSettings getFaceDetectorSettings() {
+        return new FaceDetectorSettings(
+            faceDetectorSettings.getPerformanceMode(),
+            faceDetectorSettings.getLandmarkMode(),
+            faceDetectorSettings.getContourMode(),
+            gestureOptions == null ? faceDetectorSettings.getClassificationMode() : FaceDetectorOptions.CLASSIFICATION_MODE_ALL,
+            faceDetectorSettings.getMinFaceSize(),
+            true
+        );
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    @Nullable
+    public GestureOptions getGestureOptions() {
+        return gestureOptions;
+    }
+
+    public CameraSelector getCameraSelector() {
+        return new CameraSelector.Builder().requireLensFacing(lensFacing).build();
+    }
+}
@@ -0,0 +1,29 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes;
+
+public class TilingOptions {
+
+    private int rows;
+    private int columns;
+    private float overlap;
+
+    public TilingOptions(int rows, int columns, float overlap) {
+        this.rows = rows;
+        this.columns = columns;
+        this.overlap = overlap;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * The proportion of a tile that overlaps with the neighboring tile.
+     */
+    public float getOverlap() {
+        return overlap;
+    }
+}
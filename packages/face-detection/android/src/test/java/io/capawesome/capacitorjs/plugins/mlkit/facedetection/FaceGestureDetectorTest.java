@@ -0,0 +1,119 @@
+package io.capawesome.capacitorjs.plugins.mlkit.facedetection;
+
+import static org.junit.Assert.*;
+
+import io.capawesome.capacitorjs.plugins.mlkit.facedetection.classes.GestureOptions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FaceGestureDetectorTest {
+
+    private static final int TRACKING_ID = 1;
+
+    private List<String> gestures;
+    private FaceGestureDetector detector;
+
+    @Before
+    public void setUp() {
+        gestures = new ArrayList<>();
+        GestureOptions options = new GestureOptions(0.2f, 0.6f, 0.8f, 0.3f, 25, 10);
+        detector = new FaceGestureDetector(options, (type, trackingId) -> gestures.add(type + ":" + trackingId));
+    }
+
+    @Test
+    public void blink_isDetectedWhenBothEyesCloseAndOpenAgain() {
+        processEyes(0.9f, 0.9f, 0.1f, 0.1f, 0.9f, 0.9f);
+        assertEquals(Collections.singletonList("blink:1"), gestures);
+    }
+
+    @Test
+    public void blink_isNotDetectedForValuesBetweenTheThresholds() {
+        processEyes(0.9f, 0.5f, 0.9f, 0.3f, 0.9f, 0.5f, 0.9f);
+        assertEquals(Collections.emptyList(), gestures);
+    }
+
+    @Test
+    public void blink_isNotDetectedForAWink() {
+        detector.processSamples(Collections.singletonList(createEyeSample(0.9f, 0.9f)));
+        detector.processSamples(Collections.singletonList(createEyeSample(0.1f, 0.9f)));
+        detector.processSamples(Collections.singletonList(createEyeSample(0.9f, 0.9f)));
+        assertEquals(Collections.emptyList(), gestures);
+    }
+
+    @Test
+    public void blink_isNotDetectedForAFaceThatAppearsWithClosedEyes() {
+        processEyes(0.1f, 0.1f, 0.9f);
+        assertEquals(Collections.emptyList(), gestures);
+        processEyes(0.1f, 0.9f);
+        assertEquals(Collections.singletonList("blink:1"), gestures);
+    }
+
+    @Test
+    public void smile_isDetectedOnceUntilReleased() {
+        processSmiles(0.1f, 0.9f, 0.95f, 0.5f, 0.9f);
+        assertEquals(Collections.singletonList("smile:1"), gestures);
+        processSmiles(0.2f, 0.9f);
+        assertEquals(Arrays.asList("smile:1", "smile:1"), gestures);
+    }
+
+    @Test
+    public void smile_isNotDetectedForAFaceThatAppearsSmiling() {
+        processSmiles(0.9f, 0.95f);
+        assertEquals(Collections.emptyList(), gestures);
+    }
+
+    @Test
+    public void headTurn_isDetectedOnceUntilTheHeadIsCentered() {
+        processHeadAngles(0, 30, 35, 15, 30, 5, -30);
+        assertEquals(Arrays.asList("turnRight:1", "turnLeft:1"), gestures);
+    }
+
+    @Test
+    public void headTurn_isNotDetectedBelowTheTurnAngle() {
+        processHeadAngles(0, 20, -20, 0);
+        assertEquals(Collections.emptyList(), gestures);
+    }
+
+    @Test
+    public void process_dropsTheStateOfFacesThatAreNoLongerVisible() {
+        processEyes(0.9f, 0.1f);
+        detector.processSamples(Collections.<FaceGestureDetector.FaceSample>emptyList());
+        // The face is seen with closed eyes first again, so opening them is not a blink
+        processEyes(0.1f, 0.9f);
+        assertEquals(Collections.emptyList(), gestures);
+    }
+
+    @Test
+    public void process_ignoresFacesWithoutTrackingId() {
+        for (float probability : new float[] { 0.9f, 0.1f, 0.9f }) {
+            detector.processSamples(Collections.singletonList(new FaceGestureDetector.FaceSample(null, probability, probability, null, 0)));
+        }
+        assertEquals(Collections.emptyList(), gestures);
+    }
+
+    private void processEyes(float... probabilities) {
+        for (float probability : probabilities) {
+            detector.processSamples(Collections.singletonList(createEyeSample(probability, probability)));
+        }
+    }
+
+    private void processSmiles(float... probabilities) {
+        for (float probability : probabilities) {
+            detector.processSamples(Collections.singletonList(new FaceGestureDetector.FaceSample(TRACKING_ID, null, null, probability, 0)));
+        }
+    }
+
+    private void processHeadAngles(float... angles) {
+        for (float angle : angles) {
+            detector.processSamples(Collections.singletonList(new FaceGestureDetector.FaceSample(TRACKING_ID, null, null, null, angle)));
+        }
+    }
+
+    private static FaceGestureDetector.FaceSample createEyeSample(float leftEyeOpenProbability, float rightEyeOpenProbability) {
+        return new FaceGestureDetector.FaceSample(TRACKING_ID, leftEyeOpenProbability, rightEyeOpenProbability, null, 0);
+    }
+}
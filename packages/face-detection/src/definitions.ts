@@ -1,3 +1,5 @@
+import type { PluginListenerHandle } from '@capacitor/core';
+
 export interface FaceDetectionPlugin {
   /**
    * Detects human faces from the supplied image.
@@ -7,6 +9,383 @@ export interface FaceDetectionPlugin {
    * @since 5.1.0
    */
   processImage(options: ProcessImageOptions): Promise<ProcessImageResult>;
+  /**
+   * Detects human faces from multiple images.
+   *
+   * The images are decoded and processed in parallel with a shared detector.
+   * The result of each image is delivered via the `imageProcessed` event as soon as it is ready.
+   * The promise resolves with a summary after all images have been processed.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  processImages(options: ProcessImagesOptions): Promise<ProcessImagesResult>;
+  /**
+   * Creates and initializes the face detector for the given options
+   * so that subsequent `processImage(...)` calls with the same options
+   * do not have to wait for the model to be loaded.
+   *
+   * Detectors are kept in a pool and closed after they have been idle for a while.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  preload(options?: PreloadOptions): Promise<void>;
+  /**
+   * Returns the statistics of the result cache that is used by `processImage(...)` with `cache` enabled.
+   *
+   * The counters are reset when the app is restarted.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  getCacheStats(): Promise<GetCacheStatsResult>;
+  /**
+   * Starts the camera and detects faces in the camera frames.
+   *
+   * The detected faces are delivered via the `facesDetected` event.
+   * If `gestures` is set, only the detected gestures are delivered via the `gestureDetected` event instead.
+   * Tracking is always enabled, so the same face keeps its `trackingId` across frames.
+   *
+   * The camera preview is shown behind the WebView, so the WebView background
+   * must be transparent while the detection is running.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  startDetection(options?: StartDetectionOptions): Promise<void>;
+  /**
+   * Stops the camera and the face detection.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  stopDetection(): Promise<void>;
+  /**
+   * Called with the detected faces of each analyzed camera frame while the detection is running.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'facesDetected',
+    listenerFunc: (event: FacesDetectedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Called with the result of each image processed by `processImages(...)`.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'imageProcessed',
+    listenerFunc: (event: ImageProcessedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Called when a tracked face performs a gesture while the detection is running with `gestures` set.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'gestureDetected',
+    listenerFunc: (event: GestureDetectedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Remove all listeners for this plugin.
+   *
+   * @since 8.1.0
+   */
+  removeAllListeners(): Promise<void>;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface ProcessImagesOptions
+  extends Omit<ProcessImageOptions, 'path' | 'cropFaces' | 'tiling' | 'cache'> {
+  /**
+   * The local paths to the image files.
+   *
+   * @since 8.1.0
+   */
+  paths: string[];
+  /**
+   * The maximum number of images that are decoded and processed at the same time.
+   *
+   * Higher values increase the throughput at the cost of memory,
+   * since every image in flight is held as a decoded bitmap.
+   *
+   * @since 8.1.0
+   * @default 2
+   */
+  concurrency?: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface ProcessImagesResult {
+  /**
+   * The number of images that were processed successfully.
+   *
+   * @since 8.1.0
+   */
+  processedCount: number;
+  /**
+   * The number of images that could not be loaded or processed.
+   *
+   * @since 8.1.0
+   */
+  failedCount: number;
+  /**
+   * The total number of faces detected in all images.
+   *
+   * @since 8.1.0
+   */
+  faceCount: number;
+  /**
+   * The time in milliseconds it took to process all images.
+   *
+   * @since 8.1.0
+   */
+  duration: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface ImageProcessedEvent {
+  /**
+   * The index of the image in the `paths` array.
+   *
+   * @since 8.1.0
+   */
+  index: number;
+  /**
+   * The local path to the image file.
+   *
+   * @since 8.1.0
+   */
+  path: string;
+  /**
+   * The detected faces.
+   *
+   * Not set if the image could not be processed.
+   *
+   * @since 8.1.0
+   */
+  faces?: Face[];
+  /**
+   * The detected faces in compact form.
+   *
+   * Only set if `compact` is enabled.
+   *
+   * @since 8.1.0
+   */
+  compactFaces?: CompactFace[];
+  /**
+   * The error message if the image could not be processed.
+   *
+   * @since 8.1.0
+   */
+  errorMessage?: string;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface GetCacheStatsResult {
+  /**
+   * The number of results that were returned from the cache.
+   *
+   * @since 8.1.0
+   */
+  hitCount: number;
+  /**
+   * The number of results that were not found in the cache.
+   *
+   * @since 8.1.0
+   */
+  missCount: number;
+  /**
+   * The number of results in the cache.
+   *
+   * @since 8.1.0
+   */
+  entryCount: number;
+  /**
+   * The size of the cache in bytes.
+   *
+   * @since 8.1.0
+   */
+  size: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export type PreloadOptions = Omit<
+  ProcessImageOptions,
+  | 'path'
+  | 'compact'
+  | 'maxDetectionDimension'
+  | 'cropFaces'
+  | 'tiling'
+  | 'cache'
+>;
+
+/**
+ * @since 8.1.0
+ */
+export interface StartDetectionOptions
+  extends Omit<
+    ProcessImageOptions,
+    | 'path'
+    | 'enableTracking'
+    | 'maxDetectionDimension'
+    | 'cropFaces'
+    | 'tiling'
+    | 'cache'
+  > {
+  /**
+   * Configure the camera (front or back) to use.
+   *
+   * @since 8.1.0
+   * @default LensFacing.Front
+   */
+  lensFacing?: LensFacing;
+  /**
+   * Detect blinks, smiles and head turns natively and emit `gestureDetected` events
+   * instead of `facesDetected` events.
+   *
+   * Classification is enabled automatically.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  gestures?: GestureOptions;
+}
+
+/**
+ * Each gesture has a threshold to enter and a threshold to leave a state,
+ * so that values close to a threshold do not emit a gesture on every frame.
+ *
+ * @since 8.1.0
+ */
+export interface GestureOptions {
+  /**
+   * Both eyes are considered closed if their open probability is below this value.
+   *
+   * @since 8.1.0
+   * @default 0.2
+   */
+  eyeClosedThreshold?: number;
+  /**
+   * Both eyes are considered open if their open probability is above this value.
+   * A blink is emitted when the eyes open again after they were closed.
+   *
+   * @since 8.1.0
+   * @default 0.6
+   */
+  eyeOpenThreshold?: number;
+  /**
+   * A smile is emitted when the smiling probability rises above this value.
+   *
+   * @since 8.1.0
+   * @default 0.8
+   */
+  smileThreshold?: number;
+  /**
+   * The smiling probability must fall below this value before the next smile is emitted.
+   *
+   * @since 8.1.0
+   * @default 0.3
+   */
+  smileReleaseThreshold?: number;
+  /**
+   * A head turn is emitted when the absolute `headEulerAngleY` rises above this angle in degrees.
+   *
+   * @since 8.1.0
+   * @default 25
+   */
+  headTurnAngle?: number;
+  /**
+   * The absolute `headEulerAngleY` must fall below this angle in degrees
+   * before the next head turn is emitted.
+   *
+   * @since 8.1.0
+   * @default 10
+   */
+  headCenterAngle?: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface GestureDetectedEvent {
+  /**
+   * The detected gesture.
+   *
+   * @since 8.1.0
+   */
+  type: GestureType;
+  /**
+   * The tracking ID of the face that performed the gesture.
+   *
+   * @since 8.1.0
+   */
+  trackingId: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface FacesDetectedEvent {
+  /**
+   * The faces detected in the camera frame.
+   *
+   * @since 8.1.0
+   */
+  faces: Face[];
+  /**
+   * The faces detected in the camera frame in compact form.
+   *
+   * Only set if `compact` is enabled.
+   *
+   * @since 8.1.0
+   */
+  compactFaces?: CompactFace[];
+  /**
+   * The size of the upright camera frame.
+   * The coordinates of the faces refer to this size.
+   *
+   * @since 8.1.0
+   */
+  imageSize: ImageSize;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface ImageSize {
+  /**
+   * @since 8.1.0
+   */
+  width: number;
+  /**
+   * @since 8.1.0
+   */
+  height: number;
 }
 
 /**
@@ -68,6 +447,161 @@ export interface ProcessImageOptions {
    * @see https://developers.google.com/android/reference/com/google/mlkit/vision/face/FaceDetectorOptions.Builder#public-facedetectoroptions.builder-enabletracking
    */
   enableTracking?: boolean;
+  /**
+   * Return the faces as `compactFaces` instead of `faces`.
+   *
+   * Compact faces encode bounds, landmarks and contours as flat number arrays,
+   * which is considerably smaller and faster to transfer when contours are enabled.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  compact?: boolean;
+  /**
+   * The maximum length in pixels of the longest side of the image that is passed to the detector.
+   *
+   * Larger images are downscaled while decoding, which reduces the decode time and memory usage considerably.
+   * The coordinates of the detected faces always refer to the original image.
+   * Choose a value that keeps the smallest expected face at least 100 pixels wide,
+   * e.g. `1000` for `minFaceSize: 0.1`.
+   * If `cropFaces` or `tiling` is set, the image is downscaled to at most `4096` pixels by default.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  maxDetectionDimension?: number;
+  /**
+   * Write a square crop of each detected face to the cache directory.
+   *
+   * The crops are created from the decoded image, so the image does not have to be loaded again.
+   * The paths are returned as `cropPath` of each face.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  cropFaces?: CropFacesOptions;
+  /**
+   * Split the image into overlapping tiles and detect faces on each tile.
+   *
+   * This finds faces that are too small for `minFaceSize` in the whole image,
+   * e.g. in group photos, at the cost of one detection per tile.
+   * Faces that are found on more than one tile are only returned once.
+   * Tracking is disabled for the tiles, so the faces have no `trackingId`.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  tiling?: TilingOptions;
+  /**
+   * Store the result on disk and return the stored result if the same file
+   * is processed again with the same options.
+   *
+   * The file is identified by a hash of its content, so a changed file is processed again.
+   * Cache hits neither decode the image nor run the detector.
+   * The least recently used results are deleted when the cache exceeds its size limit.
+   * Ignored if `cropFaces` is set.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  cache?: boolean;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface TilingOptions {
+  /**
+   * The number of tile rows.
+   *
+   * @since 8.1.0
+   * @default 2
+   */
+  rows?: number;
+  /**
+   * The number of tile columns.
+   *
+   * @since 8.1.0
+   * @default 2
+   */
+  columns?: number;
+  /**
+   * The proportion of a tile that overlaps with the neighboring tile.
+   *
+   * Should be large enough that the largest expected face fits completely into at least one tile.
+   *
+   * @since 8.1.0
+   * @default 0.2
+   */
+  overlap?: number;
+}
+
+/**
+ * @since 8.1.0
+ */
+export interface CropFacesOptions {
+  /**
+   * The width and height of the crops in pixels.
+   *
+   * @since 8.1.0
+   * @default 224
+   */
+  size?: number;
+  /**
+   * The space around the face as a proportion of the longest side of the bounding box.
+   *
+   * @since 8.1.0
+   * @default 0.25
+   */
+  padding?: number;
+  /**
+   * The image format of the crops.
+   *
+   * @since 8.1.0
+   * @default CropFormat.Jpeg
+   */
+  format?: CropFormat;
+  /**
+   * The compression quality between `0` and `100`.
+   *
+   * Ignored for `CropFormat.Png`.
+   *
+   * @since 8.1.0
+   * @default 90
+   */
+  quality?: number;
+  /**
+   * Rotate the crops by `headEulerAngleZ`, so that the faces are upright.
+   *
+   * @since 8.1.0
+   * @default false
+   */
+  rotate?: boolean;
+}
+
+/**
+ * @since 8.1.0
+ */
+export enum CropFormat {
+  /**
+   * @since 8.1.0
+   */
+  Jpeg = 'JPEG',
+  /**
+   * @since 8.1.0
+   */
+  Png = 'PNG',
+  /**
+   * @since 8.1.0
+   */
+  Webp = 'WEBP',
 }
 
 /**
@@ -77,9 +611,61 @@ export interface ProcessImageResult {
   /**
    * The detected faces.
    *
+   * Empty if `compact` is enabled.
+   *
    * @since 5.1.0
    */
   faces: Face[];
+  /**
+   * The detected faces in compact form.
+   *
+   * Only set if `compact` is enabled.
+   *
+   * @since 8.1.0
+   */
+  compactFaces?: CompactFace[];
+}
+
+/**
+ * @since 8.1.0
+ */
+export enum LensFacing {
+  /**
+   * @since 8.1.0
+   */
+  Front = 'FRONT',
+  /**
+   * @since 8.1.0
+   */
+  Back = 'BACK',
+}
+
+/**
+ * @since 8.1.0
+ */
+export enum GestureType {
+  /**
+   * Both eyes were closed and opened again.
+   *
+   * @since 8.1.0
+   */
+  Blink = 'blink',
+  /**
+   * @since 8.1.0
+   */
+  Smile = 'smile',
+  /**
+   * The face turned towards the left side of the image.
+   *
+   * @since 8.1.0
+   */
+  TurnLeft = 'turnLeft',
+  /**
+   * The face turned towards the right side of the image.
+   *
+   * @since 8.1.0
+   */
+  TurnRight = 'turnRight',
 }
 
 /**
@@ -255,6 +841,65 @@ export interface Face {
    * @since 5.1.0
    */
   rightEyeOpenProbability?: number;
+  /**
+   * The file URI of the face crop.
+   *
+   * Only set if `cropFaces` is set.
+   *
+   * @since 8.1.0
+   */
+  cropPath?: string;
+}
+
+/**
+ * A face with bounds, landmarks and contours encoded as flat number arrays.
+ *
+ * Coordinates are rounded to two decimal places.
+ *
+ * @since 8.1.0
+ */
+export interface CompactFace
+  extends Omit<Face, 'bounds' | 'landmarks' | 'contours'> {
+  /**
+   * The bounding rectangle as `[left, top, right, bottom]`.
+   *
+   * @since 8.1.0
+   */
+  bounds: [number, number, number, number];
+  /**
+   * The types of the landmarks.
+   *
+   * @since 8.1.0
+   */
+  landmarkTypes?: LandmarkType[];
+  /**
+   * The positions of the landmarks as `[x0, y0, x1, y1, ...]`,
+   * in the same order as `landmarkTypes`.
+   *
+   * @since 8.1.0
+   */
+  landmarkPositions?: number[];
+  /**
+   * The types of the contours.
+   *
+   * @since 8.1.0
+   */
+  contourTypes?: ContourType[];
+  /**
+   * The number of points of each contour, in the same order as `contourTypes`.
+   *
+   * @since 8.1.0
+   */
+  contourPointCounts?: number[];
+  /**
+   * The points of all contours as `[x0, y0, x1, y1, ...]`.
+   *
+   * The first `contourPointCounts[0]` points belong to the first contour,
+   * the next `contourPointCounts[1]` points to the second contour and so on.
+   *
+   * @since 8.1.0
+   */
+  contourPoints?: number[];
 }
 
 /**
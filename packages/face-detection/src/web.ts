@@ -2,8 +2,13 @@ import { CapacitorException, ExceptionCode, WebPlugin } from '@capacitor/core';
 
 import type {
   FaceDetectionPlugin,
+  GetCacheStatsResult,
+  PreloadOptions,
   ProcessImageOptions,
   ProcessImageResult,
+  ProcessImagesOptions,
+  ProcessImagesResult,
+  StartDetectionOptions,
 } from './definitions';
 
 export class FaceDetectionWeb extends WebPlugin implements FaceDetectionPlugin {
@@ -13,6 +18,30 @@ export class FaceDetectionWeb extends WebPlugin implements FaceDetectionPlugin {
     throw this.createUnimplementedException();
   }
 
+  public async processImages(
+    _options: ProcessImagesOptions,
+  ): Promise<ProcessImagesResult> {
+    throw this.createUnimplementedException();
+  }
+
+  public async preload(_options?: PreloadOptions): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
+  public async getCacheStats(): Promise<GetCacheStatsResult> {
+    throw this.createUnimplementedException();
+  }
+
+  public async startDetection(
+    _options?: StartDetectionOptions,
+  ): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
+  public async stopDetection(): Promise<void> {
+    throw this.createUnimplementedException();
+  }
+
   private createUnimplementedException(): CapacitorException {
     return new CapacitorException(
       'This method is not implemented on web.',